@@ -0,0 +1,59 @@
+package lexer;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  VectorCharScan  –  CharScan com jdk.incubator.vector
+ *
+ *  Compara SPECIES_PREFERRED.length() caracteres por vez (8 a 32 chars,
+ *  16 a 64 bytes): o salto para no primeiro que não é ASCII ou é o
+ *  caractere procurado (ou não é branco), e os '\n' antes dele são
+ *  contados pela máscara. O resto que não enche um vetor vai no laço
+ *  escalar. Carregada por reflexão (ver CharScan).
+ *  ---------------------------------------------------------------- */
+final class VectorCharScan extends CharScan {
+
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    @Override
+    int skip(char[] b, int from, int to, char stop) {
+        int nl = 0, last = -1, i = from;
+        for (; i + LANES <= to; i += LANES) {
+            ShortVector v = ShortVector.fromCharArray(SPECIES, b, i);
+            VectorMask<Short> end = v.lanewise(VectorOperators.AND, (short) 0xFF80).compare(VectorOperators.NE, (short) 0);
+            if (stop == BLANKS)
+                end = end.or(v.compare(VectorOperators.NE, (short) ' ')
+                        .and(v.compare(VectorOperators.NE, (short) '\n'))
+                        .and(v.compare(VectorOperators.NE, (short) '\t'))
+                        .and(v.compare(VectorOperators.NE, (short) '\r'))
+                        .and(v.compare(VectorOperators.NE, (short) '\b')));
+            else
+                end = end.or(v.compare(VectorOperators.EQ, (short) stop));
+            VectorMask<Short> lf = v.compare(VectorOperators.EQ, (short) '\n');
+            int k = end.firstTrue();
+            if (k < LANES)
+                lf = lf.and(SPECIES.indexInRange(0, k));
+            if (lf.anyTrue()) {
+                nl += lf.trueCount();
+                last = i + lf.lastTrue();
+            }
+            if (k < LANES) {
+                lines = nl;
+                lastLine = last;
+                return i + k;
+            }
+        }
+        for (; i < to; i++) {
+            char c = b[i];
+            if (c >= 0x80 || (stop == BLANKS ? !CharClass.isBlank(c) : c == stop)) break;
+            if (c == '\n') { nl++; last = i; }
+        }
+        lines = nl;
+        lastLine = last;
+        return Math.max(i, from);
+    }
+}
@@ -0,0 +1,269 @@
+package ast;
+
+import java.util.Arrays;
+
+import lexer.SymbolPool;
+import parser.Type;
+
+// A classe Ast guarda a árvore sintática em vetores paralelos (sem um objeto por nó)
+public final class Ast {
+
+    /*
+     * Nó n: kind[n] (ver Node), pos[n] (ver lexer.Position), value[n],
+     * type[n] (ordinal de Type, ou -1 para nós que não são expressões),
+     * child[n] = primeiro filho e next[n] = próximo irmão (-1 = nenhum).
+     *
+     * Variável v (uma por declaração; escopos diferentes dão variáveis
+     * diferentes mesmo com o mesmo nome): varSym[v] no SymbolPool,
+     * varType[v] e varDecl[v] = nó DECL.
+     */
+    public static final int NONE = -1;
+
+    private static final Type[] TYPES = Type.values();
+
+    private byte[] kind = new byte[1 << 10];
+    private byte[] type = new byte[1 << 10];
+    private int[] value = new int[1 << 10];
+    private int[] child = new int[1 << 10];
+    private int[] next = new int[1 << 10];
+    private long[] pos = new long[1 << 10];
+    private int size;
+    private int root = NONE;
+
+    private int[] varSym = new int[1 << 6];
+    private byte[] varType = new byte[1 << 6];
+    private int[] varDecl = new int[1 << 6];
+    private int varCount;
+
+    private String[] literals = new String[1 << 4];
+    private int literalCount;
+
+    private SymbolPool symbols;
+
+    /* ----------------------------------------------------------
+     *  Leitura
+     * ---------------------------------------------------------- */
+    public int size()               { return size; }
+    public int root()               { return root; }
+    public int kind(int n)          { return kind[n]; }
+    public long position(int n)     { return pos[n]; }
+    public int value(int n)         { return value[n]; }
+    public int child(int n)         { return child[n]; }
+    public int next(int n)          { return next[n]; }
+
+    /** Tipo de uma expressão (null nos demais nós). */
+    public Type type(int n) {
+        return type[n] < 0 ? null : TYPES[type[n]];
+    }
+
+    /** Ordinal do tipo de n, ou -1 (ver parser.TypeRules). */
+    public int typeOrdinal(int n)   { return type[n]; }
+
+    /** i-ésimo filho de n (NONE se não houver). */
+    public int child(int n, int i) {
+        int c = child[n];
+        while (i-- > 0 && c != NONE)
+            c = next[c];
+        return c;
+    }
+
+    public int intValue(int n)      { return value[n]; }
+    public float realValue(int n)   { return Float.intBitsToFloat(value[n]); }
+    public char charValue(int n)    { return (char) value[n]; }
+    public String literal(int n)    { return literals[value[n]]; }
+
+    public int variables()          { return varCount; }
+    public int varSymbol(int v)     { return varSym[v]; }
+    public Type varType(int v)      { return TYPES[varType[v]]; }
+    public int varDecl(int v)       { return varDecl[v]; }
+
+    /** Nome da variável v (via o SymbolPool do Lexer que a leu). */
+    public String varName(int v) {
+        return symbols == null ? "#" + varSym[v] : symbols.name(varSym[v]);
+    }
+
+    /** Esvazia a árvore mantendo a capacidade já alocada. */
+    public void clear() {
+        size = varCount = literalCount = 0;
+        root = NONE;
+        Arrays.fill(literals, null);
+    }
+
+    /* ----------------------------------------------------------
+     *  Escrita (usada pelo Parser)
+     * ---------------------------------------------------------- */
+    public void setSymbols(SymbolPool symbols) {
+        this.symbols = symbols;
+    }
+
+    public void setRoot(int n) {
+        root = n;
+    }
+
+    /** Novo nó sem filhos; t == null para nós que não são expressões. */
+    public int add(int k, long p, int v, Type t) {
+        if (size == kind.length) {
+            int cap = 2 * size;
+            kind = Arrays.copyOf(kind, cap);
+            type = Arrays.copyOf(type, cap);
+            value = Arrays.copyOf(value, cap);
+            child = Arrays.copyOf(child, cap);
+            next = Arrays.copyOf(next, cap);
+            pos = Arrays.copyOf(pos, cap);
+        }
+        kind[size] = (byte) k;
+        type[size] = (byte) (t == null ? -1 : t.ordinal());
+        value[size] = v;
+        child[size] = next[size] = NONE;
+        pos[size] = p;
+        return size++;
+    }
+
+    /** Nó com filhos a e b (b pode ser NONE). */
+    public int add(int k, long p, int v, Type t, int a, int b) {
+        int n = add(k, p, v, t);
+        child[n] = a;
+        if (a != NONE)
+            next[a] = b;
+        return n;
+    }
+
+    /**
+     * Acrescenta c aos filhos de parent, sendo last o último filho atual
+     * (NONE se nenhum). Devolve c, o novo último.
+     */
+    public int append(int parent, int last, int c) {
+        if (c == NONE)
+            return last;
+        if (last == NONE)
+            child[parent] = c;
+        else
+            next[last] = c;
+        return c;
+    }
+
+    public void setValue(int n, int v) {
+        value[n] = v;
+    }
+
+    public int addVariable(int sym, Type t, int decl) {
+        if (varCount == varSym.length) {
+            int cap = 2 * varCount;
+            varSym = Arrays.copyOf(varSym, cap);
+            varType = Arrays.copyOf(varType, cap);
+            varDecl = Arrays.copyOf(varDecl, cap);
+        }
+        varSym[varCount] = sym;
+        varType[varCount] = (byte) t.ordinal();
+        varDecl[varCount] = decl;
+        return varCount++;
+    }
+
+    public int addLiteral(String s) {
+        if (literalCount == literals.length)
+            literals = Arrays.copyOf(literals, 2 * literalCount);
+        literals[literalCount] = s;
+        return literalCount++;
+    }
+
+    /* ----------------------------------------------------------
+     *  Reescrita (usada pelo ConstantFolder); next[n] é preservado,
+     *  então n continua no mesmo lugar da lista de irmãos
+     * ---------------------------------------------------------- */
+
+    /** n passa a ser um nó k sem filhos. */
+    public void rewrite(int n, int k, int v, Type t) {
+        kind[n] = (byte) k;
+        type[n] = (byte) (t == null ? -1 : t.ordinal());
+        value[n] = v;
+        child[n] = NONE;
+    }
+
+    /** n passa a ser uma cópia de m (mesmos filhos). */
+    public void become(int n, int m) {
+        kind[n] = kind[m];
+        type[n] = type[m];
+        value[n] = value[m];
+        child[n] = child[m];
+        pos[n] = pos[m];
+    }
+
+    public void setChild(int n, int c) {
+        child[n] = c;
+    }
+
+    public void setNext(int n, int c) {
+        next[n] = c;
+    }
+
+    /* ----------------------------------------------------------
+     *  Depuração
+     * ---------------------------------------------------------- */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (root == NONE)
+            return "";
+
+        /* pré-ordem com pilha explícita: ao imprimir n, empilha o irmão e depois o filho */
+        int[] nodes = new int[64], depths = new int[64];
+        int top = 0;
+        nodes[top] = root;
+        depths[top++] = 0;
+        while (top > 0) {
+            int n = nodes[--top], depth = depths[top];
+            line(n, depth, sb);
+            if (top + 2 > nodes.length) {
+                nodes = Arrays.copyOf(nodes, 2 * nodes.length);
+                depths = Arrays.copyOf(depths, nodes.length);
+            }
+            if (next[n] != NONE && n != root) {
+                nodes[top] = next[n];
+                depths[top++] = depth;
+            }
+            if (child[n] != NONE) {
+                nodes[top] = child[n];
+                depths[top++] = depth + 1;
+            }
+        }
+        return sb.toString();
+    }
+
+    private void line(int n, int depth, StringBuilder sb) {
+        for (int i = 0; i < depth; i++)
+            sb.append("  ");
+        sb.append(Node.name(kind[n]));
+        switch (kind[n]) {
+            case Node.DECL:
+            case Node.ASSIGN:
+            case Node.READ:
+            case Node.VAR:
+                sb.append(' ').append(value[n] < 0 ? "?" : varName(value[n]) + "#" + value[n]);
+                break;
+            case Node.BINARY:
+            case Node.UNARY:
+                sb.append(" op=").append(value[n]);
+                break;
+            case Node.INT_CONST:
+                sb.append(' ').append(value[n]);
+                break;
+            case Node.REAL_CONST:
+                sb.append(' ').append(realValue(n));
+                break;
+            case Node.CHAR_CONST:
+                sb.append(" '").append(charValue(n)).append('\'');
+                break;
+            case Node.LITERAL:
+                sb.append(' ').append(literal(n));
+                break;
+            case Node.BOOL_CONST:
+                sb.append(' ').append(value[n] != 0);
+                break;
+            default:
+                break;
+        }
+        if (type[n] >= 0)
+            sb.append(" : ").append(TYPES[type[n]]);
+        sb.append('\n');
+    }
+}
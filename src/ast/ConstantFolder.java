@@ -0,0 +1,286 @@
+package ast;
+
+import java.util.Arrays;
+
+import lexer.Tag;
+import parser.Type;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  ConstantFolder  –  dobramento de constantes e simplificações na Ast
+ *
+ *  Avalia em tempo de compilação as expressões com operandos constantes,
+ *  no tipo que o Parser já deu a cada nó (regras de TypeRules: INT/FLOAT
+ *  promovem a FLOAT, CHAR x INT usa o código do caractere), e aplica identidades
+ *  que preservam tipo e valor (x + 0, x * 1, b && true, !!b, - -x ...).
+ *  Comandos com condição constante perdem o ramo morto: if/else fica só
+ *  com o bloco escolhido, while falso e o then de um if falso somem, e
+ *  repeat ... until verdadeiro vira o próprio corpo. Os blocos que
+ *  sobram no lugar do comando são achatados no bloco de fora (as
+ *  variáveis já são uma por declaração, então o escopo não importa mais).
+ *
+ *  Não dobra o que falharia em tempo de execução (divisão inteira por
+ *  zero) nem descarta subexpressões que poderiam falhar (x * 0, b && false).
+ *
+ *  Como a Ast é montada de baixo para cima, os filhos de um nó sempre têm
+ *  índice menor que ele: uma única passada em ordem de índice já encontra
+ *  os operandos dobrados, sem recursão.
+ *  ---------------------------------------------------------------- */
+public final class ConstantFolder {
+
+    private final Ast ast;
+    private boolean[] mayFail;          // a subexpressão pode dividir um inteiro por zero
+    private int folded, eliminatedBlocks;
+
+    public ConstantFolder(Ast ast) {
+        this.ast = ast;
+    }
+
+    /** Nós de expressão dobrados ou simplificados na última run(). */
+    public int folded() {
+        return folded;
+    }
+
+    /** Blocos descartados por estarem num ramo que nunca executa. */
+    public int eliminatedBlocks() {
+        return eliminatedBlocks;
+    }
+
+    public void run() {
+        folded = eliminatedBlocks = 0;
+        int size = ast.size();
+        mayFail = new boolean[size];
+        for (int n = 0; n < size; n++) {
+            switch (ast.kind(n)) {
+                case Node.BINARY: binary(n); break;
+                case Node.UNARY:  unary(n); break;
+                case Node.IF:     ifStmt(n); break;
+                case Node.WHILE:  whileStmt(n); break;
+                case Node.REPEAT: repeatStmt(n); break;
+                default: break;
+            }
+        }
+
+        /* só os blocos ainda alcançáveis: um bloco copiado por become()
+           divide a lista de filhos com o original, que ficou órfão */
+        int[] work = new int[16];
+        int top = 0;
+        work[top++] = ast.child(ast.root());
+        while (top > 0) {
+            int block = work[--top];
+            flatten(block);
+            for (int s = ast.child(block); s != Ast.NONE; s = ast.next(s)) {
+                int k = ast.kind(s);
+                if (k != Node.IF && k != Node.WHILE && k != Node.REPEAT)
+                    continue;
+                for (int c = ast.child(s); c != Ast.NONE; c = ast.next(c))
+                    if (ast.kind(c) == Node.BLOCK) {
+                        if (top == work.length)
+                            work = Arrays.copyOf(work, 2 * top);
+                        work[top++] = c;
+                    }
+            }
+        }
+    }
+
+    /* ----------------------------------------------------------
+     *  Expressões
+     * ---------------------------------------------------------- */
+    private void binary(int n) {
+        int left = ast.child(n), right = ast.next(left);
+        int op = ast.value(n);
+        Type t = ast.type(n), lt = ast.type(left), rt = ast.type(right);
+        boolean lc = Node.isConstant(ast.kind(left)), rc = Node.isConstant(ast.kind(right));
+        mayFail[n] = mayFail[left] || mayFail[right]
+                || (op == Tag.DIV && t != Type.FLOAT && (!rc || ast.value(right) == 0));
+
+        if (lc && rc) {
+            if (op == Tag.AND || op == Tag.OR) {
+                boolean a = ast.value(left) != 0, b = ast.value(right) != 0;
+                constant(n, Node.BOOL_CONST, (op == Tag.AND ? a && b : a || b) ? 1 : 0, Type.BOOL);
+            } else if (isRelop(op)) {
+                boolean r = (lt == Type.FLOAT || rt == Type.FLOAT)
+                        ? compare(op, asFloat(left), asFloat(right))
+                        : compare(op, ast.value(left), ast.value(right));
+                constant(n, Node.BOOL_CONST, r ? 1 : 0, Type.BOOL);
+            } else if (t == Type.FLOAT) {
+                float a = asFloat(left), b = asFloat(right);
+                float r = op == Tag.PLUS ? a + b : op == Tag.MINUS ? a - b : op == Tag.TIMES ? a * b : a / b;
+                constant(n, Node.REAL_CONST, Float.floatToRawIntBits(r), Type.FLOAT);
+            } else if (!mayFail[n]) {
+                int a = ast.value(left), b = ast.value(right);
+                int r = op == Tag.PLUS ? a + b : op == Tag.MINUS ? a - b : op == Tag.TIMES ? a * b : a / b;
+                constant(n, Node.INT_CONST, r, t);
+            }
+            return;
+        }
+
+        /* identidades: só quando o operando que fica já tem o tipo do resultado */
+        if (rc && lt == t && isIdentity(op, t, right, false)) {
+            replace(n, left);
+        } else if (lc && rt == t && isIdentity(op, t, left, true)) {
+            replace(n, right);
+        } else if (rc && isAbsorbing(op, t, right) && !mayFail[left]) {
+            replace(n, right);
+        } else if (lc && isAbsorbing(op, t, left) && !mayFail[right]) {
+            replace(n, left);
+        }
+    }
+
+    /* x op c == x (c à direita) ou c op x == x (c à esquerda) */
+    private boolean isIdentity(int op, Type t, int c, boolean leftSide) {
+        switch (op) {
+            case Tag.AND:   return ast.value(c) != 0;
+            case Tag.OR:    return ast.value(c) == 0;
+            case Tag.TIMES: return isOne(c, t);
+            case Tag.DIV:   return !leftSide && isOne(c, t);
+            /* x + 0.0 muda -0.0 para 0.0: em FLOAT só x - 0.0 é exato */
+            case Tag.PLUS:  return t == Type.INT && ast.value(c) == 0;
+            case Tag.MINUS: return !leftSide && isZero(c, t);
+            default:        return false;
+        }
+    }
+
+    /* x op c == c para qualquer x */
+    private boolean isAbsorbing(int op, Type t, int c) {
+        switch (op) {
+            case Tag.AND:   return ast.value(c) == 0;
+            case Tag.OR:    return ast.value(c) != 0;
+            case Tag.TIMES: return t == Type.INT && ast.kind(c) == Node.INT_CONST && ast.value(c) == 0;
+            default:        return false;
+        }
+    }
+
+    private boolean isOne(int c, Type t) {
+        return t == Type.FLOAT ? ast.kind(c) == Node.REAL_CONST && ast.realValue(c) == 1.0f
+                               : ast.kind(c) == Node.INT_CONST && ast.value(c) == 1;
+    }
+
+    private boolean isZero(int c, Type t) {
+        return t == Type.FLOAT ? ast.kind(c) == Node.REAL_CONST && ast.value(c) == 0    // +0.0
+                               : ast.kind(c) == Node.INT_CONST && ast.value(c) == 0;
+    }
+
+    private void unary(int n) {
+        int e = ast.child(n);
+        mayFail[n] = mayFail[e];
+        int k = ast.kind(e);
+        if (ast.value(n) == '!') {
+            if (k == Node.BOOL_CONST)
+                constant(n, Node.BOOL_CONST, ast.value(e) == 0 ? 1 : 0, Type.BOOL);
+            else if (k == Node.UNARY && ast.value(e) == '!')
+                replace(n, ast.child(e));                    // !!b
+            return;
+        }
+        if (k == Node.INT_CONST)
+            constant(n, Node.INT_CONST, -ast.value(e), Type.INT);
+        else if (k == Node.REAL_CONST)
+            constant(n, Node.REAL_CONST, Float.floatToRawIntBits(-ast.realValue(e)), Type.FLOAT);
+        else if (k == Node.UNARY && ast.value(e) == Tag.MINUS && ast.type(e) != Type.CHAR)
+            replace(n, ast.child(e));                        // - -x
+    }
+
+    private void constant(int n, int kind, int value, Type t) {
+        ast.rewrite(n, kind, value, t);
+        folded++;
+    }
+
+    private void replace(int n, int m) {
+        ast.become(n, m);
+        folded++;
+    }
+
+    private float asFloat(int c) {
+        return ast.kind(c) == Node.REAL_CONST ? ast.realValue(c) : (float) ast.value(c);
+    }
+
+    /* comparações como em tempo de execução (-0.0 == 0.0, NaN diferente de tudo) */
+    private static boolean compare(int op, float a, float b) {
+        switch (op) {
+            case Tag.EQ: return a == b;
+            case Tag.NE: return a != b;
+            case Tag.LT: return a < b;
+            case Tag.LE: return a <= b;
+            case Tag.GT: return a > b;
+            default:     return a >= b;
+        }
+    }
+
+    private static boolean compare(int op, int a, int b) {
+        switch (op) {
+            case Tag.EQ: return a == b;
+            case Tag.NE: return a != b;
+            case Tag.LT: return a < b;
+            case Tag.LE: return a <= b;
+            case Tag.GT: return a > b;
+            default:     return a >= b;
+        }
+    }
+
+    private static boolean isRelop(int op) {
+        return op == Tag.EQ || op == Tag.NE || op == Tag.LT || op == Tag.LE || op == Tag.GT || op == Tag.GE;
+    }
+
+    /* ----------------------------------------------------------
+     *  Comandos com condição constante
+     * ---------------------------------------------------------- */
+    private boolean isConstant(int cond, boolean value) {
+        return ast.kind(cond) == Node.BOOL_CONST && (ast.value(cond) != 0) == value;
+    }
+
+    private void ifStmt(int n) {
+        int cond = ast.child(n), then = ast.next(cond), otherwise = ast.next(then);
+        if (isConstant(cond, true)) {
+            ast.become(n, then);
+            if (otherwise != Ast.NONE)
+                eliminatedBlocks++;
+        } else if (isConstant(cond, false)) {
+            eliminatedBlocks++;
+            if (otherwise != Ast.NONE)
+                ast.become(n, otherwise);
+            else
+                ast.rewrite(n, Node.BLOCK, 0, null);
+        }
+    }
+
+    private void whileStmt(int n) {
+        if (isConstant(ast.child(n), false)) {
+            ast.rewrite(n, Node.BLOCK, 0, null);
+            eliminatedBlocks++;
+        }
+    }
+
+    private void repeatStmt(int n) {
+        int body = ast.child(n);
+        if (isConstant(ast.next(body), true))
+            ast.become(n, body);                             // executa uma vez
+    }
+
+    /* ----------------------------------------------------------
+     *  Blocos que ficaram no lugar de comandos: seus filhos passam
+     *  para o bloco de fora (um bloco vazio simplesmente some)
+     * ---------------------------------------------------------- */
+    private void flatten(int block) {
+        int prev = Ast.NONE;
+        for (int c = ast.child(block); c != Ast.NONE; ) {
+            int after = ast.next(c);
+            if (ast.kind(c) != Node.BLOCK) {
+                prev = c;
+                c = after;
+                continue;
+            }
+            int first = ast.child(c);
+            if (first != Ast.NONE) {
+                int last = first;
+                while (ast.next(last) != Ast.NONE)
+                    last = ast.next(last);
+                ast.setNext(last, after);
+                after = first;                               // revisita os filhos (podem ser blocos)
+            }
+            if (prev == Ast.NONE)
+                ast.setChild(block, after);
+            else
+                ast.setNext(prev, after);
+            c = after;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package ast;
+
+// A classe Node define as constantes para os tipos de nó da AST (ver Ast)
+public final class Node {
+
+    private Node() { }
+
+    /*
+     * Filhos de cada tipo de nó, em ordem, e o significado de value:
+     *
+     *   PROGRAM     BLOCK
+     *   BLOCK       DECL* stmt*                 (um escopo; após o ConstantFolder,
+     *                                            DECLs e comandos podem se alternar)
+     *   DECL        -                           value = variável
+     *   ASSIGN      expr                        value = variável
+     *   IF          cond BLOCK [BLOCK]
+     *   WHILE       cond BLOCK
+     *   REPEAT      BLOCK cond
+     *   READ        -                           value = variável
+     *   WRITE       expr | LITERAL
+     *   BINARY      expr expr                   value = Tag do operador
+     *   UNARY       expr                        value = '!' ou Tag.MINUS
+     *   VAR         -                           value = variável (-1 se não declarada)
+     *   INT_CONST   -                           value = o inteiro
+     *   REAL_CONST  -                           value = Float.floatToRawIntBits
+     *   CHAR_CONST  -                           value = o caractere
+     *   LITERAL     -                           value = índice em Ast.literal
+     *   BOOL_CONST  -                           value = 0 ou 1 (só o ConstantFolder cria)
+     */
+    public static final byte
+        PROGRAM = 0,
+        BLOCK = 1,
+        DECL = 2,
+        ASSIGN = 3,
+        IF = 4,
+        WHILE = 5,
+        REPEAT = 6,
+        READ = 7,
+        WRITE = 8,
+        BINARY = 9,
+        UNARY = 10,
+        VAR = 11,
+        INT_CONST = 12,
+        REAL_CONST = 13,
+        CHAR_CONST = 14,
+        LITERAL = 15,
+        BOOL_CONST = 16;
+
+    private static final String[] NAMES = {
+        "PROGRAM", "BLOCK", "DECL", "ASSIGN", "IF", "WHILE", "REPEAT", "READ", "WRITE",
+        "BINARY", "UNARY", "VAR", "INT_CONST", "REAL_CONST", "CHAR_CONST", "LITERAL",
+        "BOOL_CONST"
+    };
+
+    public static String name(int kind) {
+        return NAMES[kind];
+    }
+
+    /** true para os nós que produzem um valor (têm tipo). */
+    public static boolean isExpression(int kind) {
+        return kind >= BINARY && kind <= CHAR_CONST || kind == BOOL_CONST;
+    }
+
+    /** true para as constantes (INT, REAL, CHAR e BOOL). */
+    public static boolean isConstant(int kind) {
+        return kind >= INT_CONST && kind <= CHAR_CONST || kind == BOOL_CONST;
+    }
+}
@@ -0,0 +1,468 @@
+package gen;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  LL1Generator  –  gera parser/LL1Table.java a partir da gramática
+ *
+ *  Lê parser/grammar.txt (notação dos comentários do Parser, com [x],
+ *  {x}, alternativas '|' e ações @nome), reescreve opcionais e
+ *  repetições como não-terminais auxiliares, calcula anulável, FIRST e
+ *  FOLLOW por ponto fixo e monta a tabela LL(1). Conflitos são erro.
+ *
+ *  Uso: java gen.LL1Generator <grammar.txt> <LL1Table.java>
+ *  ---------------------------------------------------------------- */
+public final class LL1Generator {
+
+    /* terminais (0 = EOF), não-terminais e ações, pela ordem de aparição */
+    private final List<String> terminals = new ArrayList<>();
+    private final List<String> tagExprs = new ArrayList<>();
+    private final List<String> nonterminals = new ArrayList<>();
+    private final List<String> actions = new ArrayList<>();
+    private final Map<String, Integer> terminalIndex = new LinkedHashMap<>();
+    private final Map<String, Integer> ntIndex = new LinkedHashMap<>();
+
+    /* produções: lhs[p] e rhs[p] (símbolos codificados, ver symbol) */
+    private final List<Integer> lhs = new ArrayList<>();
+    private final List<int[]> rhs = new ArrayList<>();
+
+    private final Map<Integer, String> errors = new LinkedHashMap<>();
+    private final Map<Integer, String> eofErrors = new LinkedHashMap<>();
+
+    /* texto bruto das regras (resolvido depois de conhecer todos os nomes) */
+    private final Map<String, String> ruleText = new LinkedHashMap<>();
+
+    private int auxCount;
+
+    private boolean[] nullable;
+    private long[][] first, follow;
+    private short[] table, defaults;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: java gen.LL1Generator <grammar.txt> <LL1Table.java>");
+            System.exit(1);
+        }
+        LL1Generator g = new LL1Generator();
+        g.read(Files.readAllLines(Path.of(args[0]), StandardCharsets.UTF_8));
+        g.analyze();
+        Files.writeString(Path.of(args[1]), g.emit(args[0]), StandardCharsets.UTF_8);
+    }
+
+    /* ----------------------------------------------------------
+     *  Leitura da gramática
+     * ---------------------------------------------------------- */
+    private void read(List<String> lines) {
+        terminals.add("EOF");
+        tagExprs.add("Tag.EOF");
+        String current = null;
+        for (String raw : lines) {
+            String line = raw.strip();
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+            if (line.startsWith("%token")) {
+                String[] f = line.substring(6).strip().split("\\s+", 2);
+                terminalIndex.put(f[0], terminals.size());
+                terminals.add(f[0]);
+                tagExprs.add(f[1]);
+            } else if (line.startsWith("!eof ")) {
+                eofErrors.put(ntIndex.get(current), line.substring(5).strip());
+            } else if (line.startsWith("! ")) {
+                errors.put(ntIndex.get(current), line.substring(2).strip());
+            } else if (line.contains("::=")) {
+                current = line.substring(0, line.indexOf("::=")).strip();
+                ntIndex.put(current, nonterminals.size());
+                nonterminals.add(current);
+                ruleText.put(current, line.substring(line.indexOf("::=") + 3));
+            } else if (current != null) {           // continuação da regra anterior
+                ruleText.merge(current, " " + line, String::concat);
+            }
+        }
+        for (Map.Entry<String, String> r : ruleText.entrySet()) {
+            List<String> toks = tokenize(r.getValue());
+            int[] at = {0};
+            alternatives(ntIndex.get(r.getKey()), toks, at);
+            if (at[0] != toks.size())
+                throw new IllegalArgumentException("regra " + r.getKey() + ": '" + toks.get(at[0]) + "' inesperado");
+        }
+    }
+
+    private static List<String> tokenize(String s) {
+        List<String> out = new ArrayList<>();
+        for (int i = 0; i < s.length(); ) {
+            char c = s.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '"') {
+                int j = s.indexOf('"', i + 1);
+                out.add(s.substring(i, j + 1));
+                i = j + 1;
+            } else if ("|[]{}()".indexOf(c) >= 0) {
+                out.add(String.valueOf(c));
+                i++;
+            } else {
+                int j = i;
+                while (j < s.length() && !Character.isWhitespace(s.charAt(j)) && "|[]{}()\"".indexOf(s.charAt(j)) < 0)
+                    j++;
+                out.add(s.substring(i, j));
+                i = j;
+            }
+        }
+        return out;
+    }
+
+    /* alt {'|' alt} até um fechamento (']', '}', ')') ou o fim; cada alternativa vira produção de nt */
+    private void alternatives(int nt, List<String> toks, int[] at) {
+        for (;;) {
+            List<Integer> seq = new ArrayList<>();
+            while (at[0] < toks.size()) {
+                String t = toks.get(at[0]);
+                if (t.equals("|") || t.equals("]") || t.equals("}") || t.equals(")"))
+                    break;
+                at[0]++;
+                switch (t) {
+                    case "[": {                     // [x]  ->  A ::= x | ε
+                        int a = aux(nt);
+                        alternatives(a, toks, at);
+                        expect(toks, at, "]");
+                        addProduction(a, new ArrayList<>());
+                        seq.add(encodeNt(a));
+                        break;
+                    }
+                    case "{": {                     // {x}  ->  A ::= x A | ε
+                        int a = aux(nt);
+                        int before = rhs.size();
+                        alternatives(a, toks, at);
+                        expect(toks, at, "}");
+                        for (int p = before; p < rhs.size(); p++)
+                            if (lhs.get(p) == a) {
+                                int[] r = rhs.get(p);
+                                int[] withTail = Arrays.copyOf(r, r.length + 1);
+                                withTail[r.length] = encodeNt(a);
+                                rhs.set(p, withTail);
+                            }
+                        addProduction(a, new ArrayList<>());
+                        seq.add(encodeNt(a));
+                        break;
+                    }
+                    case "(": {
+                        int a = aux(nt);
+                        alternatives(a, toks, at);
+                        expect(toks, at, ")");
+                        seq.add(encodeNt(a));
+                        break;
+                    }
+                    default:
+                        seq.add(symbol(t));
+                }
+            }
+            addProduction(nt, seq);
+            if (at[0] < toks.size() && toks.get(at[0]).equals("|")) {
+                at[0]++;
+                continue;
+            }
+            return;
+        }
+    }
+
+    private static void expect(List<String> toks, int[] at, String s) {
+        if (at[0] >= toks.size() || !toks.get(at[0]).equals(s))
+            throw new IllegalArgumentException("esperado " + s);
+        at[0]++;
+    }
+
+    private int aux(int parent) {
+        String name = nonterminals.get(parent) + "#" + (++auxCount);
+        ntIndex.put(name, nonterminals.size());
+        nonterminals.add(name);
+        return nonterminals.size() - 1;
+    }
+
+    private void addProduction(int nt, List<Integer> seq) {
+        lhs.add(nt);
+        rhs.add(seq.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /*
+     * Codificação provisória: terminal t -> t, não-terminal n -> -1 - n,
+     * ação a -> ACTION_BASE + a. A definitiva (ver emit) só é fixada
+     * quando se sabe quantos não-terminais auxiliares existem.
+     */
+    private static final int ACTION_BASE = 1 << 20;
+
+    private static int encodeNt(int nt) {
+        return -1 - nt;
+    }
+
+    private int symbol(String t) {
+        if (t.startsWith("@")) {
+            String name = t.substring(1);
+            int a = actions.indexOf(name);
+            if (a < 0) {
+                a = actions.size();
+                actions.add(name);
+            }
+            return ACTION_BASE + a;
+        }
+        Integer term = terminalIndex.get(t);
+        if (term != null)
+            return term;
+        Integer nt = ntIndex.get(t);
+        if (nt == null)
+            throw new IllegalArgumentException("símbolo desconhecido: " + t);
+        return encodeNt(nt);
+    }
+
+    /* ----------------------------------------------------------
+     *  Anulável, FIRST, FOLLOW e tabela
+     * ---------------------------------------------------------- */
+    private void analyze() {
+        int n = nonterminals.size(), words = (terminals.size() + 63) >>> 6;
+        nullable = new boolean[n];
+        first = new long[n][words];
+        follow = new long[n][words];
+        follow[0][0] |= 1L;                         // EOF segue o símbolo inicial
+
+        for (boolean changed = true; changed; ) {
+            changed = false;
+            for (int p = 0; p < rhs.size(); p++) {
+                int a = lhs.get(p);
+                long[] f = new long[words];
+                boolean eps = firstOf(rhs.get(p), 0, f);
+                changed |= or(first[a], f);
+                if (eps && !nullable[a])
+                    nullable[a] = changed = true;
+            }
+        }
+        for (boolean changed = true; changed; ) {
+            changed = false;
+            for (int p = 0; p < rhs.size(); p++) {
+                int[] r = rhs.get(p);
+                for (int i = 0; i < r.length; i++) {
+                    if (r[i] >= 0)
+                        continue;
+                    int b = -1 - r[i];
+                    long[] f = new long[words];
+                    if (firstOf(r, i + 1, f))
+                        or(f, follow[lhs.get(p)]);
+                    changed |= or(follow[b], f);
+                }
+            }
+        }
+
+        int t = terminals.size();
+        table = new short[n * t];
+        Arrays.fill(table, (short) -1);
+        defaults = new short[n];
+        Arrays.fill(defaults, (short) -1);
+        int[] count = new int[n];
+        for (int p = 0; p < rhs.size(); p++) {
+            int a = lhs.get(p);
+            long[] f = new long[words];
+            if (firstOf(rhs.get(p), 0, f)) {
+                or(f, follow[a]);
+                defaults[a] = (short) p;            // alternativa vazia: escolha padrão
+            }
+            count[a]++;
+            for (int k = 0; k < t; k++) {
+                if ((f[k >>> 6] & (1L << k)) == 0)
+                    continue;
+                if (table[a * t + k] >= 0)
+                    throw new IllegalStateException("conflito LL(1) em " + nonterminals.get(a) +
+                            " com " + terminals.get(k));
+                table[a * t + k] = (short) p;
+            }
+        }
+        for (int a = 0; a < n; a++)
+            if (defaults[a] < 0 && count[a] == 1)
+                for (int p = 0; p < rhs.size(); p++)
+                    if (lhs.get(p) == a)
+                        defaults[a] = (short) p;   // produção única: erro aparece no terminal
+    }
+
+    /* FIRST de r[from..] em f; devolve true se a sequência é anulável */
+    private boolean firstOf(int[] r, int from, long[] f) {
+        for (int i = from; i < r.length; i++) {
+            int s = r[i];
+            if (s >= ACTION_BASE)
+                continue;                           // ações não consomem tokens
+            if (s >= 0) {
+                f[s >>> 6] |= 1L << s;
+                return false;
+            }
+            or(f, first[-1 - s]);
+            if (!nullable[-1 - s])
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean or(long[] into, long[] from) {
+        boolean changed = false;
+        for (int i = 0; i < into.length; i++) {
+            long v = into[i] | from[i];
+            changed |= v != into[i];
+            into[i] = v;
+        }
+        return changed;
+    }
+
+    /* ----------------------------------------------------------
+     *  Saída
+     * ---------------------------------------------------------- */
+    private String emit(String source) {
+        int t = terminals.size(), n = nonterminals.size();
+        StringBuilder sb = new StringBuilder();
+        sb.append("package parser;\n\n")
+          .append("import lexer.Tag;\n\n")
+          .append("// Gerado por gen.LL1Generator a partir de ").append(Path.of(source).getFileName())
+          .append(" -- não editar à mão\n")
+          .append("final class LL1Table {\n\n")
+          .append("    private LL1Table() { }\n\n")
+          .append("    /*\n")
+          .append("     * Símbolo s: terminal se s < NT_BASE, não-terminal s - NT_BASE se\n")
+          .append("     * s < ACTION_BASE, senão ação s - ACTION_BASE.\n")
+          .append("     */\n")
+          .append("    static final int TERMINALS = ").append(t).append(", NONTERMINALS = ").append(n).append(";\n")
+          .append("    static final int NT_BASE = TERMINALS, ACTION_BASE = NT_BASE + NONTERMINALS;\n")
+          .append("    static final int WORDS = ").append(first[0].length).append(";\n\n");
+
+        sb.append("    /* não-terminais da gramática (os auxiliares não têm nome) */\n");
+        for (int a = 0; a < n; a++)
+            if (!nonterminals.get(a).contains("#"))
+                sb.append("    static final int ").append(constName("NT_", nonterminals.get(a)))
+                  .append(" = ").append(a).append(";\n");
+        sb.append("\n    /* ações semânticas (Parser.action) */\n");
+        for (int a = 0; a < actions.size(); a++)
+            sb.append("    static final int ").append(constName("ACT_", actions.get(a)))
+              .append(" = ").append(a).append(";\n");
+
+        sb.append("\n    /* tag do Lexer de cada terminal */\n    static final int[] TAG = {\n");
+        for (int k = 0; k < t; k++)
+            sb.append("        ").append(tagExprs.get(k)).append(",").append(pad(tagExprs.get(k), 22))
+              .append("// ").append(terminals.get(k)).append('\n');
+        sb.append("    };\n\n");
+
+        sb.append("    static final String[] NAME = {\n");
+        for (int a = 0; a < n; a++)
+            sb.append("        \"").append(nonterminals.get(a)).append("\",\n");
+        sb.append("    };\n\n");
+
+        sb.append("    /* lado direito de cada produção, na ordem da gramática */\n");
+        sb.append("    static final int[] LHS = ").append(array(lhs.stream().mapToInt(Integer::intValue).toArray())).append(";\n\n");
+        sb.append("    static final int[][] RHS = {\n");
+        for (int p = 0; p < rhs.size(); p++) {
+            int[] r = rhs.get(p);
+            int[] enc = new int[r.length];
+            StringBuilder doc = new StringBuilder(nonterminals.get(lhs.get(p))).append(" ::=");
+            for (int i = 0; i < r.length; i++) {
+                int s = r[i];
+                if (s >= ACTION_BASE) {
+                    enc[i] = t + n + (s - ACTION_BASE);
+                    doc.append(" @").append(actions.get(s - ACTION_BASE));
+                } else if (s >= 0) {
+                    enc[i] = s;
+                    doc.append(' ').append(terminals.get(s));
+                } else {
+                    enc[i] = t + (-1 - s);
+                    doc.append(' ').append(nonterminals.get(-1 - s));
+                }
+            }
+            sb.append("        ").append(array(enc)).append(",").append(pad(array(enc), 30))
+              .append("// ").append(p).append(": ").append(doc).append('\n');
+        }
+        sb.append("    };\n\n");
+
+        sb.append("    /* FIRST e FOLLOW: bit k = terminal k, WORDS longs por não-terminal */\n");
+        sb.append("    static final long[] FIRST = ").append(bits(first)).append(";\n\n");
+        sb.append("    static final long[] FOLLOW = ").append(bits(follow)).append(";\n\n");
+
+        sb.append("    /* produção para (não-terminal, terminal): TABLE[a * TERMINALS + k], -1 = erro */\n");
+        sb.append("    static final short[] TABLE = {\n");
+        for (int a = 0; a < n; a++) {
+            sb.append("        ");
+            for (int k = 0; k < t; k++)
+                sb.append(table[a * t + k]).append(',');
+            sb.append(" // ").append(nonterminals.get(a)).append('\n');
+        }
+        sb.append("    };\n\n");
+
+        sb.append("    /* produção usada quando o terminal não está na tabela (-1 = erro) */\n");
+        sb.append("    static final short[] DEFAULT = ").append(array(defaults)).append(";\n\n");
+
+        sb.append("    static final String[] ERROR = new String[NONTERMINALS], ERROR_EOF = new String[NONTERMINALS];\n\n");
+        sb.append("    static {\n");
+        for (Map.Entry<Integer, String> e : errors.entrySet())
+            sb.append("        ERROR[").append(e.getKey()).append("] = \"").append(e.getValue()).append("\";\n");
+        for (Map.Entry<Integer, String> e : eofErrors.entrySet())
+            sb.append("        ERROR_EOF[").append(e.getKey()).append("] = \"").append(e.getValue()).append("\";\n");
+        sb.append("    }\n\n");
+
+        sb.append("    /* terminal de cada tag (-1 = tag fora da gramática) */\n");
+        sb.append("    private static final byte[] TERMINAL = new byte[Tag.RPAREN + 1];\n\n");
+        sb.append("    static {\n")
+          .append("        java.util.Arrays.fill(TERMINAL, (byte) -1);\n")
+          .append("        for (int k = 1; k < TERMINALS; k++)\n")
+          .append("            TERMINAL[TAG[k]] = (byte) k;\n")
+          .append("    }\n\n");
+        sb.append("    static int terminal(int tag) {\n")
+          .append("        if (tag == Tag.EOF)\n")
+          .append("            return 0;\n")
+          .append("        return tag >= 0 && tag < TERMINAL.length ? TERMINAL[tag] : -1;\n")
+          .append("    }\n\n");
+        sb.append("    /** true se tag pode iniciar o não-terminal a. */\n")
+          .append("    static boolean starts(int a, int tag) {\n")
+          .append("        int k = terminal(tag);\n")
+          .append("        return k >= 0 && (FIRST[a * WORDS + (k >>> 6)] & (1L << k)) != 0;\n")
+          .append("    }\n");
+        sb.append("\n    /** true se tag pode seguir o não-terminal a (está em FOLLOW(a)). */\n")
+          .append("    static boolean follows(int a, int tag) {\n")
+          .append("        int k = terminal(tag);\n")
+          .append("        return k >= 0 && (FOLLOW[a * WORDS + (k >>> 6)] & (1L << k)) != 0;\n")
+          .append("    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static String constName(String prefix, String name) {
+        return prefix + name.toUpperCase(Locale.ROOT).replace('-', '_');
+    }
+
+    private static String pad(String s, int width) {
+        return " ".repeat(Math.max(1, width - s.length()));
+    }
+
+    private static String array(int[] a) {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < a.length; i++)
+            sb.append(i == 0 ? "" : ", ").append(a[i]);
+        return sb.append('}').toString();
+    }
+
+    private static String array(short[] a) {
+        int[] v = new int[a.length];
+        for (int i = 0; i < a.length; i++)
+            v[i] = a[i];
+        return array(v);
+    }
+
+    private static String bits(long[][] sets) {
+        StringBuilder sb = new StringBuilder("{\n");
+        for (long[] s : sets) {
+            sb.append("       ");
+            for (long w : s)
+                sb.append(" 0x").append(Long.toHexString(w)).append("L,");
+            sb.append('\n');
+        }
+        return sb.append("    }").toString();
+    }
+}
@@ -0,0 +1,170 @@
+package gen;
+
+import lexer.DfaLexer;
+import lexer.Lexer;
+import lexer.LexicalException;
+import lexer.Position;
+import lexer.Source;
+import lexer.SymbolPool;
+import lexer.Tag;
+import lexer.TokenBuffer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  ScannerCheck  –  compara o DfaLexer gerado com o Lexer escrito à mão
+ *
+ *  Para cada entrada, lê todos os tokens com os dois scanners e exige
+ *  as mesmas tags, posições, comprimentos e valores (identificadores
+ *  pelo nome), e o mesmo erro léxico, se houver. Depois mede a vazão
+ *  dos dois sobre as entradas sem erro, concatenadas em memória.
+ *
+ *  Uso: java gen.ScannerCheck [arquivos...]
+ *  Sem argumentos, usa os teste*.txt do diretório corrente e de cada
+ *  subdiretório (raw_testes, modificada_*). Sai com status 1 se houver
+ *  diferença.
+ *  ---------------------------------------------------------------- */
+public final class ScannerCheck {
+
+    private static final long BENCH_CHARS = 32L << 20;     // ~32M caracteres por rodada
+
+    public static void main(String[] args) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (args.length > 0) {
+            for (String a : args) files.add(Path.of(a));
+        } else {
+            addTests(Path.of("."), files);
+            try (DirectoryStream<Path> dirs = Files.newDirectoryStream(Path.of("."), Files::isDirectory)) {
+                for (Path d : dirs) addTests(d, files);
+            }
+        }
+        files.sort(null);
+
+        int differences = 0;
+        StringBuilder clean = new StringBuilder();
+        for (Path f : files) {
+            String text = Files.readString(f, StandardCharsets.UTF_8);
+            Result ref = hand(text), dfa = generated(text);
+            String diff = ref.compare(dfa);
+            if (diff != null) {
+                System.err.println(f + ": " + diff);
+                differences++;
+            } else {
+                System.out.println(f + ": " + ref.tokens.size() + " tokens iguais"
+                        + (ref.error != null ? " (erro: " + ref.error + ")" : ""));
+            }
+            if (ref.error == null) clean.append(text).append('\n');
+        }
+
+        if (clean.length() > 0) bench(clean);
+
+        if (differences > 0) {
+            System.err.println(differences + " de " + files.size() + " entradas diferem");
+            System.exit(1);
+        }
+    }
+
+    private static void addTests(Path dir, List<Path> files) throws IOException {
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "teste*.txt")) {
+            for (Path p : ds) files.add(p.normalize());
+        }
+    }
+
+    /* ----------------------------------------------------------
+     *  Resultado de uma leitura completa
+     * ---------------------------------------------------------- */
+    private static final class Result {
+        final TokenBuffer tokens = new TokenBuffer();
+        SymbolPool symbols;
+        String error;                       // mensagem e posição do erro léxico
+
+        /** Primeira diferença em relação a o, ou null se forem iguais. */
+        String compare(Result o) {
+            int n = Math.min(tokens.size(), o.tokens.size());
+            for (int i = 0; i < n; i++) {
+                String a = describe(i), b = o.describe(i);
+                if (!a.equals(b)) return "token " + i + ": Lexer " + a + ", DfaLexer " + b;
+            }
+            if (tokens.size() != o.tokens.size())
+                return "Lexer leu " + tokens.size() + " tokens, DfaLexer " + o.tokens.size();
+            if (error == null ? o.error != null : !error.equals(o.error))
+                return "erro do Lexer " + error + ", do DfaLexer " + o.error;
+            return null;
+        }
+
+        String describe(int i) {
+            long p = tokens.position(i);
+            String where = Position.line(p) + ":" + Position.column(p) + "+" + tokens.length(i);
+            int tag = tokens.tag(i);
+            String value;
+            switch (tag) {
+                case Tag.ID:         value = symbols.name(tokens.symbol(i)); break;
+                case Tag.NUM:        value = Integer.toString(tokens.intValue(i)); break;
+                case Tag.REAL:       value = Float.toString(tokens.realValue(i)); break;
+                case Tag.CHAR_CONST: value = Character.toString(tokens.charValue(i)); break;
+                case Tag.LITERAL:    value = tokens.literal(i); break;
+                default:             value = "";
+            }
+            return tag + "@" + where + (value.isEmpty() ? "" : " '" + value + "'");
+        }
+    }
+
+    private static Result hand(CharSequence text) throws IOException {
+        Result r = new Result();
+        Lexer lex = new Lexer(Source.of(text));
+        r.symbols = lex.symbols();
+        try {
+            lex.scanAll(r.tokens);
+        } catch (LexicalException e) {
+            r.error = e.getMessage() + " em " + Position.toString(e.getPosition());
+        }
+        return r;
+    }
+
+    private static Result generated(CharSequence text) throws IOException {
+        Result r = new Result();
+        DfaLexer lex = new DfaLexer(Source.of(text));
+        r.symbols = lex.symbols();
+        try {
+            lex.scanAll(r.tokens);
+        } catch (LexicalException e) {
+            r.error = e.getMessage() + " em " + Position.toString(e.getPosition());
+        }
+        return r;
+    }
+
+    /* ----------------------------------------------------------
+     *  Vazão: o texto sem erros repetido até ~BENCH_CHARS, lido
+     *  pelos dois scanners em rodadas alternadas
+     * ---------------------------------------------------------- */
+    private static void bench(CharSequence sample) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < BENCH_CHARS) sb.append(sample);
+        String text = sb.toString();
+        TokenBuffer out = new TokenBuffer();
+
+        long bestHand = Long.MAX_VALUE, bestDfa = Long.MAX_VALUE;
+        int tokens = 0;
+        for (int round = 0; round < 7; round++) {
+            out.clear();
+            long t = System.nanoTime();
+            tokens = new Lexer(Source.of(text)).scanAll(out);
+            bestHand = Math.min(bestHand, System.nanoTime() - t);
+
+            out.clear();
+            t = System.nanoTime();
+            new DfaLexer(Source.of(text)).scanAll(out);
+            bestDfa = Math.min(bestDfa, System.nanoTime() - t);
+        }
+        double mb = text.length() / 1e6;
+        System.out.printf("vazão (%.1f M caracteres, %d tokens, melhor de 7):%n", mb, tokens);
+        System.out.printf("  Lexer     %7.1f ms  %7.1f M car/s%n", bestHand / 1e6, mb / (bestHand / 1e9));
+        System.out.printf("  DfaLexer  %7.1f ms  %7.1f M car/s%n", bestDfa / 1e6, mb / (bestDfa / 1e9));
+    }
+}
@@ -0,0 +1,493 @@
+package gen;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  ScannerGenerator  –  gera lexer/DfaTables.java a partir dos tokens
+ *
+ *  Lê lexer/tokens.txt (regras regex => ação), monta um NFA de
+ *  Thompson, agrupa o alfabeto em classes de equivalência, faz a
+ *  construção de subconjuntos e minimiza o DFA (refinamento de Moore).
+ *  O alfabeto são os 128 caracteres ASCII mais três pseudo-caracteres
+ *  para o resto do Unicode: letra, dígito e outro.
+ *
+ *  Uso: java gen.ScannerGenerator <tokens.txt> <DfaTables.java>
+ *  ---------------------------------------------------------------- */
+public final class ScannerGenerator {
+
+    private static final int NON_ASCII_LETTER = 128, NON_ASCII_DIGIT = 129, NON_ASCII_OTHER = 130;
+    private static final int SYMBOLS = 131;
+
+    /* ---- NFA: transições por conjunto de símbolos e transições vazias ---- */
+    private final List<BitSet> edgeSet = new ArrayList<>();     // null = vazia
+    private final List<int[]> edges = new ArrayList<>();        // por estado: pares (aresta, destino)
+    private final List<Integer> acceptRule = new ArrayList<>(); // -1 = não aceita
+    private final List<BitSet> sets = new ArrayList<>();        // conjuntos distintos usados
+
+    private final Map<String, String> macros = new HashMap<>();
+    private final List<String> actions = new ArrayList<>();
+    private final List<String> sources = new ArrayList<>();
+
+    /* ---- resultado ---- */
+    private int classes;
+    private final byte[] classOf = new byte[SYMBOLS];
+    private short[] next;
+    private short[] accept;
+    private int states;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: java gen.ScannerGenerator <tokens.txt> <DfaTables.java>");
+            System.exit(1);
+        }
+        ScannerGenerator g = new ScannerGenerator();
+        int start = g.read(Files.readAllLines(Path.of(args[0]), StandardCharsets.UTF_8));
+        g.build(start);
+        Files.writeString(Path.of(args[1]), g.emit(args[0]), StandardCharsets.UTF_8);
+    }
+
+    /* ----------------------------------------------------------
+     *  Leitura das regras e NFA de Thompson
+     * ---------------------------------------------------------- */
+    private int read(List<String> lines) {
+        int start = state();
+        for (String raw : lines) {
+            String line = raw.strip();
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+            int arrow = line.lastIndexOf("=>");
+            if (arrow < 0) {                        // macro: nome = regex
+                int eq = line.indexOf('=');
+                macros.put(line.substring(0, eq).strip(), line.substring(eq + 1).strip());
+                continue;
+            }
+            String regex = line.substring(0, arrow).strip();
+            int rule = actions.size();
+            actions.add(line.substring(arrow + 2).strip());
+            sources.add(regex);
+            int[] frag = new Regex(expand(regex)).parse();
+            acceptRule.set(frag[1], rule);
+            epsilon(start, frag[0]);
+        }
+        return start;
+    }
+
+    private String expand(String regex) {
+        StringBuilder sb = new StringBuilder();
+        boolean quoted = false, inClass = false;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\' && i + 1 < regex.length()) {
+                sb.append(c).append(regex.charAt(++i));
+                continue;
+            }
+            if (c == '"' && !inClass)
+                quoted = !quoted;
+            else if (!quoted && c == '[')
+                inClass = true;
+            else if (!quoted && c == ']')
+                inClass = false;
+            else if (!quoted && !inClass && c == '{') {
+                int end = regex.indexOf('}', i);
+                String body = macros.get(regex.substring(i + 1, end));
+                if (body == null)
+                    throw new IllegalArgumentException("macro desconhecida em " + regex);
+                sb.append('(').append(expand(body)).append(')');
+                i = end;
+                continue;
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private int state() {
+        edges.add(new int[0]);
+        acceptRule.add(-1);
+        return edges.size() - 1;
+    }
+
+    private void edge(int from, BitSet set, int to) {
+        int e = set == null ? -1 : setIndex(set);
+        int[] old = edges.get(from);
+        int[] grown = Arrays.copyOf(old, old.length + 2);
+        grown[old.length] = e;
+        grown[old.length + 1] = to;
+        edges.set(from, grown);
+    }
+
+    private void epsilon(int from, int to) {
+        edge(from, null, to);
+    }
+
+    private int setIndex(BitSet set) {
+        int i = sets.indexOf(set);
+        if (i < 0) {
+            sets.add(set);
+            i = sets.size() - 1;
+        }
+        return i;
+    }
+
+    /* analisador de regex: cada método devolve o fragmento {entrada, saída} */
+    private final class Regex {
+        private final String s;
+        private int i;
+
+        Regex(String s) {
+            this.s = s;
+        }
+
+        int[] parse() {
+            int[] f = alternation();
+            skipBlanks();
+            if (i != s.length())
+                throw new IllegalArgumentException("regex: '" + s.charAt(i) + "' inesperado em " + s);
+            return f;
+        }
+
+        private void skipBlanks() {
+            while (i < s.length() && s.charAt(i) == ' ')
+                i++;
+        }
+
+        private int[] alternation() {
+            int[] f = concatenation();
+            skipBlanks();
+            while (i < s.length() && s.charAt(i) == '|') {
+                i++;
+                int[] g = concatenation();
+                int in = state(), out = state();
+                epsilon(in, f[0]);
+                epsilon(in, g[0]);
+                epsilon(f[1], out);
+                epsilon(g[1], out);
+                f = new int[] {in, out};
+                skipBlanks();
+            }
+            return f;
+        }
+
+        private int[] concatenation() {
+            int in = state(), out = in;
+            for (;;) {
+                skipBlanks();
+                if (i >= s.length() || s.charAt(i) == '|' || s.charAt(i) == ')')
+                    return new int[] {in, out};
+                int[] f = repetition();
+                epsilon(out, f[0]);
+                out = f[1];
+            }
+        }
+
+        private int[] repetition() {
+            int[] f = atom();
+            while (i < s.length() && "*+?".indexOf(s.charAt(i)) >= 0) {
+                char op = s.charAt(i++);
+                int in = state(), out = state();
+                epsilon(in, f[0]);
+                epsilon(f[1], out);
+                if (op != '+')
+                    epsilon(in, out);               // * e ?: zero vezes
+                if (op != '?')
+                    epsilon(f[1], f[0]);            // * e +: repete
+                f = new int[] {in, out};
+            }
+            return f;
+        }
+
+        private int[] atom() {
+            char c = s.charAt(i++);
+            switch (c) {
+                case '(': {
+                    int[] f = alternation();
+                    if (i >= s.length() || s.charAt(i) != ')')
+                        throw new IllegalArgumentException("regex: ')' esperado em " + s);
+                    i++;
+                    return f;
+                }
+                case '"': {
+                    int in = state(), out = in;
+                    while (s.charAt(i) != '"') {
+                        char d = s.charAt(i++);
+                        if (d == '\\')
+                            d = escape(s.charAt(i++));
+                        int n = state();
+                        edge(out, single(d), n);
+                        out = n;
+                    }
+                    i++;
+                    return new int[] {in, out};
+                }
+                case '[':
+                    return symbol(charClass());
+                case '.': {
+                    BitSet all = new BitSet();
+                    all.set(0, SYMBOLS);
+                    return symbol(all);
+                }
+                case '\\':
+                    return symbol(single(escape(s.charAt(i++))));
+                default:
+                    return symbol(single(c));
+            }
+        }
+
+        private BitSet charClass() {
+            BitSet set = new BitSet();
+            boolean negate = s.charAt(i) == '^';
+            if (negate)
+                i++;
+            while (s.charAt(i) != ']') {
+                char c = s.charAt(i++);
+                if (c == '\\') {
+                    char e = s.charAt(i++);
+                    if (e == 'L') { set.set(NON_ASCII_LETTER); continue; }
+                    if (e == 'D') { set.set(NON_ASCII_DIGIT); continue; }
+                    if (e == 'O') { set.set(NON_ASCII_OTHER); continue; }
+                    c = escape(e);
+                }
+                if (s.charAt(i) == '-' && s.charAt(i + 1) != ']') {
+                    char hi = s.charAt(i + 1);
+                    set.set(c, hi + 1);
+                    i += 2;
+                } else {
+                    set.set(c);
+                }
+            }
+            i++;
+            if (negate)
+                set.flip(0, SYMBOLS);
+            return set;
+        }
+
+        private int[] symbol(BitSet set) {
+            int in = state(), out = state();
+            edge(in, set, out);
+            return new int[] {in, out};
+        }
+
+        private BitSet single(char c) {
+            BitSet b = new BitSet();
+            b.set(c);
+            return b;
+        }
+
+        private char escape(char e) {
+            switch (e) {
+                case 'n': return '\n';
+                case 't': return '\t';
+                case 'r': return '\r';
+                case 'b': return '\b';
+                default:  return e;
+            }
+        }
+    }
+
+    /* ----------------------------------------------------------
+     *  Classes de equivalência, subconjuntos e minimização
+     * ---------------------------------------------------------- */
+    private void build(int start) {
+        /* dois símbolos ficam na mesma classe se pertencem aos mesmos conjuntos */
+        Map<BitSet, Integer> signature = new LinkedHashMap<>();
+        for (int c = 0; c < SYMBOLS; c++) {
+            BitSet sig = new BitSet();
+            for (int k = 0; k < sets.size(); k++)
+                if (sets.get(k).get(c))
+                    sig.set(k);
+            classOf[c] = (byte) (int) signature.computeIfAbsent(sig, x -> signature.size());
+        }
+        classes = signature.size();
+        int[] classRep = new int[classes];
+        for (int c = SYMBOLS - 1; c >= 0; c--)
+            classRep[classOf[c]] = c;
+
+        /* construção de subconjuntos */
+        List<BitSet> dstates = new ArrayList<>();
+        Map<BitSet, Integer> index = new HashMap<>();
+        List<int[]> trans = new ArrayList<>();
+        BitSet s0 = closure(single(start));
+        dstates.add(s0);
+        index.put(s0, 0);
+        for (int d = 0; d < dstates.size(); d++) {
+            int[] row = new int[classes];
+            for (int k = 0; k < classes; k++) {
+                BitSet move = new BitSet();
+                int sym = classRep[k];
+                BitSet from = dstates.get(d);
+                for (int q = from.nextSetBit(0); q >= 0; q = from.nextSetBit(q + 1)) {
+                    int[] e = edges.get(q);
+                    for (int j = 0; j < e.length; j += 2)
+                        if (e[j] >= 0 && sets.get(e[j]).get(sym))
+                            move.set(e[j + 1]);
+                }
+                if (move.isEmpty()) {
+                    row[k] = -1;
+                    continue;
+                }
+                BitSet to = closure(move);
+                Integer t = index.get(to);
+                if (t == null) {
+                    t = dstates.size();
+                    dstates.add(to);
+                    index.put(to, t);
+                }
+                row[k] = t;
+            }
+            trans.add(row);
+        }
+        int n = dstates.size();
+        int[] acc = new int[n];
+        for (int d = 0; d < n; d++) {
+            acc[d] = -1;
+            BitSet set = dstates.get(d);
+            for (int q = set.nextSetBit(0); q >= 0; q = set.nextSetBit(q + 1)) {
+                int r = acceptRule.get(q);
+                if (r >= 0 && (acc[d] < 0 || r < acc[d]))
+                    acc[d] = r;                     // empate: a regra que vem antes
+            }
+        }
+
+        /* Moore: refina a partição inicial (por regra aceita) até estabilizar */
+        int[] block = new int[n];
+        for (int d = 0; d < n; d++)
+            block[d] = acc[d] + 1;
+        for (int count = -1; ; ) {
+            Map<List<Integer>, Integer> ids = new LinkedHashMap<>();
+            int[] refined = new int[n];
+            for (int d = 0; d < n; d++) {
+                List<Integer> key = new ArrayList<>(classes + 1);
+                key.add(block[d]);
+                for (int t : trans.get(d))
+                    key.add(t < 0 ? -1 : block[t]);
+                refined[d] = ids.computeIfAbsent(key, x -> ids.size());
+            }
+            block = refined;
+            if (ids.size() == count)
+                break;
+            count = ids.size();
+        }
+
+        /* renumera com o estado inicial em 0 */
+        states = 0;
+        int[] renum = new int[n];
+        Arrays.fill(renum, -1);
+        List<Integer> order = new ArrayList<>();
+        order.add(0);
+        renum[block[0]] = states++;
+        for (int k = 0; k < order.size(); k++)
+            for (int t : trans.get(order.get(k)))
+                if (t >= 0 && renum[block[t]] < 0) {
+                    renum[block[t]] = states++;
+                    order.add(t);
+                }
+        next = new short[states * classes];
+        accept = new short[states];
+        for (int d : order) {
+            int m = renum[block[d]];
+            accept[m] = (short) acc[d];
+            for (int k = 0; k < classes; k++) {
+                int t = trans.get(d)[k];
+                next[m * classes + k] = (short) (t < 0 ? -1 : renum[block[t]]);
+            }
+        }
+    }
+
+    private static BitSet single(int q) {
+        BitSet b = new BitSet();
+        b.set(q);
+        return b;
+    }
+
+    private BitSet closure(BitSet set) {
+        BitSet out = (BitSet) set.clone();
+        int[] work = set.stream().toArray();
+        int top = work.length;
+        work = Arrays.copyOf(work, Math.max(16, top));
+        while (top > 0) {
+            int q = work[--top];
+            int[] e = edges.get(q);
+            for (int j = 0; j < e.length; j += 2)
+                if (e[j] < 0 && !out.get(e[j + 1])) {
+                    out.set(e[j + 1]);
+                    if (top == work.length)
+                        work = Arrays.copyOf(work, 2 * top);
+                    work[top++] = e[j + 1];
+                }
+        }
+        return out;
+    }
+
+    /* ----------------------------------------------------------
+     *  Saída
+     * ---------------------------------------------------------- */
+    private String emit(String source) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("package lexer;\n\n")
+          .append("// Gerado por gen.ScannerGenerator a partir de ").append(Path.of(source).getFileName())
+          .append(" -- não editar à mão\n")
+          .append("final class DfaTables {\n\n")
+          .append("    private DfaTables() { }\n\n")
+          .append("    static final int STATES = ").append(states).append(", CLASSES = ").append(classes).append(";\n\n")
+          .append("    /* ações especiais em TOKEN (as demais são tags) */\n")
+          .append("    static final int SKIP = Integer.MIN_VALUE, CHAR = SKIP + 1, ERROR = SKIP + 2;\n\n");
+
+        sb.append("    /* classe de cada caractere ASCII; fora do ASCII: LETTER, DIGIT, OTHER */\n");
+        sb.append("    static final byte[] CLASS = {");
+        for (int c = 0; c < 128; c++)
+            sb.append(c % 32 == 0 ? "\n        " : " ").append(classOf[c]).append(',');
+        sb.append("\n    };\n\n");
+        sb.append("    static final int LETTER = ").append(classOf[NON_ASCII_LETTER])
+          .append(", DIGIT = ").append(classOf[NON_ASCII_DIGIT])
+          .append(", OTHER = ").append(classOf[NON_ASCII_OTHER]).append(";\n\n");
+
+        sb.append("    /* próximo estado: NEXT[estado * CLASSES + classe], -1 = morto */\n");
+        sb.append("    static final short[] NEXT = {\n");
+        for (int s = 0; s < states; s++) {
+            sb.append("        ");
+            for (int k = 0; k < classes; k++)
+                sb.append(next[s * classes + k]).append(',');
+            sb.append('\n');
+        }
+        sb.append("    };\n\n");
+
+        sb.append("    /* regra aceita em cada estado (-1 = nenhuma) */\n");
+        sb.append("    static final short[] ACCEPT = {");
+        for (int s = 0; s < states; s++)
+            sb.append(s % 20 == 0 ? "\n        " : " ").append(accept[s]).append(',');
+        sb.append("\n    };\n\n");
+
+        sb.append("    /* ação de cada regra e, para ERROR, a mensagem */\n");
+        sb.append("    static final int[] TOKEN = {\n");
+        StringBuilder messages = new StringBuilder();
+        for (int r = 0; r < actions.size(); r++) {
+            String a = actions.get(r), code, msg = "null";
+            if (a.equals("skip"))
+                code = "SKIP";
+            else if (a.equals("char"))
+                code = "CHAR";
+            else if (a.startsWith("error")) {
+                code = "ERROR";
+                msg = a.substring(5).strip();
+            } else
+                code = a;
+            sb.append("        ").append(code).append(',').append(" ".repeat(Math.max(1, 20 - code.length())))
+              .append("// ").append(sources.get(r)).append('\n');
+            messages.append("        ").append(msg).append(",\n");
+        }
+        sb.append("    };\n\n");
+        sb.append("    static final String[] MESSAGE = {\n").append(messages).append("    };\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+}
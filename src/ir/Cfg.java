@@ -0,0 +1,157 @@
+package ir;
+
+import java.util.Arrays;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  Cfg  –  blocos básicos e grafo de fluxo de controle de um Tac
+ *
+ *  Líderes: a instrução 0, todo alvo de desvio e toda instrução logo
+ *  após um desvio. O bloco b ocupa [start(b), end(b)); só a última
+ *  instrução pode desviar. Cada bloco tem no máximo dois sucessores
+ *  (o de queda vem primeiro); os predecessores ficam em formato
+ *  compacto (predStart/preds). O bloco 0 é a entrada.
+ *  ---------------------------------------------------------------- */
+public final class Cfg {
+
+    public static final int NONE = -1;
+
+    private final Tac code;
+    private final int blocks;
+    private final int[] start;          // blocks + 1 entradas: start[b + 1] é o fim de b
+    private final int[] blockOf;        // bloco de cada instrução
+    private final int[] succ;           // succ[2b], succ[2b + 1]
+    private final int[] predStart, preds;
+
+    public Cfg(Tac code) {
+        this.code = code;
+        int n = code.size();
+
+        /* ----- líderes ----- */
+        boolean[] leader = new boolean[n + 1];
+        leader[0] = true;
+        for (int i = 0; i < n; i++) {
+            int op = code.op(i);
+            if (op == Op.JUMP || op == Op.JUMP_FALSE)
+                leader[code.target(i)] = true;
+            if (Op.isTerminator(op))
+                leader[i + 1] = true;
+        }
+        int count = 0;
+        for (int i = 0; i < n; i++)
+            if (leader[i])
+                count++;
+        blocks = count;
+        start = new int[blocks + 1];
+        blockOf = new int[n];
+        for (int i = 0, b = -1; i < n; i++) {
+            if (leader[i])
+                start[++b] = i;
+            blockOf[i] = b;
+        }
+        start[blocks] = n;
+
+        /* ----- sucessores ----- */
+        succ = new int[2 * blocks];
+        Arrays.fill(succ, NONE);
+        int[] predCount = new int[blocks + 1];
+        for (int b = 0; b < blocks; b++) {
+            int last = start[b + 1] - 1;
+            int op = code.op(last);
+            int k = 2 * b;
+            if (op != Op.JUMP && op != Op.HALT && start[b + 1] < n)
+                succ[k++] = b + 1;                      // queda
+            if (op == Op.JUMP || op == Op.JUMP_FALSE) {
+                int t = blockOf[code.target(last)];
+                if (k == 2 * b || succ[2 * b] != t)
+                    succ[k] = t;
+            }
+            for (int j = 2 * b; j < 2 * b + 2; j++)
+                if (succ[j] != NONE)
+                    predCount[succ[j] + 1]++;
+        }
+
+        /* ----- predecessores (contagem + prefixo) ----- */
+        for (int b = 0; b < blocks; b++)
+            predCount[b + 1] += predCount[b];
+        predStart = predCount;
+        preds = new int[predStart[blocks]];
+        int[] fill = Arrays.copyOf(predStart, blocks);
+        for (int b = 0; b < blocks; b++)
+            for (int j = 2 * b; j < 2 * b + 2; j++)
+                if (succ[j] != NONE)
+                    preds[fill[succ[j]]++] = b;
+    }
+
+    /* ----------------------------------------------------------
+     *  Leitura
+     * ---------------------------------------------------------- */
+    public Tac code()                { return code; }
+    public int blocks()              { return blocks; }
+    public int start(int b)          { return start[b]; }
+    public int end(int b)            { return start[b + 1]; }
+    public int blockOf(int i)        { return blockOf[i]; }
+
+    /** Última instrução do bloco (a única que pode desviar). */
+    public int last(int b)           { return start[b + 1] - 1; }
+
+    /** i-ésimo sucessor de b (i = 0 ou 1), ou NONE. */
+    public int succ(int b, int i)    { return succ[2 * b + i]; }
+
+    public int predCount(int b)      { return predStart[b + 1] - predStart[b]; }
+
+    /** i-ésimo predecessor de b. */
+    public int pred(int b, int i)    { return preds[predStart[b] + i]; }
+
+    /** Blocos alcançáveis a partir da entrada, em pós-ordem reversa (DFS com pilha explícita). */
+    public int[] reversePostorder() {
+        int[] post = new int[blocks];
+        int count = 0;
+        int[] stack = new int[blocks], edge = new int[blocks];
+        boolean[] seen = new boolean[blocks];
+        int top = 0;
+        stack[top++] = 0;
+        seen[0] = true;
+        while (top > 0) {
+            int b = stack[top - 1];
+            if (edge[b] < 2) {
+                int s = succ(b, edge[b]++);
+                if (s != NONE && !seen[s]) {
+                    seen[s] = true;
+                    stack[top++] = s;
+                }
+            } else {
+                post[count++] = b;
+                top--;
+            }
+        }
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++)
+            order[i] = post[count - 1 - i];
+        return order;
+    }
+
+    /* ----------------------------------------------------------
+     *  Depuração
+     * ---------------------------------------------------------- */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int b = 0; b < blocks; b++) {
+            sb.append("B").append(b).append(':');
+            if (predCount(b) > 0) {
+                sb.append("  pred");
+                for (int i = 0; i < predCount(b); i++)
+                    sb.append(" B").append(pred(b, i));
+            }
+            sb.append('\n');
+            for (int i = start(b); i < end(b); i++)
+                code.append(i, sb.append(String.format("%4d  ", i))).append('\n');
+            sb.append("      ->");
+            for (int i = 0; i < 2; i++)
+                if (succ(b, i) != NONE)
+                    sb.append(" B").append(succ(b, i));
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,100 @@
+package ir;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  CopyPropagation  –  propagação de cópias sobre a Ssa
+ *
+ *  Em SSA uma cópia x = y (e um phi cujos argumentos são todos y ou o
+ *  próprio x) só dá outro nome a y: os usos de x passam a ler y e a
+ *  definição sai. É o que elimina as cópias que sobram das atribuições
+ *  redundantes e os phis de variáveis que um laço não altera. Um phi do
+ *  bloco de entrada também recebe o valor de entrada da variável.
+ *
+ *  Depois disto as versões de uma variável podem ficar vivas ao mesmo
+ *  tempo; Ssa.toTac() trata as cópias de cada aresta como paralelas.
+ *  ---------------------------------------------------------------- */
+public final class CopyPropagation {
+
+    private final Ssa ssa;
+    private int copies, phis;
+
+    public CopyPropagation(Ssa ssa) {
+        this.ssa = ssa;
+    }
+
+    /** Cópias removidas na última run(). */
+    public int copies()                 { return copies; }
+
+    /** Phis triviais removidos na última run(). */
+    public int phis()                   { return phis; }
+
+    public void run() {
+        Tac code = ssa.code();
+        Cfg cfg = ssa.cfg();
+        int[] repl = new int[code.slots()];
+        for (int s = 0; s < repl.length; s++)
+            repl[s] = s;
+        copies = phis = 0;
+
+        for (int i = 0; i < code.size(); i++)
+            if (code.op(i) == Op.COPY && !ssa.isRemoved(i) && ssa.isReachable(cfg.blockOf(i))) {
+                repl[code.dst(i)] = code.src1(i);
+                ssa.remove(i);
+                copies++;
+            }
+
+        /* phis triviais: um removido pode tornar outro trivial */
+        for (boolean changed = true; changed; ) {
+            changed = false;
+            for (int p = 0; p < ssa.phis(); p++) {
+                if (ssa.isPhiRemoved(p) || ssa.isPhiConstant(p))
+                    continue;
+                int b = ssa.phiBlock(p), d = ssa.phiDst(p);
+                int same = b == 0 ? find(repl, ssa.phiVar(p)) : Ssa.NONE;
+                boolean trivial = true;
+                for (int k = 0; k < cfg.predCount(b) && trivial; k++) {
+                    if (!ssa.isReachable(cfg.pred(b, k)))
+                        continue;
+                    int a = find(repl, ssa.arg(p, k));
+                    if (a == d || a == same)
+                        continue;
+                    if (same == Ssa.NONE)
+                        same = a;
+                    else
+                        trivial = false;
+                }
+                if (trivial && same != Ssa.NONE) {
+                    repl[d] = same;
+                    ssa.removePhi(p);
+                    phis++;
+                    changed = true;
+                }
+            }
+        }
+
+        /* reescreve os usos */
+        for (int i = 0; i < code.size(); i++) {
+            int k = Op.uses(code.op(i));
+            if (k >= 1)
+                code.setSrc1(i, find(repl, code.src1(i)));
+            if (k == 2)
+                code.setSrc2(i, find(repl, code.src2(i)));
+        }
+        for (int p = 0; p < ssa.phis(); p++)
+            for (int k = 0; k < cfg.predCount(ssa.phiBlock(p)); k++)
+                if (ssa.arg(p, k) != Ssa.NONE)
+                    ssa.setArg(p, k, find(repl, ssa.arg(p, k)));
+    }
+
+    /* representante final de s, comprimindo o caminho */
+    private static int find(int[] repl, int s) {
+        int r = s;
+        while (repl[r] != r)
+            r = repl[r];
+        while (repl[s] != r) {
+            int next = repl[s];
+            repl[s] = r;
+            s = next;
+        }
+        return r;
+    }
+}
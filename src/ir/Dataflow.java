@@ -0,0 +1,232 @@
+package ir;
+
+import java.util.Arrays;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  Dataflow  –  análise de fluxo de dados com conjuntos de bits
+ *
+ *  Problemas gen/kill sobre os blocos de um Cfg: cada bloco transforma
+ *  o conjunto que entra nele (para frente) ou que sai dele (para trás)
+ *  em gen | (x & ~kill), e nas junções os conjuntos se combinam por
+ *  união ou interseção. Os conjuntos são long[] de words() palavras,
+ *  todos num único vetor por papel (bloco b em [b * words, (b+1) * words)).
+ *
+ *  Só o lado do bloco que a transferência produz fica guardado (a
+ *  saída, para frente; a entrada, para trás): o outro lado é a junção
+ *  dos vizinhos e sai sob demanda em before()/after(). Com isso um
+ *  bloco custa três conjuntos (gen, kill e o resultado).
+ *
+ *  A lista de trabalho é um conjunto de bits sobre a pós-ordem reversa
+ *  (ou a pós-ordem, para trás), atendido em ordem; um bloco só volta
+ *  para ela quando um vizinho de que depende mudou. Blocos
+ *  inalcançáveis a partir da entrada não são visitados.
+ *  ---------------------------------------------------------------- */
+public final class Dataflow {
+
+    private final Cfg cfg;
+    private final boolean forward, union;
+    private final int bits, words;
+    private final long[] gen, kill, result;
+    private final long[] boundary;      // entra na entrada (para frente) ou nas saídas (para trás)
+    private final boolean[] reachable;
+    private int visits;
+
+    /**
+     * forward: o fluxo segue as arestas; union: junção por união (senão
+     * interseção, e os conjuntos começam cheios).
+     */
+    public Dataflow(Cfg cfg, int bits, boolean forward, boolean union) {
+        this.cfg = cfg;
+        this.forward = forward;
+        this.union = union;
+        this.bits = bits;
+        this.words = (bits + 63) >>> 6;
+        long size = (long) cfg.blocks() * words;
+        if (size > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("conjuntos grandes demais: " + cfg.blocks() + " blocos x " + bits + " bits");
+        gen = new long[(int) size];
+        kill = new long[(int) size];
+        result = new long[(int) size];
+        boundary = new long[words];
+        reachable = new boolean[cfg.blocks()];
+    }
+
+    /* ----------------------------------------------------------
+     *  Montagem do problema
+     * ---------------------------------------------------------- */
+    public void gen(int b, int bit)         { gen[b * words + (bit >>> 6)] |= 1L << bit; }
+    public void kill(int b, int bit)        { kill[b * words + (bit >>> 6)] |= 1L << bit; }
+    public void clearGen(int b, int bit)    { gen[b * words + (bit >>> 6)] &= ~(1L << bit); }
+    public void boundary(int bit)           { boundary[bit >>> 6] |= 1L << bit; }
+
+    /* ----------------------------------------------------------
+     *  Solução
+     * ---------------------------------------------------------- */
+    public void solve() {
+        int blocks = cfg.blocks();
+        int[] order = cfg.reversePostorder();
+        for (int b : order)
+            reachable[b] = true;
+        if (!union) {
+            long[] full = new long[words];
+            Arrays.fill(full, -1L);
+            trim(full);
+            for (int b = 0; b < blocks; b++)
+                System.arraycopy(full, 0, result, b * words, words);
+        }
+
+        /*
+         * Pendentes marcados por posição na ordem (pós-ordem reversa, ou a
+         * inversa para trás). Cada passada atende em ordem as posições
+         * marcadas; um vizinho à frente ainda é visto na mesma passada e só
+         * as arestas de volta (laços) pedem outra. Uma fila FIFO faria cada
+         * laço mandar uma onda separada por todo o resto do programa.
+         */
+        int n = order.length;
+        int[] seq = new int[n], position = new int[blocks];
+        for (int i = 0; i < n; i++) {
+            seq[i] = forward ? order[i] : order[n - 1 - i];
+            position[seq[i]] = i;
+        }
+        long[] pending = new long[(n + 63) >>> 6];
+        for (int i = 0; i < n; i++)
+            pending[i >>> 6] |= 1L << i;
+        long[] x = new long[words];
+        visits = 0;
+        for (boolean again = n > 0; again; ) {
+            again = false;
+            for (int wi = 0; wi < pending.length; wi++) {
+                while (pending[wi] != 0) {
+                    int pos = (wi << 6) + Long.numberOfTrailingZeros(pending[wi]);
+                    pending[wi] &= pending[wi] - 1;
+                    int b = seq[pos];
+                    visits++;
+                    if (!transfer(b, x))
+                        continue;
+                    int m = forward ? 2 : cfg.predCount(b);
+                    for (int k = 0; k < m; k++) {
+                        int d = forward ? cfg.succ(b, k) : cfg.pred(b, k);
+                        if (d == Cfg.NONE || !reachable[d])
+                            continue;
+                        int q = position[d];
+                        pending[q >>> 6] |= 1L << q;
+                        if (q <= pos)
+                            again = true;                // aresta de volta: próxima passada
+                    }
+                }
+            }
+        }
+    }
+
+    /* aplica a transferência de b; true se o resultado mudou */
+    private boolean transfer(int b, long[] x) {
+        join(b, x);
+        int base = b * words;
+        boolean changed = false;
+        for (int w = 0; w < words; w++) {
+            long v = gen[base + w] | (x[w] & ~kill[base + w]);
+            if (v != result[base + w]) {
+                result[base + w] = v;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /* junção dos vizinhos de que b depende (com a fronteira, se for o caso) em x */
+    private void join(int b, long[] x) {
+        int n = forward ? cfg.predCount(b) : 2;
+        boolean first = true;
+        if (forward ? b == 0 : cfg.succ(b, 0) == Cfg.NONE) {
+            System.arraycopy(boundary, 0, x, 0, words);
+            first = false;
+        }
+        for (int k = 0; k < n; k++) {
+            int d = forward ? cfg.pred(b, k) : cfg.succ(b, k);
+            if (d == Cfg.NONE || !reachable[d])
+                continue;
+            int base = d * words;
+            if (first)
+                System.arraycopy(result, base, x, 0, words);
+            else if (union)
+                for (int w = 0; w < words; w++)
+                    x[w] |= result[base + w];
+            else
+                for (int w = 0; w < words; w++)
+                    x[w] &= result[base + w];
+            first = false;
+        }
+        if (first)
+            Arrays.fill(x, 0L);                          // sem vizinhos (inalcançável)
+    }
+
+    private void trim(long[] x) {
+        if ((bits & 63) != 0)
+            x[words - 1] &= -1L >>> (64 - (bits & 63));
+    }
+
+    /* ----------------------------------------------------------
+     *  Leitura (depois de solve())
+     * ---------------------------------------------------------- */
+    public Cfg cfg()                        { return cfg; }
+    public int bits()                       { return bits; }
+    public int words()                      { return words; }
+
+    /** Blocos processados pela lista de trabalho na última solve(). */
+    public int visits()                     { return visits; }
+
+    /** Conjunto na entrada de b, copiado em x (words() palavras). */
+    public long[] before(int b, long[] x) {
+        if (forward)
+            join(b, x);
+        else
+            System.arraycopy(result, b * words, x, 0, words);
+        return x;
+    }
+
+    /** Conjunto na saída de b, copiado em x. */
+    public long[] after(int b, long[] x) {
+        if (forward)
+            System.arraycopy(result, b * words, x, 0, words);
+        else
+            join(b, x);
+        return x;
+    }
+
+    /** true se bit está no conjunto na entrada de b (sem copiar o conjunto). */
+    public boolean isSetBefore(int b, int bit) {
+        return forward ? joinBit(b, bit) : (result[b * words + (bit >>> 6)] & 1L << bit) != 0;
+    }
+
+    /** true se bit está no conjunto na saída de b. */
+    public boolean isSetAfter(int b, int bit) {
+        return forward ? (result[b * words + (bit >>> 6)] & 1L << bit) != 0 : joinBit(b, bit);
+    }
+
+    private boolean joinBit(int b, int bit) {
+        int n = forward ? cfg.predCount(b) : 2, w = bit >>> 6;
+        long m = 1L << bit;
+        boolean any = false;
+        if (forward ? b == 0 : cfg.succ(b, 0) == Cfg.NONE) {
+            if (((boundary[w] & m) != 0) == union)
+                return union;
+            any = true;
+        }
+        for (int k = 0; k < n; k++) {
+            int d = forward ? cfg.pred(b, k) : cfg.succ(b, k);
+            if (d == Cfg.NONE || !reachable[d])
+                continue;
+            if (((result[d * words + w] & m) != 0) == union)
+                return union;                            // decide sozinho a junção
+            any = true;
+        }
+        return !union && any;
+    }
+
+    public boolean isReachable(int b)       { return reachable[b]; }
+
+    /* ----- operações sobre um conjunto avulso ----- */
+    public static boolean contains(long[] x, int bit)  { return (x[bit >>> 6] & 1L << bit) != 0; }
+    public static void add(long[] x, int bit)          { x[bit >>> 6] |= 1L << bit; }
+    public static void remove(long[] x, int bit)       { x[bit >>> 6] &= ~(1L << bit); }
+}
@@ -0,0 +1,283 @@
+package ir;
+
+import ast.ConstantFolder;
+import lexer.Lexer;
+import lexer.Source;
+import parser.Diagnostics;
+import parser.Parser;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  DataflowCheck  –  confere Liveness, ReachingDefinitions e
+ *  DefiniteAssignment contra solvers ingênuos e mede a escala
+ *
+ *  Gera programas aleatórios (atribuições, in/out, if/while/repeat
+ *  aninhados, && e || sobre divisões), baixa cada um para Tac e resolve
+ *  os três problemas de novo instrução a instrução, com BitSet e voltas
+ *  completas até o ponto fixo. Faz o mesmo com o código otimizado em
+ *  SSA (Sccp, CopyPropagation, DeadCode e toTac). Depois gera um
+ *  programa grande e mede cada análise.
+ *
+ *  Uso: java ir.DataflowCheck [programas] [variáveis do programa grande]
+ *  Padrão: 400 programas e 100000 variáveis. Os conjuntos são densos
+ *  (blocos x bits): com 100000 variáveis o programa grande pede -Xmx4g.
+ *  Sai com status 1 se houver diferença.
+ *  ---------------------------------------------------------------- */
+public final class DataflowCheck {
+
+    private final Random random;
+    private int vars;
+    private final StringBuilder sb = new StringBuilder();
+
+    private DataflowCheck(long seed) {
+        random = new Random(seed);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int programs = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+        int bigVars = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        DataflowCheck g = new DataflowCheck(1);
+        int differences = 0;
+        for (int t = 0; t < programs; t++) {
+            String src = g.program(4 + g.random.nextInt(6), 3 + g.random.nextInt(10));
+            Parser parser = parse(src);
+            Tac code = Lowering.lower(parser.ast());
+            String diff = compare(code);
+            if (diff == null) {
+                new ConstantFolder(parser.ast()).run();
+                Ssa ssa = new Ssa(Lowering.lower(parser.ast()));
+                new Sccp(ssa).run();
+                new CopyPropagation(ssa).run();
+                new DeadCode(ssa).run();
+                diff = compare(ssa.toTac());
+                if (diff != null) diff = "(SSA) " + diff;
+            }
+            if (diff != null) {
+                System.err.println("programa " + t + ": " + diff + "\n" + src);
+                if (++differences == 5) break;
+            }
+        }
+        System.out.println(programs + " programas comparados, " + differences + " com diferença");
+
+        bench(new DataflowCheck(7).program(bigVars, bigVars / 4));
+
+        if (differences > 0)
+            System.exit(1);
+    }
+
+    private static Parser parse(String src) throws IOException {
+        Diagnostics diags = new Diagnostics();
+        Parser parser = new Parser(new Lexer(Source.of(src)), diags);
+        parser.parse();
+        if (diags.count() > 0)
+            throw new IllegalStateException("programa gerado com erro: " + diags.list().get(0));
+        return parser;
+    }
+
+    /* ----------------------------------------------------------
+     *  Gerador: declara v0..v{n-1} (int) e emite n comandos
+     * ---------------------------------------------------------- */
+    private String program(int variables, int statements) {
+        vars = variables;
+        sb.setLength(0);
+        sb.append("program\nint: ");
+        for (int v = 0; v < vars; v++)
+            sb.append(v > 0 ? ", v" : "v").append(v);
+        sb.append(";\nbegin\n");
+        statements(statements, 0);
+        sb.append("out(v0)\nend\n");
+        return sb.toString();
+    }
+
+    private void statements(int n, int depth) {
+        for (int i = 0; i < n; i++) {
+            int k = random.nextInt(10);
+            if (k < 5 || depth > 3) {
+                sb.append(var()).append(" = ").append(expr(0)).append(";\n");
+            } else if (k < 7) {
+                sb.append("in(").append(var()).append(");\n");
+            } else if (k < 8) {
+                sb.append("if ").append(cond()).append(" then\n");
+                statements(1 + random.nextInt(3), depth + 1);
+                sb.append("v0 = 1\nelse\n");
+                statements(1 + random.nextInt(3), depth + 1);
+                sb.append("v1 = 2\nend;\n");
+            } else if (k < 9) {
+                sb.append("while ").append(cond()).append(" do\n");
+                statements(1 + random.nextInt(3), depth + 1);
+                sb.append("v2 = 3\nend;\n");
+            } else {
+                sb.append("repeat\n");
+                statements(1 + random.nextInt(3), depth + 1);
+                sb.append("v3 = 3\nuntil ").append(cond()).append(";\n");
+            }
+        }
+    }
+
+    private String var() {
+        return "v" + random.nextInt(vars);
+    }
+
+    private String expr(int depth) {
+        int k = random.nextInt(5);
+        if (depth > 1 || k < 2)
+            return random.nextBoolean() ? var() : Integer.toString(random.nextInt(3));
+        return "(" + expr(depth + 1) + (k == 2 ? " + " : k == 3 ? " - " : " / ") + expr(depth + 1) + ")";
+    }
+
+    private String cond() {
+        String c = "(" + var() + " > " + expr(1) + ")";
+        int k = random.nextInt(4);
+        return k == 0 ? "(" + c + " && (" + expr(0) + " > 0))"
+             : k == 1 ? "(" + c + " || (" + var() + " == 0))" : c;
+    }
+
+    /* ----------------------------------------------------------
+     *  Comparação com os solvers ingênuos
+     * ---------------------------------------------------------- */
+    private static String compare(Tac code) {
+        Cfg cfg = new Cfg(code);
+        int n = code.size();
+        int[][] succ = successors(cfg);
+
+        /* liveness: antes de cada instrução */
+        BitSet[] live = new BitSet[n + 1];
+        for (int i = 0; i <= n; i++) live[i] = new BitSet();
+        for (boolean changed = true; changed; ) {
+            changed = false;
+            for (int i = n - 1; i >= 0; i--) {
+                BitSet x = new BitSet();
+                for (int s : succ[i]) x.or(live[s]);
+                int o = code.op(i), k = Op.uses(o);
+                if (Op.hasDst(o)) x.clear(code.dst(i));
+                if (k >= 1) x.set(code.src1(i));
+                if (k == 2) x.set(code.src2(i));
+                if (!x.equals(live[i])) { live[i] = x; changed = true; }
+            }
+        }
+        Liveness lv = new Liveness(cfg);
+        for (int b = 0; b < cfg.blocks(); b++)
+            for (int s = 0; s < code.slots(); s++)
+                if (lv.isLiveIn(b, s) != live[cfg.start(b)].get(s))
+                    return "liveness: bloco " + b + ", slot " + code.slotName(s);
+
+        /* definições que alcançam: antes de cada instrução */
+        BitSet[] reach = new BitSet[n];
+        boolean[] seen = new boolean[n];
+        for (int i = 0; i < n; i++) reach[i] = new BitSet();
+        for (boolean changed = true; changed; ) {
+            changed = false;
+            for (int i = 0; i < n; i++) {
+                BitSet out = (BitSet) reach[i].clone();
+                if (Op.hasDst(code.op(i))) {
+                    for (int j = out.nextSetBit(0); j >= 0; j = out.nextSetBit(j + 1))
+                        if (code.dst(j) == code.dst(i)) out.clear(j);
+                    out.set(i);
+                }
+                for (int s : succ[i]) {
+                    BitSet y = (BitSet) reach[s].clone();
+                    y.or(out);
+                    if (!y.equals(reach[s])) { reach[s] = y; changed = true; }
+                }
+            }
+        }
+        ReachingDefinitions rd = new ReachingDefinitions(cfg);
+        for (int i = 0; i < n; i++)
+            for (int v = 0; v < code.variables(); v++) {
+                int[] got = rd.reaching(i, v);
+                Arrays.sort(got);
+                BitSet x = reach[i];
+                final int var = v;
+                int[] expected = x.stream().filter(j -> code.dst(j) == var).toArray();
+                if (!Arrays.equals(got, expected))
+                    return "reaching: instrução " + i + ", " + code.slotName(v) + ": "
+                            + Arrays.toString(got) + " x " + Arrays.toString(expected);
+            }
+
+        /* atribuição definida: antes de cada instrução alcançável (interseção) */
+        BitSet all = new BitSet();
+        all.set(0, code.variables());
+        BitSet[] assigned = new BitSet[n];
+        for (int i = 0; i < n; i++) assigned[i] = (BitSet) all.clone();
+        assigned[0] = new BitSet();
+        seen[0] = true;
+        for (boolean changed = true; changed; ) {
+            changed = false;
+            for (int i = 0; i < n; i++) {
+                if (!seen[i]) continue;
+                BitSet out = (BitSet) assigned[i].clone();
+                if (Op.hasDst(code.op(i)) && code.isVariable(code.dst(i))) out.set(code.dst(i));
+                for (int s : succ[i]) {
+                    BitSet y = (BitSet) assigned[s].clone();
+                    y.and(out);
+                    if (!seen[s] || !y.equals(assigned[s])) { assigned[s] = y; seen[s] = true; changed = true; }
+                }
+            }
+        }
+        DefiniteAssignment da = new DefiniteAssignment(cfg);
+        for (int b = 0; b < cfg.blocks(); b++) {
+            if (!seen[cfg.start(b)]) continue;
+            for (int v = 0; v < code.variables(); v++) {
+                int k = da.bit(v);
+                if (k != Tac.NONE && da.flow().isSetBefore(b, k) != assigned[cfg.start(b)].get(v))
+                    return "atribuição definida: bloco " + b + ", " + code.slotName(v);
+            }
+        }
+        return null;
+    }
+
+    /** Sucessores de cada instrução; a saída do HALT é a posição n (conjunto vazio). */
+    private static int[][] successors(Cfg cfg) {
+        Tac code = cfg.code();
+        int[][] succ = new int[code.size()][];
+        for (int i = 0; i < code.size(); i++) {
+            int b = cfg.blockOf(i);
+            if (i < cfg.last(b)) {
+                succ[i] = new int[] { i + 1 };
+                continue;
+            }
+            int[] s = new int[2];
+            int c = 0;
+            for (int k = 0; k < 2; k++)
+                if (cfg.succ(b, k) != Cfg.NONE) s[c++] = cfg.start(cfg.succ(b, k));
+            succ[i] = Arrays.copyOf(s, c);
+        }
+        return succ;
+    }
+
+    /* ----------------------------------------------------------
+     *  Escala: um programa grande, melhor de 5 rodadas por análise
+     * ---------------------------------------------------------- */
+    private static void bench(String src) throws IOException {
+        Tac code = Lowering.lower(parse(src).ast());
+        Cfg cfg = new Cfg(code);
+        long da = Long.MAX_VALUE, lv = Long.MAX_VALUE, rd = Long.MAX_VALUE;
+        int tracked = 0, defs = 0, found = 0;
+        for (int round = 0; round < 5; round++) {
+            long t = System.nanoTime();
+            DefiniteAssignment d = new DefiniteAssignment(cfg);
+            found = d.check(new Diagnostics(Integer.MAX_VALUE));
+            da = Math.min(da, System.nanoTime() - t);
+            tracked = d.flow().bits();
+
+            t = System.nanoTime();
+            new Liveness(cfg);
+            lv = Math.min(lv, System.nanoTime() - t);
+
+            t = System.nanoTime();
+            defs = new ReachingDefinitions(cfg).definitions();
+            rd = Math.min(rd, System.nanoTime() - t);
+        }
+        System.out.printf("programa grande: %d variáveis, %d instruções, %d blocos%n",
+                code.ast().variables(), code.size(), cfg.blocks());
+        System.out.printf("  atribuição definida + check  %8.1f ms  (%d variáveis no fluxo, %d avisos)%n",
+                da / 1e6, tracked, found);
+        System.out.printf("  liveness                     %8.1f ms%n", lv / 1e6);
+        System.out.printf("  definições que alcançam      %8.1f ms  (%d definições)%n", rd / 1e6, defs);
+    }
+}
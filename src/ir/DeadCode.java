@@ -0,0 +1,113 @@
+package ir;
+
+import java.util.Arrays;
+
+import parser.Type;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  DeadCode  –  eliminação de código morto sobre a Ssa (marca e varre)
+ *
+ *  Parte das instruções com efeito visível (read, write, desvios e
+ *  halt) e marca, seguindo as definições únicas da SSA, tudo de que
+ *  elas dependem; phis marcados puxam os argumentos das arestas que
+ *  ainda existem. O que sobra sem marca (atribuições que ninguém lê,
+ *  phis de variáveis mortas, constantes já propagadas pela Sccp)
+ *  sai do código. read nunca sai (consome a entrada), nem uma divisão
+ *  inteira cujo divisor não é uma constante diferente de zero.
+ *  ---------------------------------------------------------------- */
+public final class DeadCode {
+
+    private final Ssa ssa;
+    private int removed, removedPhis;
+
+    public DeadCode(Ssa ssa) {
+        this.ssa = ssa;
+    }
+
+    /** Instruções removidas na última run(). */
+    public int removed()                { return removed; }
+
+    /** Phis removidos na última run(). */
+    public int removedPhis()            { return removedPhis; }
+
+    public void run() {
+        Tac code = ssa.code();
+        Cfg cfg = ssa.cfg();
+        boolean[] live = new boolean[code.size()];
+        boolean[] livePhi = new boolean[ssa.phis()];
+        boolean[] needed = new boolean[code.slots()];
+        int[] work = new int[16];
+        int top = 0;
+
+        for (int b = 0; b < cfg.blocks(); b++) {
+            if (!ssa.isReachable(b))
+                continue;
+            for (int i = cfg.start(b); i < cfg.end(b); i++) {
+                int o = code.op(i);
+                if (ssa.isRemoved(i) || (Op.hasDst(o) && o != Op.READ && !mayFail(code, i)))
+                    continue;
+                live[i] = true;
+                int k = Op.uses(o);
+                if (k >= 1)
+                    work = push(work, top++, code.src1(i));
+                if (k == 2)
+                    work = push(work, top++, code.src2(i));
+            }
+        }
+
+        while (top > 0) {
+            int s = work[--top];
+            if (needed[s])
+                continue;
+            needed[s] = true;
+            int i = ssa.defInstr(s), p = ssa.defPhi(s);
+            if (i != Ssa.NONE && !live[i]) {
+                live[i] = true;
+                int k = Op.uses(code.op(i));
+                if (k >= 1)
+                    work = push(work, top++, code.src1(i));
+                if (k == 2)
+                    work = push(work, top++, code.src2(i));
+            } else if (p != Ssa.NONE && !livePhi[p] && !ssa.isPhiRemoved(p)) {
+                livePhi[p] = true;
+                if (ssa.isPhiConstant(p))
+                    continue;
+                int b = ssa.phiBlock(p);
+                for (int k = 0; k < cfg.predCount(b); k++)
+                    if (ssa.isReachable(cfg.pred(b, k)) && ssa.arg(p, k) != Ssa.NONE)
+                        work = push(work, top++, ssa.arg(p, k));
+            }
+        }
+
+        removed = removedPhis = 0;
+        for (int b = 0; b < cfg.blocks(); b++) {
+            if (!ssa.isReachable(b))
+                continue;
+            for (int i = cfg.start(b); i < cfg.end(b); i++)
+                if (!live[i] && !ssa.isRemoved(i)) {
+                    ssa.remove(i);
+                    removed++;
+                }
+            for (int p = ssa.firstPhi(b); p < ssa.endPhi(b); p++)
+                if (!livePhi[p] && !ssa.isPhiRemoved(p)) {
+                    ssa.removePhi(p);
+                    removedPhis++;
+                }
+        }
+    }
+
+    /* divisão inteira por algo que pode ser zero: a falha é um efeito visível */
+    private boolean mayFail(Tac code, int i) {
+        if (code.op(i) != Op.DIV || code.type(i) == Type.FLOAT)
+            return false;
+        int d = ssa.defInstr(code.src2(i));
+        return d == Ssa.NONE || code.op(d) != Op.CONST || code.intValue(d) == 0;
+    }
+
+    private static int[] push(int[] work, int top, int s) {
+        if (top == work.length)
+            work = Arrays.copyOf(work, 2 * top);
+        work[top] = s;
+        return work;
+    }
+}
@@ -0,0 +1,88 @@
+package ir;
+
+import parser.Diagnostic;
+import parser.Diagnostics;
+import parser.SemanticException;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  DefiniteAssignment  –  variáveis com certeza atribuídas em cada ponto
+ *
+ *  Para frente, por interseção: uma variável está atribuída na entrada
+ *  de um bloco só se estiver em todos os caminhos desde o início. O
+ *  bit é de uma variável da Ast (uma por declaração) lida em algum
+ *  bloco antes de ser escrita nele; as outras são sempre atribuídas
+ *  quando lidas. Um bloco gera as que escreve (atribuição ou read) e
+ *  não mata nenhuma.
+ *
+ *  check() avisa de cada leitura de uma variável que pode não ter sido
+ *  atribuída, como 'cont = cont + 1' no primeiro giro de um laço. O
+ *  Parser não vê isso: depende dos caminhos, não só da declaração. É
+ *  aviso, não erro: o caminho pode ser impossível na prática.
+ *  ---------------------------------------------------------------- */
+public final class DefiniteAssignment {
+
+    private final Tac code;
+    private final Cfg cfg;
+    private final int[] bit;                // variável -> bit (NONE: toda leitura segue uma escrita no bloco)
+    private final Dataflow flow;
+
+    public DefiniteAssignment(Cfg cfg) {
+        this.cfg = cfg;
+        this.code = cfg.code();
+        bit = Liveness.upwardExposed(cfg, code.variables());
+        int count = 0;
+        for (int v = 0; v < bit.length; v++)
+            if (bit[v] != Tac.NONE)
+                bit[v] = count++;
+
+        flow = new Dataflow(cfg, count, true, false);
+        for (int i = 0; i < code.size(); i++)
+            if (Op.hasDst(code.op(i)) && code.isVariable(code.dst(i)) && bit[code.dst(i)] != Tac.NONE)
+                flow.gen(cfg.blockOf(i), bit[code.dst(i)]);
+        flow.solve();
+    }
+
+    public Dataflow flow()                  { return flow; }
+
+    /** Bit da variável v nos conjuntos de flow(), ou Tac.NONE se ela não precisa de fluxo. */
+    public int bit(int v)                   { return bit[v]; }
+
+    /**
+     * Acrescenta a diags um aviso por leitura de variável possivelmente não
+     * atribuída (uma vez por variável e linha) e devolve quantos achou.
+     */
+    public int check(Diagnostics diags) {
+        long[] x = new long[flow.words()];
+        int found = 0;
+        int[] lastLine = new int[code.variables()];
+        for (int b = 0; b < cfg.blocks(); b++) {
+            if (!flow.isReachable(b))
+                continue;
+            flow.before(b, x);
+            for (int i = cfg.start(b); i < cfg.end(b); i++) {
+                int o = code.op(i), k = Op.uses(o);
+                if (k >= 1)
+                    found += use(diags, x, i, code.src1(i), lastLine);
+                if (k == 2)
+                    found += use(diags, x, i, code.src2(i), lastLine);
+                if (Op.hasDst(o) && code.isVariable(code.dst(i)) && bit[code.dst(i)] != Tac.NONE)
+                    Dataflow.add(x, bit[code.dst(i)]);
+            }
+        }
+        return found;
+    }
+
+    private int use(Diagnostics diags, long[] x, int i, int s, int[] lastLine) {
+        if (!code.isVariable(s) || bit[s] == Tac.NONE || Dataflow.contains(x, bit[s])
+                || s >= code.ast().variables())           // junções: escritas nos dois caminhos
+            return 0;
+        long pos = code.position(i);
+        SemanticException e = new SemanticException(SemanticException.Reason.UNINITIALIZED, pos,
+                code.ast().varName(s), null, null, false);
+        if (lastLine[s] == e.getLine())
+            return 0;
+        lastLine[s] = e.getLine();
+        diags.add(Diagnostic.Kind.WARNING, pos, "Aviso na linha " + e.getLine() + ": " + e.detail());
+        return 1;
+    }
+}
@@ -0,0 +1,150 @@
+package ir;
+
+import java.util.Arrays;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  Dominators  –  dominadores imediatos, árvore e fronteiras de dominância
+ *
+ *  Algoritmo iterativo de Cooper, Harvey e Kennedy sobre a ordem
+ *  pós-ordem reversa do Cfg; as fronteiras saem subindo a árvore a
+ *  partir de cada predecessor de um bloco de junção. Blocos que não
+ *  são alcançáveis a partir da entrada ficam com idom == NONE.
+ *  ---------------------------------------------------------------- */
+public final class Dominators {
+
+    public static final int NONE = -1;
+
+    private final Cfg cfg;
+    private final int[] idom;
+    private final int[] order;          // blocos alcançáveis em pós-ordem reversa
+    private final int[] rpoIndex;       // posição de cada bloco em order (NONE = inalcançável)
+    private final int[] childStart, children;
+    private final int[] frontierStart, frontier;
+
+    public Dominators(Cfg cfg) {
+        this.cfg = cfg;
+        int n = cfg.blocks();
+
+        order = cfg.reversePostorder();
+        int count = order.length;
+        rpoIndex = new int[n];
+        Arrays.fill(rpoIndex, NONE);
+        for (int i = 0; i < count; i++)
+            rpoIndex[order[i]] = i;
+
+        /* ----- dominadores imediatos ----- */
+        idom = new int[n];
+        Arrays.fill(idom, NONE);
+        idom[0] = 0;
+        for (boolean changed = true; changed; ) {
+            changed = false;
+            for (int i = 1; i < count; i++) {
+                int b = order[i], d = NONE;
+                for (int k = 0; k < cfg.predCount(b); k++) {
+                    int p = cfg.pred(b, k);
+                    if (idom[p] == NONE)
+                        continue;                       // ainda não processado ou inalcançável
+                    d = d == NONE ? p : intersect(p, d);
+                }
+                if (d != idom[b]) {
+                    idom[b] = d;
+                    changed = true;
+                }
+            }
+        }
+
+        /* ----- árvore de dominância (filhos em formato compacto) ----- */
+        childStart = new int[n + 1];
+        for (int b = 1; b < n; b++)
+            if (idom[b] != NONE)
+                childStart[idom[b] + 1]++;
+        for (int b = 0; b < n; b++)
+            childStart[b + 1] += childStart[b];
+        children = new int[childStart[n]];
+        int[] fill = Arrays.copyOf(childStart, n);
+        for (int b = 1; b < n; b++)
+            if (idom[b] != NONE)
+                children[fill[idom[b]]++] = b;
+
+        /* ----- fronteiras: DF(x) recebe b para cada x entre um pred de b e idom(b) ----- */
+        int[] head = new int[n], link = new int[4 * n + 4], item = new int[link.length];
+        int[] stamp = new int[n];
+        Arrays.fill(head, NONE);
+        Arrays.fill(stamp, NONE);
+        int used = 0;
+        int[] size = new int[n];
+        for (int b = 0; b < n; b++) {
+            if (idom[b] == NONE || cfg.predCount(b) < (b == 0 ? 1 : 2))
+                continue;
+            /* a entrada tem um predecessor virtual (o início): se ela for alvo
+               de um laço, a subida passa por ela e DF(0) também recebe 0 */
+            int stop = b == 0 ? NONE : idom[b];
+            for (int k = 0; k < cfg.predCount(b); k++) {
+                int p = cfg.pred(b, k);
+                if (idom[p] == NONE)
+                    continue;
+                for (int x = p; x != NONE && x != stop; x = x == 0 ? NONE : idom[x]) {
+                    if (stamp[x] == b)
+                        continue;                       // b já está em DF(x)
+                    stamp[x] = b;
+                    if (used == link.length) {
+                        link = Arrays.copyOf(link, 2 * used);
+                        item = Arrays.copyOf(item, 2 * used);
+                    }
+                    item[used] = b;
+                    link[used] = head[x];
+                    head[x] = used++;
+                    size[x]++;
+                }
+            }
+        }
+        frontierStart = new int[n + 1];
+        for (int b = 0; b < n; b++)
+            frontierStart[b + 1] = frontierStart[b] + size[b];
+        frontier = new int[used];
+        for (int b = 0; b < n; b++) {
+            int j = frontierStart[b];
+            for (int e = head[b]; e != NONE; e = link[e])
+                frontier[j++] = item[e];
+        }
+    }
+
+    private int intersect(int a, int b) {
+        while (a != b) {
+            while (rpoIndex[a] > rpoIndex[b])
+                a = idom[a];
+            while (rpoIndex[b] > rpoIndex[a])
+                b = idom[b];
+        }
+        return a;
+    }
+
+    /* ----------------------------------------------------------
+     *  Leitura
+     * ---------------------------------------------------------- */
+    public Cfg cfg()                        { return cfg; }
+
+    /** Dominador imediato de b (a entrada é o próprio), ou NONE se b é inalcançável. */
+    public int idom(int b)                  { return idom[b]; }
+
+    public boolean isReachable(int b)       { return idom[b] != NONE; }
+
+    /** Blocos alcançáveis em pós-ordem reversa. */
+    public int reachable()                  { return order.length; }
+    public int order(int i)                 { return order[i]; }
+
+    public int childCount(int b)            { return childStart[b + 1] - childStart[b]; }
+    public int child(int b, int i)          { return children[childStart[b] + i]; }
+
+    public int frontierSize(int b)          { return frontierStart[b + 1] - frontierStart[b]; }
+    public int frontier(int b, int i)       { return frontier[frontierStart[b] + i]; }
+
+    /** true se a domina b (todo bloco domina a si mesmo). */
+    public boolean dominates(int a, int b) {
+        if (idom[b] == NONE)
+            return false;
+        while (b != a && b != 0)
+            b = idom[b];
+        return b == a;
+    }
+}
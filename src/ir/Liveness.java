@@ -0,0 +1,94 @@
+package ir;
+
+import java.util.Arrays;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  Liveness  –  slots vivos na entrada e na saída de cada bloco
+ *
+ *  Para trás, por união, sobre os slots do Tac (variáveis e
+ *  temporários, então também serve para o código que sai da Ssa). Só
+ *  ganham bit os slots lidos em algum bloco antes de serem escritos
+ *  nele: os outros nunca estão vivos numa fronteira de bloco. No código
+ *  da Lowering isso deixa de fora quase todos os temporários.
+ *  ---------------------------------------------------------------- */
+public final class Liveness {
+
+    private final Tac code;
+    private final Cfg cfg;
+    private final int[] bit;                // slot -> bit (NONE: nunca vivo entre blocos)
+    private final Dataflow flow;
+
+    public Liveness(Cfg cfg) {
+        this.cfg = cfg;
+        this.code = cfg.code();
+        bit = upwardExposed(cfg, code.slots());
+        int count = 0;
+        for (int s = 0; s < bit.length; s++)
+            if (bit[s] != Tac.NONE)
+                bit[s] = count++;
+
+        flow = new Dataflow(cfg, count, false, true);
+        for (int b = 0; b < cfg.blocks(); b++)
+            for (int i = cfg.end(b) - 1; i >= cfg.start(b); i--) {
+                int o = code.op(i), k = Op.uses(o);
+                if (Op.hasDst(o) && bit[code.dst(i)] != Tac.NONE) {
+                    flow.kill(b, bit[code.dst(i)]);
+                    flow.clearGen(b, bit[code.dst(i)]);   // escrito antes dos usos que vêm depois
+                }
+                if (k >= 1 && bit[code.src1(i)] != Tac.NONE)
+                    flow.gen(b, bit[code.src1(i)]);
+                if (k == 2 && bit[code.src2(i)] != Tac.NONE)
+                    flow.gen(b, bit[code.src2(i)]);
+            }
+        flow.solve();
+    }
+
+    /**
+     * Marca com 0 os slots (abaixo de limit) lidos em algum bloco antes de
+     * uma escrita no mesmo bloco; os demais ficam NONE.
+     */
+    static int[] upwardExposed(Cfg cfg, int limit) {
+        Tac code = cfg.code();
+        int[] mark = new int[limit];
+        int[] written = new int[code.slots()];
+        Arrays.fill(mark, Tac.NONE);
+        Arrays.fill(written, Tac.NONE);
+        for (int b = 0; b < cfg.blocks(); b++)
+            for (int i = cfg.start(b); i < cfg.end(b); i++) {
+                int o = code.op(i), k = Op.uses(o);
+                if (k >= 1 && code.src1(i) < limit && written[code.src1(i)] != b)
+                    mark[code.src1(i)] = 0;
+                if (k == 2 && code.src2(i) < limit && written[code.src2(i)] != b)
+                    mark[code.src2(i)] = 0;
+                if (Op.hasDst(o))
+                    written[code.dst(i)] = b;
+            }
+        return mark;
+    }
+
+    public Dataflow flow()                  { return flow; }
+
+    /** Bit do slot s nos conjuntos de flow(), ou Tac.NONE se s nunca está vivo entre blocos. */
+    public int bit(int s)                   { return bit[s]; }
+
+    public boolean isLiveIn(int b, int s) {
+        return bit[s] != Tac.NONE && flow.isSetBefore(b, bit[s]);
+    }
+
+    public boolean isLiveOut(int b, int s) {
+        return bit[s] != Tac.NONE && flow.isSetAfter(b, bit[s]);
+    }
+
+    /** true se o valor do slot s na saída da instrução i ainda pode ser lido. */
+    public boolean isLiveAfter(int i, int s) {
+        int b = cfg.blockOf(i);
+        for (int j = i + 1; j < cfg.end(b); j++) {
+            int o = code.op(j), k = Op.uses(o);
+            if ((k >= 1 && code.src1(j) == s) || (k == 2 && code.src2(j) == s))
+                return true;
+            if (Op.hasDst(o) && code.dst(j) == s)
+                return false;
+        }
+        return isLiveOut(b, s);
+    }
+}
@@ -0,0 +1,308 @@
+package ir;
+
+import ast.Ast;
+import ast.Node;
+import lexer.Tag;
+import parser.Type;
+import parser.TypeRules;
+
+import java.util.Arrays;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  Lowering  –  traduz a Ast tipada em código de três endereços (Tac)
+ *
+ *  Cada expressão vira uma sequência de instruções que deixa o valor
+ *  num slot (variável ou temporário novo); as conversões implícitas
+ *  das regras de TypeRules (INT -> FLOAT, CHAR -> INT) ficam explícitas
+ *  em I2F/C2I. && e || são avaliados por inteiro, a não ser que o
+ *  operando direito possa falhar (divisão inteira por algo que não é
+ *  constante diferente de zero): aí o direito só é avaliado se preciso,
+ *  com um desvio, e o resultado fica numa variável de junção do Tac.
+ *  Os desvios são emitidos com alvo provisório e corrigidos quando o
+ *  destino é conhecido.
+ *
+ *  Exige uma Ast sem erros (parse sem diagnósticos).
+ *  ---------------------------------------------------------------- */
+public final class Lowering {
+
+    private final Ast ast;
+    private final Tac code;
+
+    /* && / || com operando direito que pode falhar, e a próxima junção livre */
+    private final boolean[] shortCircuit;
+    private int nextJoin;
+
+    private Lowering(Ast ast) {
+        this.ast = ast;
+        this.shortCircuit = new boolean[ast.size()];
+        this.code = new Tac(ast, markShortCircuits());
+        this.nextJoin = ast.variables();
+    }
+
+    /*
+     * Marca os && / || cujo operando direito pode falhar e devolve quantos
+     * são. A arena tem os filhos antes dos pais, então uma passada em
+     * ordem de índice já vê o resultado dos filhos.
+     */
+    private int markShortCircuits() {
+        int n = ast.size(), count = 0;
+        boolean[] mayFail = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            int k = ast.kind(i);
+            if (k != Node.UNARY && k != Node.BINARY)
+                continue;
+            int left = ast.child(i);
+            if (left == Ast.NONE)
+                continue;
+            if (k == Node.UNARY) {
+                mayFail[i] = mayFail[left];
+                continue;
+            }
+            int right = ast.next(left), op = ast.value(i);
+            mayFail[i] = mayFail[left] || mayFail[right]
+                    || (op == Tag.DIV && ast.type(i) != Type.FLOAT
+                        && (!Node.isConstant(ast.kind(right)) || ast.value(right) == 0));
+            if ((op == Tag.AND || op == Tag.OR) && mayFail[right]) {
+                shortCircuit[i] = true;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static Tac lower(Ast ast) {
+        if (ast.root() == Ast.NONE)
+            throw new IllegalArgumentException("Ast vazia");
+        Lowering l = new Lowering(ast);
+        l.block(ast.child(ast.root()));
+        l.code.emit(Op.HALT, null, Tac.NONE, Tac.NONE, Tac.NONE, ast.position(ast.root()));
+        return l.code;
+    }
+
+    /* ----------------------------------------------------------
+     *  Comandos
+     * ---------------------------------------------------------- */
+    private void block(int block) {
+        for (int s = ast.child(block); s != Ast.NONE; s = ast.next(s))
+            stmt(s);
+    }
+
+    private void stmt(int n) {
+        long p = ast.position(n);
+        switch (ast.kind(n)) {
+            case Node.DECL:
+                break;
+
+            case Node.ASSIGN: {
+                int v = variable(n);
+                int e = expr(ast.child(n));
+                int last = code.size() - 1;
+                if (!code.isVariable(e) && last >= 0 && code.dst(last) == e && Op.hasDst(code.op(last)))
+                    code.setDst(last, v);               // o temporário só servia a esta atribuição
+                else
+                    code.emit(Op.COPY, ast.varType(v), v, e, Tac.NONE, p);
+                break;
+            }
+
+            case Node.IF: {
+                int cond = ast.child(n), then = ast.next(cond), otherwise = ast.next(then);
+                int branch = code.emit(Op.JUMP_FALSE, null, Tac.NONE, expr(cond), Tac.NONE, p);
+                block(then);
+                if (otherwise == Ast.NONE) {
+                    code.setTarget(branch, code.size());
+                } else {
+                    int skip = code.emit(Op.JUMP, null, Tac.NONE, Tac.NONE, Tac.NONE, p);
+                    code.setTarget(branch, code.size());
+                    block(otherwise);
+                    code.setTarget(skip, code.size());
+                }
+                break;
+            }
+
+            case Node.WHILE: {
+                int cond = ast.child(n);
+                int top = code.size();
+                int exit = code.emit(Op.JUMP_FALSE, null, Tac.NONE, expr(cond), Tac.NONE, p);
+                block(ast.next(cond));
+                code.emit(Op.JUMP, null, Tac.NONE, top, Tac.NONE, p);
+                code.setTarget(exit, code.size());
+                break;
+            }
+
+            case Node.REPEAT: {
+                int body = ast.child(n);
+                int top = code.size();
+                block(body);
+                code.emit(Op.JUMP_FALSE, null, Tac.NONE, expr(ast.next(body)), top, p);
+                break;
+            }
+
+            case Node.READ: {
+                int v = variable(n);
+                code.emit(Op.READ, ast.varType(v), v, Tac.NONE, Tac.NONE, p);
+                break;
+            }
+
+            case Node.WRITE: {
+                int arg = ast.child(n);
+                if (ast.kind(arg) == Node.LITERAL)
+                    code.emit(Op.WRITE_STR, null, Tac.NONE, arg, Tac.NONE, p);
+                else
+                    code.emit(Op.WRITE, ast.type(arg), Tac.NONE, expr(arg), Tac.NONE, p);
+                break;
+            }
+
+            default:
+                throw new IllegalArgumentException("comando inesperado: " + Node.name(ast.kind(n)));
+        }
+    }
+
+    private int variable(int n) {
+        int v = ast.value(n);
+        if (v < 0)
+            throw new IllegalArgumentException("variável não declarada na Ast");
+        return v;
+    }
+
+    /* ----------------------------------------------------------
+     *  Expressões: devolvem o slot com o valor
+     *
+     *  Pós-ordem com pilha explícita (nó << 2 | estado), esquerda antes
+     *  da direita; os slots dos operandos ficam numa segunda pilha. A
+     *  profundidade da Ast não depende da pilha Java. Estados: FRESH,
+     *  filhos prontos (OPERANDS) e, num && / || com desvio, esquerdo
+     *  pronto (LEFT) e direito pronto (RIGHT); entre esses dois, a pilha
+     *  de slots guarda a junção e o desvio a corrigir.
+     * ---------------------------------------------------------- */
+    private static final int FRESH = 0, OPERANDS = 1, LEFT = 2, RIGHT = 3;
+
+    private int[] work = new int[64];
+    private int[] slots = new int[64];
+
+    private int expr(int root) {
+        int top = 0, sTop = 0;
+        work[top++] = root << 2;
+        while (top > 0) {
+            int w = work[--top], n = w >>> 2, state = w & 3;
+            int kind = ast.kind(n);
+            if (top + 3 > work.length)
+                work = Arrays.copyOf(work, 2 * work.length);
+            if (sTop + 3 > slots.length)
+                slots = Arrays.copyOf(slots, 2 * slots.length);
+
+            if (state == FRESH && (kind == Node.UNARY || kind == Node.BINARY)) {
+                int left = ast.child(n);
+                if (shortCircuit[n]) {
+                    work[top++] = n << 2 | LEFT;
+                } else {
+                    work[top++] = n << 2 | OPERANDS;
+                    if (kind == Node.BINARY)
+                        work[top++] = ast.next(left) << 2;
+                }
+                work[top++] = left << 2;
+                continue;
+            }
+
+            if (state == LEFT) {
+                /* junção = esquerdo; se ele já decide (falso em &&, verdadeiro em ||), pula o direito */
+                int a = slots[--sTop], j = nextJoin++;
+                long p = ast.position(n);
+                code.emit(Op.COPY, Type.BOOL, j, a, Tac.NONE, p);
+                int cond = ast.value(n) == Tag.AND ? a : emit(Op.NOT, Type.BOOL, a, Tac.NONE, p);
+                slots[sTop++] = j;
+                slots[sTop++] = code.emit(Op.JUMP_FALSE, null, Tac.NONE, cond, Tac.NONE, p);
+                work[top++] = n << 2 | RIGHT;
+                work[top++] = ast.next(ast.child(n)) << 2;
+                continue;
+            }
+
+            if (state == RIGHT) {
+                int b = slots[--sTop], jump = slots[--sTop], j = slots[sTop - 1];
+                code.emit(Op.COPY, Type.BOOL, j, b, Tac.NONE, ast.position(n));
+                code.setTarget(jump, code.size());
+                continue;                                // a junção já está no topo
+            }
+
+            int b = kind == Node.BINARY ? slots[--sTop] : Tac.NONE;
+            int a = kind == Node.BINARY || kind == Node.UNARY ? slots[--sTop] : Tac.NONE;
+            slots[sTop++] = node(n, a, b);
+        }
+        return slots[0];
+    }
+
+    /** Instruções do nó n, dados os slots dos operandos já calculados. */
+    private int node(int n, int a, int b) {
+        Type t = ast.type(n);
+        if (t == null || t == Type.ERROR)
+            throw new IllegalArgumentException("expressão sem tipo na Ast");
+        long p = ast.position(n);
+        switch (ast.kind(n)) {
+            case Node.VAR:
+                return variable(n);
+
+            case Node.INT_CONST:
+            case Node.REAL_CONST:
+            case Node.CHAR_CONST:
+            case Node.BOOL_CONST:
+                return emit(Op.CONST, t, ast.value(n), Tac.NONE, p);
+
+            case Node.UNARY:
+                return emit(ast.value(n) == '!' ? Op.NOT : Op.NEG, t, a, Tac.NONE, p);
+
+            case Node.BINARY: {
+                int left = ast.child(n), right = ast.next(left);
+                int op = ast.value(n);
+                if (op == Tag.AND || op == Tag.OR)
+                    return emit(op == Tag.AND ? Op.AND : Op.OR, Type.BOOL, a, b, p);
+
+                /* operandos no tipo comum; comparações CHAR x CHAR ficam em CHAR */
+                Type lt = ast.type(left), rt = ast.type(right);
+                Type common = lt == rt ? lt : TypeRules.arithmetic(lt, rt);
+                a = convert(a, lt, common, p);
+                b = convert(b, rt, common, p);
+                int o = operator(op);
+                if (Op.isComparison(o)) {
+                    int d = code.newSlot(Type.BOOL);
+                    code.emit(o, common, d, a, b, p);
+                    return d;
+                }
+                return emit(o, t, a, b, p);
+            }
+
+            default:
+                throw new IllegalArgumentException("expressão inesperada: " + Node.name(ast.kind(n)));
+        }
+    }
+
+    private int convert(int s, Type from, Type to, long p) {
+        if (from == to)
+            return s;
+        if (from == Type.CHAR)
+            s = emit(Op.C2I, Type.INT, s, Tac.NONE, p);
+        return to == Type.FLOAT ? emit(Op.I2F, Type.FLOAT, s, Tac.NONE, p) : s;
+    }
+
+    /** Instrução com resultado num temporário novo do tipo t. */
+    private int emit(int op, Type t, int a, int b, long p) {
+        int d = code.newSlot(t);
+        code.emit(op, t, d, a, b, p);
+        return d;
+    }
+
+    private static int operator(int tag) {
+        switch (tag) {
+            case Tag.PLUS:  return Op.ADD;
+            case Tag.MINUS: return Op.SUB;
+            case Tag.TIMES: return Op.MUL;
+            case Tag.DIV:   return Op.DIV;
+            case Tag.EQ:    return Op.EQ;
+            case Tag.NE:    return Op.NE;
+            case Tag.LT:    return Op.LT;
+            case Tag.LE:    return Op.LE;
+            case Tag.GT:    return Op.GT;
+            case Tag.GE:    return Op.GE;
+            default:
+                throw new IllegalArgumentException("operador inesperado: " + tag);
+        }
+    }
+}
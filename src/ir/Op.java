@@ -0,0 +1,88 @@
+package ir;
+
+// A classe Op define os códigos de operação do código de três endereços (ver Tac)
+public final class Op {
+
+    private Op() { }
+
+    /*
+     * Campos usados por cada operação (slots: variáveis da Ast e
+     * temporários, ver Tac; alvos: índices de instrução):
+     *
+     *   CONST       dst = src1                  src1 = bits do valor, no tipo da instrução
+     *   COPY        dst = src1
+     *   I2F         dst = (float) src1
+     *   C2I         dst = (int) src1            caractere -> código ASCII
+     *   NEG NOT     dst = op src1
+     *   ADD SUB MUL DIV
+     *   EQ NE LT LE GT GE
+     *   AND OR      dst = src1 op src2          (operandos já do mesmo tipo)
+     *   READ        dst = entrada
+     *   WRITE       saída <- src1
+     *   WRITE_STR   saída <- literal src1       (nó LITERAL da Ast)
+     *   JUMP        goto src1
+     *   JUMP_FALSE  if !src1 goto src2
+     *   HALT        fim do programa
+     */
+    public static final byte
+        CONST = 0,
+        COPY = 1,
+        I2F = 2,
+        C2I = 3,
+        NEG = 4,
+        NOT = 5,
+        ADD = 6,
+        SUB = 7,
+        MUL = 8,
+        DIV = 9,
+        EQ = 10,
+        NE = 11,
+        LT = 12,
+        LE = 13,
+        GT = 14,
+        GE = 15,
+        AND = 16,
+        OR = 17,
+        READ = 18,
+        WRITE = 19,
+        WRITE_STR = 20,
+        JUMP = 21,
+        JUMP_FALSE = 22,
+        HALT = 23;
+
+    private static final String[] NAMES = {
+        "const", "copy", "i2f", "c2i", "neg", "not", "add", "sub", "mul", "div",
+        "eq", "ne", "lt", "le", "gt", "ge", "and", "or",
+        "read", "write", "write_str", "jump", "jump_false", "halt"
+    };
+
+    public static String name(int op) {
+        return NAMES[op];
+    }
+
+    /** true se a operação escreve em dst. */
+    public static boolean hasDst(int op) {
+        return op <= READ;
+    }
+
+    /** Quantos dos campos src1, src2 são slots lidos pela operação (0, 1 ou 2). */
+    public static int uses(int op) {
+        if (op >= ADD && op <= OR)
+            return 2;
+        switch (op) {
+            case COPY: case I2F: case C2I: case NEG: case NOT: case WRITE: case JUMP_FALSE:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    /** true para as operações que encerram um bloco básico. */
+    public static boolean isTerminator(int op) {
+        return op == JUMP || op == JUMP_FALSE || op == HALT;
+    }
+
+    public static boolean isComparison(int op) {
+        return op >= EQ && op <= GE;
+    }
+}
@@ -0,0 +1,102 @@
+package ir;
+
+import java.util.Arrays;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  ReachingDefinitions  –  definições de variáveis que alcançam cada ponto
+ *
+ *  Para frente, por união. O bit k é a k-ésima instrução que escreve
+ *  numa variável da Ast. Temporários ficam fora do fluxo: só são lidos
+ *  depois da definição no próprio bloco, que é a única que os alcança.
+ *  Um bloco gera a última definição de cada variável que escreve e
+ *  mata as outras dela.
+ *  ---------------------------------------------------------------- */
+public final class ReachingDefinitions {
+
+    private final Tac code;
+    private final Cfg cfg;
+    private final Dataflow flow;
+    private final int[] defInstr;           // definição k -> instrução
+    private final int[] defId;              // instrução -> definição k (ou NONE)
+    private final int[] varStart, varDefs;  // definições de cada variável (formato compacto)
+
+    public ReachingDefinitions(Cfg cfg) {
+        this.cfg = cfg;
+        this.code = cfg.code();
+        int n = code.size(), vars = code.variables();
+
+        defId = new int[n];
+        Arrays.fill(defId, Tac.NONE);
+        int count = 0;
+        varStart = new int[vars + 1];
+        for (int i = 0; i < n; i++)
+            if (Op.hasDst(code.op(i)) && code.isVariable(code.dst(i))) {
+                defId[i] = count++;
+                varStart[code.dst(i) + 1]++;
+            }
+        defInstr = new int[count];
+        for (int v = 0; v < vars; v++)
+            varStart[v + 1] += varStart[v];
+        varDefs = new int[count];
+        int[] fill = Arrays.copyOf(varStart, vars);
+        for (int i = 0; i < n; i++)
+            if (defId[i] != Tac.NONE) {
+                defInstr[defId[i]] = i;
+                varDefs[fill[code.dst(i)]++] = defId[i];
+            }
+
+        flow = new Dataflow(cfg, count, true, true);
+        int[] lastDef = new int[vars];              // última definição de v no bloco corrente
+        int[] stamp = new int[vars];
+        Arrays.fill(stamp, Tac.NONE);
+        for (int b = 0; b < cfg.blocks(); b++)
+            for (int i = cfg.start(b); i < cfg.end(b); i++) {
+                int k = defId[i];
+                if (k == Tac.NONE)
+                    continue;
+                int v = code.dst(i);
+                if (stamp[v] != b) {
+                    stamp[v] = b;
+                    for (int j = varStart[v]; j < varStart[v + 1]; j++)
+                        flow.kill(b, varDefs[j]);
+                } else {
+                    flow.clearGen(b, lastDef[v]);
+                }
+                lastDef[v] = k;
+                flow.gen(b, k);
+            }
+        flow.solve();
+    }
+
+    public Dataflow flow()                  { return flow; }
+    public int definitions()                { return defInstr.length; }
+
+    /** Instrução da definição k. */
+    public int definition(int k)            { return defInstr[k]; }
+
+    /** Definição (bit) feita pela instrução i, ou Tac.NONE se ela não entra no fluxo. */
+    public int definitionAt(int i)          { return defId[i]; }
+
+    /**
+     * Instruções que definem o slot v e alcançam a instrução i (antes dela
+     * executar). Para um temporário, só a definição no bloco de i é
+     * conhecida; sem ela, IllegalArgumentException.
+     */
+    public int[] reaching(int i, int v) {
+        int b = cfg.blockOf(i);
+        int last = Tac.NONE;
+        for (int j = cfg.start(b); j < i; j++)
+            if (Op.hasDst(code.op(j)) && code.dst(j) == v)
+                last = j;
+        if (last != Tac.NONE)
+            return new int[] { last };              // a do próprio bloco esconde as outras
+        if (!code.isVariable(v))
+            throw new IllegalArgumentException("temporário sem definição no bloco: " + v);
+        int[] out = new int[varStart[v + 1] - varStart[v]];
+        int count = 0;
+        for (int j = varStart[v]; j < varStart[v + 1]; j++)
+            if (flow.isSetBefore(b, varDefs[j]))
+                out[count++] = defInstr[varDefs[j]];
+        return Arrays.copyOf(out, count);
+    }
+}
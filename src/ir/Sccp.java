@@ -0,0 +1,343 @@
+package ir;
+
+import java.util.Arrays;
+
+import parser.Type;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  Sccp  –  propagação de constantes condicional esparsa (Wegman-Zadeck)
+ *
+ *  Cada slot da Ssa tem um valor no reticulado TOP (ainda sem
+ *  definição executada) < constante < BOTTOM (varia). Duas listas de
+ *  trabalho: arestas do Cfg que passaram a executar e slots cujo valor
+ *  subiu. Um phi só junta os argumentos das arestas que executam, então
+ *  um laço ou um ramo que nunca roda não estraga a constante.
+ *
+ *  apply() grava o resultado na Ssa: definições constantes viram CONST,
+ *  desvios de condição constante viram salto incondicional (ou somem) e
+ *  blocos que nunca executam saem do código. Os valores seguem a
+ *  semântica da execução: inteiros com estouro em 32 bits, FLOAT em
+ *  float, divisão inteira por zero nunca é avaliada (fica BOTTOM).
+ *  ---------------------------------------------------------------- */
+public final class Sccp {
+
+    private static final byte TOP = 0, CONST = 1, BOTTOM = 2;
+
+    private final Ssa ssa;
+    private final Tac code;
+    private final Cfg cfg;
+
+    private byte[] state;
+    private int[] value;                // bits do valor (FLOAT em floatToRawIntBits)
+    private int[] useStart, uses;       // usos de cada slot: instrução i ou phi ~p
+    private boolean[] edgeExec;         // aresta 2 * b + k (ver Cfg.succ)
+    private boolean[] blockExec;
+
+    private int[] edgeWork = new int[16], slotWork = new int[16];
+    private int edgeTop, slotTop;
+
+    private int constants, branches, unreachable;
+
+    public Sccp(Ssa ssa) {
+        this.ssa = ssa;
+        this.code = ssa.code();
+        this.cfg = ssa.cfg();
+    }
+
+    /** Definições (instruções e phis) que passaram a ser constantes. */
+    public int constants()              { return constants; }
+
+    /** Desvios condicionais resolvidos em tempo de compilação. */
+    public int branches()               { return branches; }
+
+    /** Blocos que nunca executam. */
+    public int unreachable()            { return unreachable; }
+
+    public void run() {
+        analyze();
+        apply();
+    }
+
+    /* ----------------------------------------------------------
+     *  Análise
+     * ---------------------------------------------------------- */
+    private void analyze() {
+        int slots = code.slots(), blocks = cfg.blocks();
+        state = new byte[slots];
+        value = new int[slots];
+        edgeExec = new boolean[2 * blocks];
+        blockExec = new boolean[blocks];
+        for (int v = 0; v < code.variables(); v++)
+            state[v] = BOTTOM;                           // valor de entrada: desconhecido
+        buildUses();
+
+        visitBlock(0);
+        while (edgeTop > 0 || slotTop > 0) {
+            while (edgeTop > 0) {
+                int e = edgeWork[--edgeTop];
+                int t = cfg.succ(e >> 1, e & 1);
+                if (blockExec[t]) {
+                    for (int p = ssa.firstPhi(t); p < ssa.endPhi(t); p++)
+                        visitPhi(p);
+                } else {
+                    visitBlock(t);
+                }
+            }
+            while (slotTop > 0) {
+                int s = slotWork[--slotTop];
+                for (int u = useStart[s]; u < useStart[s + 1]; u++) {
+                    int i = uses[u];
+                    if (i < 0) {
+                        if (blockExec[ssa.phiBlock(~i)])
+                            visitPhi(~i);
+                    } else if (blockExec[cfg.blockOf(i)]) {
+                        visitInstr(i);
+                    }
+                }
+            }
+        }
+    }
+
+    private void buildUses() {
+        int slots = code.slots(), n = code.size();
+        useStart = new int[slots + 1];
+        for (int i = 0; i < n; i++) {
+            int k = Op.uses(code.op(i));
+            if (k >= 1)
+                useStart[code.src1(i) + 1]++;
+            if (k == 2)
+                useStart[code.src2(i) + 1]++;
+        }
+        for (int p = 0; p < ssa.phis(); p++)
+            for (int k = 0; k < cfg.predCount(ssa.phiBlock(p)); k++)
+                if (ssa.arg(p, k) != Ssa.NONE)
+                    useStart[ssa.arg(p, k) + 1]++;
+        for (int s = 0; s < slots; s++)
+            useStart[s + 1] += useStart[s];
+        uses = new int[useStart[slots]];
+        int[] fill = Arrays.copyOf(useStart, slots);
+        for (int i = 0; i < n; i++) {
+            int k = Op.uses(code.op(i));
+            if (k >= 1)
+                uses[fill[code.src1(i)]++] = i;
+            if (k == 2)
+                uses[fill[code.src2(i)]++] = i;
+        }
+        for (int p = 0; p < ssa.phis(); p++)
+            for (int k = 0; k < cfg.predCount(ssa.phiBlock(p)); k++)
+                if (ssa.arg(p, k) != Ssa.NONE)
+                    uses[fill[ssa.arg(p, k)]++] = ~p;
+    }
+
+    private void visitBlock(int b) {
+        blockExec[b] = true;
+        for (int p = ssa.firstPhi(b); p < ssa.endPhi(b); p++)
+            visitPhi(p);
+        for (int i = cfg.start(b); i < cfg.end(b); i++)
+            visitInstr(i);
+        if (!Op.isTerminator(code.op(cfg.last(b))))
+            edge(b, cfg.blockOf(cfg.end(b)));            // queda para o bloco seguinte
+    }
+
+    private void edge(int b, int t) {
+        int e = 2 * b + (cfg.succ(b, 0) == t ? 0 : 1);
+        if (edgeExec[e])
+            return;
+        edgeExec[e] = true;
+        if (edgeTop == edgeWork.length)
+            edgeWork = Arrays.copyOf(edgeWork, 2 * edgeTop);
+        edgeWork[edgeTop++] = e;
+    }
+
+    private boolean isExecutable(int b, int t) {
+        return cfg.succ(b, 0) == t ? edgeExec[2 * b] : cfg.succ(b, 1) == t && edgeExec[2 * b + 1];
+    }
+
+    private void visitPhi(int p) {
+        int b = ssa.phiBlock(p), d = ssa.phiDst(p);
+        if (b == 0) {                                    // também recebe o valor de entrada
+            lower(d, BOTTOM, 0);
+            return;
+        }
+        byte st = TOP;
+        int val = 0;
+        for (int k = 0; k < cfg.predCount(b) && st != BOTTOM; k++) {
+            int a = ssa.arg(p, k);
+            if (a == Ssa.NONE || !isExecutable(cfg.pred(b, k), b) || state[a] == TOP)
+                continue;
+            if (state[a] == BOTTOM || (st == CONST && value[a] != val)) {
+                st = BOTTOM;
+            } else {
+                st = CONST;
+                val = value[a];
+            }
+        }
+        lower(d, st, val);
+    }
+
+    private void visitInstr(int i) {
+        int o = code.op(i), b = cfg.blockOf(i);
+        switch (o) {
+            case Op.JUMP:
+                edge(b, cfg.blockOf(code.target(i)));
+                return;
+            case Op.JUMP_FALSE: {
+                int c = code.src1(i);
+                if (state[c] == TOP)
+                    return;
+                if (state[c] == BOTTOM || value[c] != 0)
+                    edge(b, cfg.blockOf(i + 1));
+                if (state[c] == BOTTOM || value[c] == 0)
+                    edge(b, cfg.blockOf(code.target(i)));
+                return;
+            }
+            case Op.WRITE: case Op.WRITE_STR: case Op.HALT:
+                return;
+            case Op.READ:
+                lower(code.dst(i), BOTTOM, 0);
+                return;
+            default:
+                evaluate(i, o);
+        }
+    }
+
+    private void evaluate(int i, int o) {
+        int d = code.dst(i);
+        if (o == Op.CONST) {
+            lower(d, CONST, code.intValue(i));
+            return;
+        }
+        int a = code.src1(i), b = Op.uses(o) == 2 ? code.src2(i) : a;
+
+        /* && e || com um lado constante decidem sem o outro */
+        if (o == Op.AND || o == Op.OR) {
+            int absorbing = o == Op.AND ? 0 : 1;
+            if ((state[a] == CONST && (value[a] != 0 ? 1 : 0) == absorbing)
+                    || (state[b] == CONST && (value[b] != 0 ? 1 : 0) == absorbing)) {
+                lower(d, CONST, absorbing);
+                return;
+            }
+        }
+        if (state[a] == TOP || state[b] == TOP)
+            return;
+        if (state[a] == BOTTOM || state[b] == BOTTOM) {
+            lower(d, BOTTOM, 0);
+            return;
+        }
+        int x = value[a], y = value[b];
+        Type t = code.type(i);
+        switch (o) {
+            case Op.COPY: case Op.C2I:
+                lower(d, CONST, x);
+                return;
+            case Op.I2F:
+                lower(d, CONST, Float.floatToRawIntBits((float) x));
+                return;
+            case Op.NEG:
+                if (t == Type.FLOAT)
+                    lower(d, CONST, Float.floatToRawIntBits(-Float.intBitsToFloat(x)));
+                else if (t == Type.INT)
+                    lower(d, CONST, -x);
+                else
+                    lower(d, BOTTOM, 0);
+                return;
+            case Op.NOT:
+                lower(d, CONST, x == 0 ? 1 : 0);
+                return;
+            case Op.AND:
+                lower(d, CONST, x != 0 && y != 0 ? 1 : 0);
+                return;
+            case Op.OR:
+                lower(d, CONST, x != 0 || y != 0 ? 1 : 0);
+                return;
+            default:
+                break;
+        }
+        if (Op.isComparison(o)) {
+            boolean r = t == Type.FLOAT
+                    ? compare(o, Float.intBitsToFloat(x), Float.intBitsToFloat(y))
+                    : compare(o, x, y);
+            lower(d, CONST, r ? 1 : 0);
+        } else if (t == Type.FLOAT) {
+            float fx = Float.intBitsToFloat(x), fy = Float.intBitsToFloat(y);
+            float r = o == Op.ADD ? fx + fy : o == Op.SUB ? fx - fy : o == Op.MUL ? fx * fy : fx / fy;
+            lower(d, CONST, Float.floatToRawIntBits(r));
+        } else if (t == Type.INT && (o != Op.DIV || y != 0)) {
+            lower(d, CONST, o == Op.ADD ? x + y : o == Op.SUB ? x - y : o == Op.MUL ? x * y : x / y);
+        } else {
+            lower(d, BOTTOM, 0);
+        }
+    }
+
+    /* o valor de um slot só desce no reticulado */
+    private void lower(int s, byte st, int val) {
+        if (st <= state[s] && !(st == CONST && state[s] == CONST && val != value[s]))
+            return;
+        if (st == CONST && state[s] == CONST)
+            st = BOTTOM;                                 // duas constantes diferentes
+        state[s] = st;
+        value[s] = val;
+        if (slotTop == slotWork.length)
+            slotWork = Arrays.copyOf(slotWork, 2 * slotTop);
+        slotWork[slotTop++] = s;
+    }
+
+    private static boolean compare(int o, float a, float b) {
+        switch (o) {
+            case Op.EQ: return a == b;
+            case Op.NE: return a != b;
+            case Op.LT: return a < b;
+            case Op.LE: return a <= b;
+            case Op.GT: return a > b;
+            default:    return a >= b;
+        }
+    }
+
+    private static boolean compare(int o, int a, int b) {
+        switch (o) {
+            case Op.EQ: return a == b;
+            case Op.NE: return a != b;
+            case Op.LT: return a < b;
+            case Op.LE: return a <= b;
+            case Op.GT: return a > b;
+            default:    return a >= b;
+        }
+    }
+
+    /* ----------------------------------------------------------
+     *  Reescrita
+     * ---------------------------------------------------------- */
+    private void apply() {
+        constants = branches = unreachable = 0;
+        for (int b = 0; b < cfg.blocks(); b++) {
+            if (!blockExec[b]) {
+                if (ssa.isReachable(b)) {
+                    ssa.setUnreachable(b);
+                    unreachable++;
+                }
+                for (int p = ssa.firstPhi(b); p < ssa.endPhi(b); p++)
+                    ssa.removePhi(p);
+                continue;
+            }
+            for (int p = ssa.firstPhi(b); p < ssa.endPhi(b); p++)
+                if (state[ssa.phiDst(p)] == CONST) {
+                    ssa.setPhiConstant(p, value[ssa.phiDst(p)]);
+                    constants++;
+                }
+            for (int i = cfg.start(b); i < cfg.end(b); i++) {
+                int o = code.op(i);
+                if (Op.hasDst(o) && o != Op.CONST && state[code.dst(i)] == CONST) {
+                    int d = code.dst(i);
+                    code.set(i, Op.CONST, code.slotType(d), d, value[d], Tac.NONE);
+                    constants++;
+                } else if (o == Op.JUMP_FALSE && state[code.src1(i)] == CONST) {
+                    if (value[code.src1(i)] != 0)
+                        ssa.remove(i);                   // sempre cai no bloco seguinte
+                    else
+                        code.set(i, Op.JUMP, null, Tac.NONE, code.target(i), Tac.NONE);
+                    branches++;
+                }
+            }
+        }
+    }
+}
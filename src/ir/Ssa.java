@@ -0,0 +1,538 @@
+package ir;
+
+import java.util.Arrays;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  Ssa  –  forma SSA sobre o Cfg de um Tac
+ *
+ *  Construção clássica (Cytron et al.): phis nas fronteiras de
+ *  dominância iteradas dos blocos que definem cada variável e
+ *  renomeação numa travessia da árvore de dominância. Cada versão é um
+ *  slot novo do próprio Tac, com o tipo da variável; o slot original da
+ *  variável passa a ser só o valor de entrada (antes de qualquer
+ *  atribuição). Os escopos aninhados que o Parser abre em if/while/
+ *  repeat já viraram variáveis distintas na Ast (uma por declaração),
+ *  então uma variável que esconde outra é renomeada à parte.
+ *  Temporários já são escritos uma única vez e não são renomeados.
+ *
+ *  As instruções são renomeadas no próprio Tac. Sccp, CopyPropagation
+ *  e DeadCode marcam o que sai (instruções, phis, blocos inalcançáveis) e toTac() gera o
+ *  código final sem phis, com cópias nos predecessores.
+ *  ---------------------------------------------------------------- */
+public final class Ssa {
+
+    public static final int NONE = -1;
+
+    private final Tac code;
+    private final Cfg cfg;
+    private final Dominators dom;
+    private final int variables;
+
+    /*
+     * Phi p: no bloco phiBlock[p], para a variável phiVar[p], define
+     * phiDst[p]; o argumento vindo do k-ésimo predecessor do bloco (na
+     * ordem de Cfg.pred) é args[argStart[p] + k]. Os phis de um bloco b
+     * são [blockPhi[b], blockPhi[b + 1]).
+     */
+    private final int phis;
+    private final int[] phiBlock, phiVar, phiDst, argStart, args;
+    private final int[] blockPhi;
+
+    /* variável de origem de cada versão (NONE para temporários) e definições */
+    private int[] base;
+    private int[] defInstr, defPhi;
+
+    /* marcas dos otimizadores */
+    private final boolean[] removed, phiRemoved, phiConst;
+    private final int[] phiValue;
+    private final boolean[] reachable;
+
+    /* toTac(): usos restantes de cada slot e onde sua definição foi parar em out */
+    private int[] useCount, outDef;
+
+    /** Constrói a SSA de code (renomeado no lugar: o Tac passa a pertencer à Ssa). */
+    public Ssa(Tac code) {
+        this.code = code;
+        this.cfg = new Cfg(code);
+        this.dom = new Dominators(cfg);
+        this.variables = code.variables();
+        int blocks = cfg.blocks(), n = code.size();
+
+        /* ----- blocos que definem cada variável (formato compacto) ----- */
+        int[] defStart = new int[variables + 1];
+        for (int i = 0; i < n; i++)
+            if (Op.hasDst(code.op(i)) && code.dst(i) < variables)
+                defStart[code.dst(i) + 1]++;
+        for (int v = 0; v < variables; v++)
+            defStart[v + 1] += defStart[v];
+        int[] defBlocks = new int[defStart[variables]];
+        int[] fill = Arrays.copyOf(defStart, variables);
+        for (int i = 0; i < n; i++)
+            if (Op.hasDst(code.op(i)) && code.dst(i) < variables)
+                defBlocks[fill[code.dst(i)]++] = cfg.blockOf(i);
+
+        /* ----- phis: fronteira de dominância iterada (a entrada também define) ----- */
+        int[] pBlock = new int[16], pVar = new int[16];
+        int count = 0;
+        int[] hasPhi = new int[blocks], queued = new int[blocks];
+        Arrays.fill(hasPhi, NONE);
+        Arrays.fill(queued, NONE);
+        int[] work = new int[blocks + 1];
+        for (int v = 0; v < variables; v++) {
+            int top = 0;
+            work[top++] = 0;
+            queued[0] = v;
+            for (int j = defStart[v]; j < defStart[v + 1]; j++) {
+                int b = defBlocks[j];
+                if (queued[b] != v && dom.isReachable(b)) {
+                    queued[b] = v;
+                    work[top++] = b;
+                }
+            }
+            while (top > 0) {
+                int b = work[--top];
+                for (int k = 0; k < dom.frontierSize(b); k++) {
+                    int f = dom.frontier(b, k);
+                    if (hasPhi[f] == v)
+                        continue;
+                    hasPhi[f] = v;
+                    if (count == pBlock.length) {
+                        pBlock = Arrays.copyOf(pBlock, 2 * count);
+                        pVar = Arrays.copyOf(pVar, 2 * count);
+                    }
+                    pBlock[count] = f;
+                    pVar[count++] = v;
+                    if (queued[f] != v) {
+                        queued[f] = v;
+                        work[top++] = f;
+                    }
+                }
+            }
+        }
+
+        /* ----- ordena os phis por bloco (contagem) ----- */
+        phis = count;
+        blockPhi = new int[blocks + 1];
+        for (int p = 0; p < count; p++)
+            blockPhi[pBlock[p] + 1]++;
+        for (int b = 0; b < blocks; b++)
+            blockPhi[b + 1] += blockPhi[b];
+        phiBlock = new int[count];
+        phiVar = new int[count];
+        phiDst = new int[count];
+        argStart = new int[count + 1];
+        fill = Arrays.copyOf(blockPhi, blocks);
+        for (int p = 0; p < count; p++) {
+            int q = fill[pBlock[p]]++;
+            phiBlock[q] = pBlock[p];
+            phiVar[q] = pVar[p];
+        }
+        for (int p = 0; p < count; p++)
+            argStart[p + 1] = argStart[p] + cfg.predCount(phiBlock[p]);
+        args = new int[argStart[count]];
+        Arrays.fill(args, NONE);
+
+        rename();
+
+        removed = new boolean[n];
+        phiRemoved = new boolean[count];
+        phiConst = new boolean[count];
+        phiValue = new int[count];
+        reachable = new boolean[blocks];
+        for (int b = 0; b < blocks; b++)
+            reachable[b] = dom.isReachable(b);
+        computeDefs();
+    }
+
+    /* ----------------------------------------------------------
+     *  Renomeação: pré-ordem da árvore de dominância com pilha
+     *  explícita; cur[v] é a versão corrente e o log desfaz as
+     *  versões criadas num bloco quando a travessia sai dele
+     *  (como Parser.leaveScope com bPrev)
+     * ---------------------------------------------------------- */
+    private void rename() {
+        int blocks = cfg.blocks();
+        int[] cur = new int[variables];
+        for (int v = 0; v < variables; v++)
+            cur[v] = v;
+        base = new int[code.slots() + 16];
+        Arrays.fill(base, NONE);
+        for (int v = 0; v < variables; v++)
+            base[v] = v;
+
+        int[] logVar = new int[64], logOld = new int[64];
+        int logTop = 0;
+        int[] mark = new int[blocks];
+        int[] stack = new int[2 * blocks + 2];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int b = stack[--top];
+            if (b < 0) {                                 // saída de ~b: desfaz
+                int m = mark[~b];
+                while (logTop > m) {
+                    logTop--;
+                    cur[logVar[logTop]] = logOld[logTop];
+                }
+                continue;
+            }
+            mark[b] = logTop;
+            stack[top++] = ~b;
+
+            for (int p = blockPhi[b]; p < blockPhi[b + 1]; p++) {
+                int v = phiVar[p];
+                if (logTop == logVar.length) {
+                    logVar = Arrays.copyOf(logVar, 2 * logTop);
+                    logOld = Arrays.copyOf(logOld, 2 * logTop);
+                }
+                logVar[logTop] = v;
+                logOld[logTop++] = cur[v];
+                cur[v] = phiDst[p] = version(v);
+            }
+            for (int i = cfg.start(b); i < cfg.end(b); i++) {
+                int o = code.op(i), uses = Op.uses(o);
+                if (uses >= 1 && code.src1(i) < variables)
+                    code.setSrc1(i, cur[code.src1(i)]);
+                if (uses == 2 && code.src2(i) < variables)
+                    code.setSrc2(i, cur[code.src2(i)]);
+                if (Op.hasDst(o) && code.dst(i) < variables) {
+                    int v = code.dst(i);
+                    if (logTop == logVar.length) {
+                        logVar = Arrays.copyOf(logVar, 2 * logTop);
+                        logOld = Arrays.copyOf(logOld, 2 * logTop);
+                    }
+                    logVar[logTop] = v;
+                    logOld[logTop++] = cur[v];
+                    cur[v] = version(v);
+                    code.setDst(i, cur[v]);
+                }
+            }
+            for (int k = 0; k < 2; k++) {
+                int s = cfg.succ(b, k);
+                if (s == Cfg.NONE)
+                    continue;
+                int j = predIndex(s, b);
+                for (int p = blockPhi[s]; p < blockPhi[s + 1]; p++)
+                    args[argStart[p] + j] = cur[phiVar[p]];
+            }
+            for (int c = dom.childCount(b) - 1; c >= 0; c--)
+                stack[top++] = dom.child(b, c);
+        }
+    }
+
+    private int version(int v) {
+        int s = code.newSlot(code.slotType(v));
+        if (s >= base.length) {
+            int old = base.length;
+            base = Arrays.copyOf(base, 2 * s);
+            Arrays.fill(base, old, base.length, NONE);
+        }
+        base[s] = v;
+        return s;
+    }
+
+    /** Posição de pred entre os predecessores de b. */
+    int predIndex(int b, int pred) {
+        for (int k = 0; k < cfg.predCount(b); k++)
+            if (cfg.pred(b, k) == pred)
+                return k;
+        throw new IllegalStateException("B" + pred + " não é predecessor de B" + b);
+    }
+
+    private void computeDefs() {
+        defInstr = new int[code.slots()];
+        defPhi = new int[code.slots()];
+        Arrays.fill(defInstr, NONE);
+        Arrays.fill(defPhi, NONE);
+        for (int i = 0; i < code.size(); i++)
+            if (Op.hasDst(code.op(i)))
+                defInstr[code.dst(i)] = i;
+        for (int p = 0; p < phis; p++)
+            defPhi[phiDst[p]] = p;
+    }
+
+    /* ----------------------------------------------------------
+     *  Leitura
+     * ---------------------------------------------------------- */
+    public Tac code()                   { return code; }
+    public Cfg cfg()                    { return cfg; }
+    public Dominators dominators()      { return dom; }
+
+    public int phis()                   { return phis; }
+    public int phiBlock(int p)          { return phiBlock[p]; }
+    public int phiVar(int p)            { return phiVar[p]; }
+    public int phiDst(int p)            { return phiDst[p]; }
+    public int firstPhi(int b)          { return blockPhi[b]; }
+    public int endPhi(int b)            { return blockPhi[b + 1]; }
+
+    /** Argumento do phi p vindo do k-ésimo predecessor do bloco. */
+    public int arg(int p, int k)        { return args[argStart[p] + k]; }
+
+    /** Instrução que define o slot s, ou NONE (phi, valor de entrada). */
+    public int defInstr(int s)          { return defInstr[s]; }
+
+    /** Phi que define o slot s, ou NONE. */
+    public int defPhi(int s)            { return defPhi[s]; }
+
+    /** true para o valor de entrada de uma variável (lida antes de ser atribuída). */
+    public boolean isEntryValue(int s)  { return s < variables; }
+
+    public boolean isRemoved(int i)     { return removed[i]; }
+    public boolean isPhiRemoved(int p)  { return phiRemoved[p]; }
+    public boolean isPhiConstant(int p) { return phiConst[p]; }
+    public boolean isReachable(int b)   { return reachable[b]; }
+
+    /* ----- marcas (Sccp, DeadCode) ----- */
+    void remove(int i)                  { removed[i] = true; }
+    void removePhi(int p)               { phiRemoved[p] = true; }
+    void setUnreachable(int b)          { reachable[b] = false; }
+    void setArg(int p, int k, int s)    { args[argStart[p] + k] = s; }
+
+    /** O phi p vale sempre a constante de bits value: vira um CONST no início do bloco. */
+    void setPhiConstant(int p, int value) {
+        phiConst[p] = true;
+        phiValue[p] = value;
+    }
+
+    /* ==========================================================
+     *  Saída da SSA: código sem phis, só com os blocos alcançáveis
+     *  e as instruções que restaram. Cada phi vira cópias no fim dos
+     *  predecessores; num predecessor com dois sucessores as cópias da
+     *  queda vêm logo após o desvio e as do alvo, antes dele, ou, se o
+     *  alvo é o cabeçalho de um laço que contém o desvio, num bloco novo
+     *  no fim, que salta para o destino. Uma cópia cujo argumento acabou
+     *  de ser calculado só para ela some: a instrução escreve no phi.
+     * ========================================================== */
+    public Tac toTac() {
+        Tac out = new Tac(code.ast(), code.joins());
+        for (int s = variables; s < code.slots(); s++)
+            out.newSlot(code.slotType(s));
+        int blocks = cfg.blocks();
+        int[] newStart = new int[blocks];
+        int[] jumps = new int[16], jumpTo = new int[16];
+        int jumpCount = 0;
+        int[] edgeFrom = new int[8], edgeTo = new int[8], edgeJump = new int[8];
+        int edgeCount = 0;
+        countUses();
+
+        for (int b = 0; b < blocks; b++) {
+            if (!reachable[b])
+                continue;
+            int from = newStart[b] = out.size();
+            long p = code.position(cfg.start(b));
+            for (int q = blockPhi[b]; q < blockPhi[b + 1]; q++)
+                if (!phiRemoved[q] && phiConst[q])
+                    out.emit(Op.CONST, code.slotType(phiDst[q]), phiDst[q], phiValue[q], Tac.NONE, p);
+
+            int last = cfg.last(b);
+            for (int i = cfg.start(b); i < last; i++)
+                if (!removed[i])
+                    copy(out, i);
+
+            int o = removed[last] ? NONE : code.op(last);
+            if (o == Op.JUMP) {                           // também um JUMP_FALSE de condição falsa
+                copies(out, b, cfg.blockOf(code.target(last)), from, p);
+                if (jumpCount == jumps.length) {
+                    jumps = Arrays.copyOf(jumps, 2 * jumpCount);
+                    jumpTo = Arrays.copyOf(jumpTo, 2 * jumpCount);
+                }
+                jumps[jumpCount] = copy(out, last);
+                jumpTo[jumpCount++] = cfg.blockOf(code.target(last));
+            } else if (o == Op.JUMP_FALSE) {
+                int fall = cfg.succ(b, 0), target = cfg.blockOf(code.target(last));
+                boolean split = false;
+                if (fall == target) {                    // os dois caminhos vão ao mesmo bloco
+                    copies(out, b, fall, from, p);
+                    fall = NONE;
+                } else if (!dom.dominates(target, b)) {
+                    /* os phis do alvo só são lidos depois dele: fora de um laço
+                       do próprio alvo, escrevê-los antes do desvio não atrapalha
+                       o caminho da queda */
+                    copies(out, b, target, from, p);
+                } else {
+                    split = needsCopies(b, target);
+                }
+                int j = copy(out, last);
+                if (jumpCount == jumps.length) {
+                    jumps = Arrays.copyOf(jumps, 2 * jumpCount);
+                    jumpTo = Arrays.copyOf(jumpTo, 2 * jumpCount);
+                }
+                jumps[jumpCount] = j;
+                jumpTo[jumpCount++] = target;
+                if (fall != NONE) {
+                    copies(out, b, fall, NONE, p);
+                    if (split) {
+                        if (edgeCount == edgeFrom.length) {
+                            edgeFrom = Arrays.copyOf(edgeFrom, 2 * edgeCount);
+                            edgeTo = Arrays.copyOf(edgeTo, 2 * edgeCount);
+                            edgeJump = Arrays.copyOf(edgeJump, 2 * edgeCount);
+                        }
+                        edgeFrom[edgeCount] = b;
+                        edgeTo[edgeCount] = target;
+                        edgeJump[edgeCount++] = jumpCount - 1;
+                    }
+                }
+            } else {
+                if (o != NONE)
+                    copy(out, last);
+                if (o != Op.HALT) {
+                    /* queda: o único sucessor que ainda executa */
+                    int s = cfg.succ(b, 0);
+                    if (s != Cfg.NONE && reachable[s])
+                        copies(out, b, s, from, p);
+                }
+            }
+        }
+
+        /* blocos das arestas críticas: cópias + salto ao destino */
+        for (int e = 0; e < edgeCount; e++) {
+            long p = code.position(cfg.last(edgeFrom[e]));
+            int start = out.size();
+            copies(out, edgeFrom[e], edgeTo[e], NONE, p);
+            if (jumpCount == jumps.length) {
+                jumps = Arrays.copyOf(jumps, 2 * jumpCount);
+                jumpTo = Arrays.copyOf(jumpTo, 2 * jumpCount);
+            }
+            jumps[jumpCount] = out.emit(Op.JUMP, null, Tac.NONE, Tac.NONE, Tac.NONE, p);
+            jumpTo[jumpCount++] = edgeTo[e];
+            jumpTo[edgeJump[e]] = ~start;               // já é índice de instrução
+        }
+        for (int j = 0; j < jumpCount; j++)
+            out.setTarget(jumps[j], jumpTo[j] < 0 ? ~jumpTo[j] : newStart[jumpTo[j]]);
+        return out;
+    }
+
+    private int copy(Tac out, int i) {
+        int j = out.emit(code.op(i), code.type(i), code.dst(i), code.src1(i), code.src2(i), code.position(i));
+        if (Op.hasDst(code.op(i)))
+            outDef[code.dst(i)] = j;
+        return j;
+    }
+
+    /* usos de cada slot no código que sobra (instruções e argumentos de phis) */
+    private void countUses() {
+        useCount = new int[code.slots()];
+        outDef = new int[code.slots()];
+        Arrays.fill(outDef, NONE);
+        for (int b = 0; b < cfg.blocks(); b++) {
+            if (!reachable[b])
+                continue;
+            for (int i = cfg.start(b); i < cfg.end(b); i++) {
+                int k = removed[i] ? 0 : Op.uses(code.op(i));
+                if (k >= 1)
+                    useCount[code.src1(i)]++;
+                if (k == 2)
+                    useCount[code.src2(i)]++;
+            }
+            for (int q = blockPhi[b]; q < blockPhi[b + 1]; q++)
+                if (!phiRemoved[q] && !phiConst[q])
+                    for (int k = 0; k < cfg.predCount(b); k++)
+                        if (reachable[cfg.pred(b, k)])
+                            useCount[args[argStart[q] + k]]++;
+        }
+    }
+
+    /*
+     * A cópia d = a pode sumir se a só serve a ela e foi definido no mesmo
+     * bloco (a partir de from em out), sem que nada depois leia ou escreva
+     * d: a definição passa a escrever direto em d.
+     */
+    private boolean merge(Tac out, int d, int a, int from) {
+        int j = a < outDef.length ? outDef[a] : NONE;
+        if (from == NONE || j < from || useCount[a] != 1 || out.slotType(a) != out.slotType(d))
+            return false;
+        for (int i = j + 1; i < out.size(); i++) {
+            int o = out.op(i), k = Op.uses(o);
+            if ((k >= 1 && out.src1(i) == d) || (k == 2 && out.src2(i) == d) || (Op.hasDst(o) && out.dst(i) == d))
+                return false;
+        }
+        out.setDst(j, d);
+        return true;
+    }
+
+    private boolean needsCopies(int b, int s) {
+        if (!reachable[s])
+            return false;
+        int k = predIndex(s, b);
+        for (int q = blockPhi[s]; q < blockPhi[s + 1]; q++)
+            if (!phiRemoved[q] && !phiConst[q] && args[argStart[q] + k] != phiDst[q])
+                return true;
+        return false;
+    }
+
+    /*
+     * Os phis de s leem todos os argumentos antes de escrever: as cópias
+     * da aresta são paralelas. Sai primeiro a cópia cujo destino nenhuma
+     * outra pendente ainda lê; num ciclo (a = b, b = a) um temporário
+     * guarda o valor antigo de um dos destinos.
+     */
+    private void copies(Tac out, int b, int s, int from, long p) {
+        if (!needsCopies(b, s))
+            return;
+        int k = predIndex(s, b);
+        int n = 0;
+        int[] dst = new int[blockPhi[s + 1] - blockPhi[s]], src = new int[dst.length];
+        for (int q = blockPhi[s]; q < blockPhi[s + 1]; q++) {
+            int a = args[argStart[q] + k];
+            if (!phiRemoved[q] && !phiConst[q] && a != phiDst[q]) {
+                dst[n] = phiDst[q];
+                src[n++] = a;
+            }
+        }
+        while (n > 0) {
+            int ready = NONE;
+            for (int c = 0; c < n && ready == NONE; c++) {
+                ready = c;
+                for (int e = 0; e < n; e++)
+                    if (src[e] == dst[c] && e != c) {
+                        ready = NONE;
+                        break;
+                    }
+            }
+            if (ready == NONE) {                         // só ciclos: libera dst[0]
+                int t = out.newSlot(code.slotType(dst[0]));
+                out.emit(Op.COPY, out.slotType(t), t, dst[0], Tac.NONE, p);
+                for (int e = 0; e < n; e++)
+                    if (src[e] == dst[0])
+                        src[e] = t;
+                continue;
+            }
+            if (!merge(out, dst[ready], src[ready], from))
+                out.emit(Op.COPY, code.slotType(dst[ready]), dst[ready], src[ready], Tac.NONE, p);
+            dst[ready] = dst[--n];
+            src[ready] = src[n];
+        }
+    }
+
+    /* ----------------------------------------------------------
+     *  Depuração
+     * ---------------------------------------------------------- */
+    /** Nome de um slot: versões como nome#variável.slot, temporários como t<n>. */
+    public String name(int s) {
+        if (s < variables || s >= base.length || base[s] == NONE)
+            return code.slotName(s);
+        return code.slotName(base[s]) + "." + s;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int b = 0; b < cfg.blocks(); b++) {
+            if (!reachable[b])
+                continue;
+            sb.append("B").append(b).append(":  idom B").append(dom.idom(b)).append('\n');
+            for (int p = blockPhi[b]; p < blockPhi[b + 1]; p++) {
+                if (phiRemoved[p])
+                    continue;
+                sb.append("      ").append(name(phiDst[p])).append(" = phi");
+                for (int k = 0; k < cfg.predCount(b); k++)
+                    sb.append(' ').append(name(args[argStart[p] + k]));
+                sb.append('\n');
+            }
+            for (int i = cfg.start(b); i < cfg.end(b); i++)
+                if (!removed[i])
+                    code.append(i, sb.append(String.format("%4d  ", i))).append('\n');
+        }
+        return sb.toString();
+    }
+}
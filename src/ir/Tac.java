@@ -0,0 +1,196 @@
+package ir;
+
+import java.util.Arrays;
+
+import ast.Ast;
+import parser.Type;
+
+// A classe Tac guarda o código de três endereços em vetores paralelos (sem um objeto por instrução)
+public final class Tac {
+
+    /*
+     * Instrução i: op[i] (ver Op), type[i] (ordinal de Type do resultado;
+     * nas comparações e em WRITE, o tipo dos operandos; -1 se não houver),
+     * dst[i], src1[i], src2[i] e pos[i] (ver lexer.Position) do nó de origem.
+     *
+     * Slot s: os primeiros variables() são as variáveis da Ast (mesmo
+     * índice) seguidas de joins() variáveis BOOL de junção, que guardam o
+     * resultado de um && / || avaliado com desvios; os demais são
+     * temporários, cada um escrito uma única vez pela Lowering, e as
+     * versões de variáveis criadas pela Ssa. slotType[s] é o ordinal do tipo.
+     */
+    public static final int NONE = -1;
+
+    private static final Type[] TYPES = Type.values();
+
+    private byte[] op = new byte[1 << 8];
+    private byte[] type = new byte[1 << 8];
+    private int[] dst = new int[1 << 8];
+    private int[] src1 = new int[1 << 8];
+    private int[] src2 = new int[1 << 8];
+    private long[] pos = new long[1 << 8];
+    private int size;
+
+    private byte[] slotType = new byte[1 << 6];
+    private int slots;
+    private final int variables;
+
+    private final Ast ast;
+
+    public Tac(Ast ast) {
+        this(ast, 0);
+    }
+
+    /** Tac com as variáveis da Ast e mais joins variáveis de junção. */
+    public Tac(Ast ast, int joins) {
+        this.ast = ast;
+        variables = ast.variables() + joins;
+        for (int v = 0; v < ast.variables(); v++)
+            newSlot(ast.varType(v));
+        for (int j = 0; j < joins; j++)
+            newSlot(Type.BOOL);
+    }
+
+    /* ----------------------------------------------------------
+     *  Leitura
+     * ---------------------------------------------------------- */
+    public Ast ast()                 { return ast; }
+    public int size()                { return size; }
+    public int op(int i)             { return op[i]; }
+    public int dst(int i)            { return dst[i]; }
+    public int src1(int i)           { return src1[i]; }
+    public int src2(int i)           { return src2[i]; }
+    public long position(int i)      { return pos[i]; }
+
+    public Type type(int i) {
+        return type[i] < 0 ? null : TYPES[type[i]];
+    }
+
+    public int typeOrdinal(int i)    { return type[i]; }
+
+    /** Alvo de um JUMP ou JUMP_FALSE. */
+    public int target(int i) {
+        return op[i] == Op.JUMP ? src1[i] : src2[i];
+    }
+
+    public int slots()               { return slots; }
+    public int variables()           { return variables; }
+    public int joins()               { return variables - ast.variables(); }
+    public boolean isVariable(int s) { return s < variables; }
+    public Type slotType(int s)      { return TYPES[slotType[s]]; }
+
+    /** Valor de uma instrução CONST, no tipo dela. */
+    public int intValue(int i)       { return src1[i]; }
+    public float realValue(int i)    { return Float.intBitsToFloat(src1[i]); }
+
+    /* ----------------------------------------------------------
+     *  Escrita (usada pela Lowering e pelos otimizadores)
+     * ---------------------------------------------------------- */
+    public int newSlot(Type t) {
+        if (slots == slotType.length)
+            slotType = Arrays.copyOf(slotType, 2 * slots);
+        slotType[slots] = (byte) t.ordinal();
+        return slots++;
+    }
+
+    /** Acrescenta uma instrução e devolve seu índice; t == null se não houver tipo. */
+    public int emit(int o, Type t, int d, int a, int b, long p) {
+        if (size == op.length) {
+            int cap = 2 * size;
+            op = Arrays.copyOf(op, cap);
+            type = Arrays.copyOf(type, cap);
+            dst = Arrays.copyOf(dst, cap);
+            src1 = Arrays.copyOf(src1, cap);
+            src2 = Arrays.copyOf(src2, cap);
+            pos = Arrays.copyOf(pos, cap);
+        }
+        op[size] = (byte) o;
+        type[size] = (byte) (t == null ? -1 : t.ordinal());
+        dst[size] = d;
+        src1[size] = a;
+        src2[size] = b;
+        pos[size] = p;
+        return size++;
+    }
+
+    public void setDst(int i, int d) {
+        dst[i] = d;
+    }
+
+    public void setSrc1(int i, int a) {
+        src1[i] = a;
+    }
+
+    public void setSrc2(int i, int b) {
+        src2[i] = b;
+    }
+
+    /** Troca a instrução i inteira (a posição de origem fica). */
+    public void set(int i, int o, Type t, int d, int a, int b) {
+        op[i] = (byte) o;
+        type[i] = (byte) (t == null ? -1 : t.ordinal());
+        dst[i] = d;
+        src1[i] = a;
+        src2[i] = b;
+    }
+
+    /** Corrige o alvo de um desvio já emitido (backpatching). */
+    public void setTarget(int i, int target) {
+        if (op[i] == Op.JUMP)
+            src1[i] = target;
+        else
+            src2[i] = target;
+    }
+
+    /* ----------------------------------------------------------
+     *  Depuração
+     * ---------------------------------------------------------- */
+    /** Nome de um slot: a variável (nome#índice), j<n> para junções ou t<n> para temporários. */
+    public String slotName(int s) {
+        int named = ast.variables();
+        return s < named ? ast.varName(s) + "#" + s
+             : s < variables ? "j" + (s - named) : "t" + (s - variables);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < size; i++)
+            append(i, sb.append(String.format("%4d  ", i))).append('\n');
+        return sb.toString();
+    }
+
+    /** Uma instrução em texto, como "t3 = add t1 t2 : INT". */
+    public StringBuilder append(int i, StringBuilder sb) {
+        int o = op[i];
+        if (Op.hasDst(o))
+            sb.append(slotName(dst[i])).append(" = ");
+        sb.append(Op.name(o));
+        switch (o) {
+            case Op.CONST:
+                Type t = type(i);
+                sb.append(' ').append(t == Type.FLOAT ? String.valueOf(realValue(i))
+                        : t == Type.CHAR ? "'" + (char) src1[i] + "'"
+                        : t == Type.BOOL ? String.valueOf(src1[i] != 0)
+                        : String.valueOf(src1[i]));
+                break;
+            case Op.WRITE_STR:
+                sb.append(" \"").append(ast.literal(src1[i])).append('"');
+                break;
+            case Op.JUMP:
+                sb.append(' ').append(src1[i]);
+                break;
+            case Op.JUMP_FALSE:
+                sb.append(' ').append(slotName(src1[i])).append(' ').append(src2[i]);
+                break;
+            default:
+                if (Op.uses(o) >= 1)
+                    sb.append(' ').append(slotName(src1[i]));
+                if (Op.uses(o) == 2)
+                    sb.append(' ').append(slotName(src2[i]));
+        }
+        if (type[i] >= 0)
+            sb.append(" : ").append(TYPES[type[i]]);
+        return sb;
+    }
+}
@@ -0,0 +1,16 @@
+package lexer;
+
+import java.nio.ByteBuffer;
+
+// A classe ByteBufferSource decodifica um ByteBuffer já completo (fatia de arquivo mapeado, byte[]...)
+final class ByteBufferSource extends Utf8Source {
+
+    ByteBufferSource(ByteBuffer bytes) {
+        in = bytes;
+    }
+
+    @Override
+    boolean refill() {
+        return false;       // todos os bytes já estão em 'in'
+    }
+}
@@ -0,0 +1,33 @@
+package lexer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+// A classe ChannelSource lê um canal em blocos grandes num ByteBuffer direto
+final class ChannelSource extends Utf8Source {
+
+    private static final int BLOCK = 1 << 16;
+
+    private final ReadableByteChannel channel;
+
+    ChannelSource(ReadableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    boolean refill() throws IOException {
+        if (in.capacity() == 0) in = ByteBuffer.allocateDirect(BLOCK).flip();
+        in.compact();                        // guarda bytes não consumidos
+        int r;
+        do r = channel.read(in);
+        while (r == 0 && in.hasRemaining());
+        in.flip();
+        return r > 0;
+    }
+
+    @Override
+    void close() throws IOException {
+        channel.close();
+    }
+}
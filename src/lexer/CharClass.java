@@ -0,0 +1,37 @@
+package lexer;
+
+// A classe CharClass classifica caracteres ASCII por tabela (fora do ASCII usa Character)
+final class CharClass {
+
+    static final byte OTHER = 0, BLANK = 1, LETTER = 2, DIGIT = 3;
+
+    private static final byte[] TABLE = new byte[128];
+
+    static {
+        TABLE[' '] = TABLE['\t'] = TABLE['\r'] = TABLE['\b'] = TABLE['\n'] = BLANK;
+        for (char c = 'a'; c <= 'z'; c++) TABLE[c] = LETTER;
+        for (char c = 'A'; c <= 'Z'; c++) TABLE[c] = LETTER;
+        TABLE['_'] = LETTER;
+        for (char c = '0'; c <= '9'; c++) TABLE[c] = DIGIT;
+    }
+
+    private CharClass() { }
+
+    static boolean isBlank(char c) {
+        return c < 128 && TABLE[c] == BLANK;
+    }
+
+    static boolean isDigit(char c) {
+        return c < 128 ? TABLE[c] == DIGIT : Character.isDigit(c);
+    }
+
+    /** Letra ou '_' (início de identificador). */
+    static boolean isLetter(char c) {
+        return c < 128 ? TABLE[c] == LETTER : Character.isLetter(c);
+    }
+
+    /** Letra, dígito ou '_' (resto do identificador). */
+    static boolean isLetterOrDigit(char c) {
+        return c < 128 ? TABLE[c] >= LETTER : Character.isLetterOrDigit(c);
+    }
+}
@@ -0,0 +1,54 @@
+package lexer;
+
+import java.lang.reflect.Constructor;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  CharScan  –  salto em bloco opcional para skipBlanks/skipUntil
+ *
+ *  A implementação é VectorCharScan (src-vector/lexer), que usa
+ *  jdk.incubator.vector e por isso fica fora de src: compila com
+ *    javac --add-modules jdk.incubator.vector -cp <saída> -d <saída> \
+ *          src-vector/lexer/VectorCharScan.java
+ *  e só é usada se o programa rodar com --add-modules jdk.incubator.vector.
+ *  Sem a classe ou sem o módulo, create() devolve null e o Lexer fica só
+ *  com o seu laço escalar. -Dlexer.vector=false também desliga.
+ *  ---------------------------------------------------------------- */
+abstract class CharScan {
+
+    /** stop de skip() que para no primeiro caractere que não é branco. */
+    static final char BLANKS = 0;
+
+    /** '\n' no trecho percorrido pela última chamada a skip(), e o índice do último (-1 se nenhum). */
+    int lines, lastLine;
+
+    /**
+     * Primeiro i em [from, to) em que b[i] não é ASCII ou é stop (com
+     * stop == BLANKS: não é branco, como CharClass.isBlank); to se não
+     * houver, e from se to <= from.
+     */
+    abstract int skip(char[] b, int from, int to, char stop);
+
+    private static final Constructor<? extends CharScan> VECTOR = vector();
+
+    private static Constructor<? extends CharScan> vector() {
+        if (!Boolean.parseBoolean(System.getProperty("lexer.vector", "true")))
+            return null;
+        try {
+            Constructor<? extends CharScan> k = Class.forName("lexer.VectorCharScan")
+                    .asSubclass(CharScan.class).getDeclaredConstructor();
+            k.newInstance();                    // liga com jdk.incubator.vector já aqui
+            return k;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /** Um CharScan novo (guarda lines/lastLine: um por Lexer), ou null. */
+    static CharScan create() {
+        try {
+            return VECTOR == null ? null : VECTOR.newInstance();
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
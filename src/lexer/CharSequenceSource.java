@@ -0,0 +1,30 @@
+package lexer;
+
+// A classe CharSequenceSource entrega texto já em memória, sem decodificar
+final class CharSequenceSource extends Source {
+
+    private final CharSequence text;
+    private int next;
+
+    CharSequenceSource(CharSequence text) {
+        this.text = text;
+    }
+
+    @Override
+    int read(char[] dst, int off, int len) {
+        int n = Math.min(len, text.length() - next);
+        if (n <= 0) return -1;
+        if (n == len && Character.isHighSurrogate(text.charAt(next + n - 1)))
+            n--;                                 // não parte o par substituto
+
+        if (text instanceof String) {
+            ((String) text).getChars(next, next + n, dst, off);
+        } else if (text instanceof StringBuilder) {
+            ((StringBuilder) text).getChars(next, next + n, dst, off);
+        } else {
+            for (int i = 0; i < n; i++) dst[off + i] = text.charAt(next + i);
+        }
+        next += n;
+        return n;
+    }
+}
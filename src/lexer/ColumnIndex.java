@@ -0,0 +1,45 @@
+package lexer;
+
+import java.util.Arrays;
+
+// A classe ColumnIndex recupera colunas acima de Position.MAX_COLUMN a partir do offset
+final class ColumnIndex {
+
+    /*
+     * Marca k: o caractere no offset offsets[k] está na coluna columns[k]
+     * e, até a marca seguinte, cada caractere da mesma linha ocupa um byte.
+     * O Lexer marca o ponto em que a linha satura e o caractere seguinte a
+     * cada um não ASCII depois disso; linhas curtas não custam nada.
+     */
+    private long[] offsets = new long[0];
+    private int[] columns = new int[0];
+    private int count;
+
+    /** Registra a posição de um caractere numa linha já saturada (offsets crescentes). */
+    void mark(long offset, int column, int prevWidth) {
+        if (column != Position.MAX_COLUMN && prevWidth == 1)
+            return;                              // segue da marca anterior
+        if (count == offsets.length) {
+            int cap = Math.max(16, 2 * count);
+            offsets = Arrays.copyOf(offsets, cap);
+            columns = Arrays.copyOf(columns, cap);
+        }
+        offsets[count] = offset;
+        columns[count++] = column;
+    }
+
+    /** Coluna exata de pos (ver {@link Position}), mesmo depois da saturação. */
+    int column(long pos) {
+        int c = Position.column(pos);
+        if (c < Position.MAX_COLUMN)
+            return c;
+        long off = Position.offset(pos);
+        int k = Arrays.binarySearch(offsets, 0, count, off);
+        if (k < 0) k = -k - 2;                   // última marca antes de off
+        return k < 0 ? c : columns[k] + (int) (off - offsets[k]);
+    }
+
+    void clear() {
+        count = 0;
+    }
+}
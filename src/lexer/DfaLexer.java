@@ -0,0 +1,248 @@
+package lexer;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  DfaLexer  –  scanner por tabela, gerado de lexer/tokens.txt
+ *
+ *  Percorre o DFA mínimo de DfaTables (casamento mais longo, lembrando
+ *  o último estado de aceitação) e só então converte o lexema no token.
+ *  Deve reconhecer exatamente os mesmos tokens, posições e erros que o
+ *  Lexer escrito à mão, que continua sendo a implementação de referência.
+ *  ---------------------------------------------------------------- */
+public final class DfaLexer {
+
+    private static final int WINDOW = 1 << 16;
+
+    private final Source src;
+    private boolean eof;
+
+    /* janela: o token corrente começa em 'start'; ao recarregar, é movido para o início */
+    private char[] buf = new char[WINDOW];
+    private int pos, limit;
+
+    /* posição do próximo caractere e início do último token devolvido */
+    private int line = 1, column = 1;
+    private long offset;
+    private long tokenPos;
+
+    private final SymbolPool symbols = new SymbolPool();
+    private final ColumnIndex columns = new ColumnIndex();
+
+    /* lexema normalizado (minúsculas, dígitos ASCII) e atributos do último token */
+    private char[] lexeme = new char[64];
+    private int lexLen;
+    private int symbol, intValue;
+    private float realValue;
+    private char charValue;
+    private int tokenLength;
+
+    public DfaLexer(Source src) {
+        this.src = src;
+    }
+
+    /** Tabela de identificadores deste scanner (ids de {@link Ident}). */
+    public SymbolPool symbols() {
+        return symbols;
+    }
+
+    /** Posição (ver {@link Position}) do início do último token lido, ou do EOF. */
+    public long position() {
+        return tokenPos;
+    }
+
+    /** Coluna exata de uma posição criada por este scanner (ver {@link Lexer#column}). */
+    public int column(long pos) {
+        return columns.column(pos);
+    }
+
+    /* ==========================================================
+     *  Mesma interface do Lexer: Token (null no EOF) ou TokenBuffer
+     * ========================================================== */
+    public Token scan() throws IOException {
+        int tag = next();
+        switch (tag) {
+            case Tag.EOF:        return null;
+            case Tag.ID:         return new Ident(symbol, symbols);
+            case Tag.NUM:        return new Num(intValue);
+            case Tag.REAL:       return new Real(realValue);
+            case Tag.CHAR_CONST: return new CharConst(charValue);
+            case Tag.LITERAL:    return new Literal(new String(lexeme, 0, lexLen));
+            case Tag.AND:        return Word.and;
+            case Tag.OR:         return Word.or;
+            case Tag.EQ:         return Word.eq;
+            case Tag.NE:         return Word.ne;
+            case Tag.LE:         return Word.le;
+            case Tag.GE:         return Word.ge;
+        }
+        Word w = Keywords.forTag(tag);
+        return w != null ? w : Token.of(tag);
+    }
+
+    public int scan(TokenBuffer out) throws IOException {
+        int tag = next();
+        switch (tag) {
+            case Tag.EOF:        break;
+            case Tag.ID:         out.add(tag, tokenPos, tokenLength, symbol); break;
+            case Tag.NUM:        out.addInt(tokenPos, tokenLength, intValue); break;
+            case Tag.REAL:       out.addReal(tokenPos, tokenLength, realValue); break;
+            case Tag.CHAR_CONST: out.add(tag, tokenPos, tokenLength, charValue); break;
+            case Tag.LITERAL:    out.addLiteral(tokenPos, tokenLength, lexeme, 0, lexLen); break;
+            default:             out.add(tag, tokenPos, tokenLength, 0);
+        }
+        return tag;
+    }
+
+    public int scanAll(TokenBuffer out) throws IOException {
+        int n = 0;
+        while (scan(out) != Tag.EOF) n++;
+        return n;
+    }
+
+    /* ==========================================================
+     *  Laço do DFA: devolve a tag e deixa os atributos nos campos
+     * ========================================================== */
+    private int next() throws IOException {
+        final short[] next = DfaTables.NEXT, accept = DfaTables.ACCEPT;
+        final byte[] cls = DfaTables.CLASS;
+        final int classes = DfaTables.CLASSES;
+
+        for (;;) {
+            int start = pos;
+            int state = 0, rule = -1, end = start;
+            for (int i = start; ; i++) {
+                if (i == limit) {
+                    int moved = refill(start);
+                    start -= moved; end -= moved; i -= moved;
+                    if (i == limit) break;      // EOF
+                }
+                char c = buf[i];
+                int k = c < 0x80 ? cls[c] : classOf(c);
+                state = next[state * classes + k];
+                if (state < 0) break;
+                int r = accept[state];
+                if (r >= 0) { rule = r; end = i + 1; }
+            }
+
+            tokenPos = Position.pack(line, column, offset);
+            if (rule < 0)                       // só no EOF: '.' casa qualquer caractere
+                return Tag.EOF;
+            long startOffset = offset;
+            advance(start, end);
+            pos = end;
+            tokenLength = (int) (offset - startOffset);
+
+            int action = DfaTables.TOKEN[rule];
+            switch (action) {
+                case DfaTables.SKIP:  continue;
+                case DfaTables.CHAR:  return buf[start];
+                case DfaTables.ERROR: throw error(DfaTables.MESSAGE[rule]);
+                case Tag.NUM:
+                    digits(start, end);
+                    intValue = NumberParser.parseInt(lexeme, lexLen);
+                    if (intValue < 0)
+                        throw error("Erro léxico: constante inteira fora do intervalo");
+                    return Tag.NUM;
+                case Tag.REAL: {
+                    int dot = start;
+                    while (buf[dot] != '.') dot++;
+                    digits(start, dot);
+                    int point = lexLen;
+                    appendDigits(dot + 1, end);
+                    realValue = NumberParser.parseFloat(lexeme, point, lexLen);
+                    return Tag.REAL;
+                }
+                case Tag.CHAR_CONST:
+                    charValue = buf[start + 1];
+                    return Tag.CHAR_CONST;
+                case Tag.LITERAL:
+                    lexLen = 0;
+                    for (int i = start + 1; i < end - 1; i++) append(buf[i]);
+                    return Tag.LITERAL;
+                case Tag.ID: {
+                    lexLen = 0;
+                    for (int i = start; i < end; i++) {
+                        char c = buf[i];
+                        append((c >= 'A' && c <= 'Z') ? (char) (c | 0x20)
+                             : (c < 0x80) ? c : Character.toLowerCase(c));
+                    }
+                    Word w = Keywords.lookup(lexeme, lexLen);
+                    if (w != null) return w.tag;
+                    symbol = symbols.intern(lexeme, lexLen);
+                    return Tag.ID;
+                }
+                default:
+                    return action;
+            }
+        }
+    }
+
+    /** Classe de um caractere fora do ASCII (mesmo critério de CharClass). */
+    private static int classOf(char c) {
+        return Character.isLetter(c) ? DfaTables.LETTER
+             : Character.isDigit(c) ? DfaTables.DIGIT : DfaTables.OTHER;
+    }
+
+    /* ----------------------------------------------------------
+     *  Janela: preserva buf[start..limit) e lê mais um bloco.
+     *  Devolve quanto o conteúdo andou para trás; no EOF nada é lido.
+     * ---------------------------------------------------------- */
+    private int refill(int start) throws IOException {
+        if (eof) return 0;
+        int kept = limit - start;
+        if (kept > buf.length / 2)              // token longo: aumenta a janela
+            buf = Arrays.copyOf(buf, 2 * buf.length);
+        System.arraycopy(buf, start, buf, 0, kept);
+        limit = kept;
+        int n = src.read(buf, limit, buf.length - limit);
+        if (n < 0) {
+            eof = true;
+            src.close();
+        } else {
+            limit += n;
+        }
+        return start;
+    }
+
+    /** Atualiza linha, coluna e offset (em bytes UTF-8) sobre buf[from..to). */
+    private void advance(int from, int to) {
+        int ln = line, col = column;
+        long off = offset;
+        for (int i = from; i < to; i++) {
+            char c = buf[i];
+            if (c < 0x80) {
+                off++;
+                if (c == '\n') { ln++; col = 1; }
+                else if (++col >= Position.MAX_COLUMN) columns.mark(off, col, 1);
+            } else {
+                int w = (c < 0x800 || Character.isSurrogate(c)) ? 2 : 3;
+                off += w;
+                if (++col >= Position.MAX_COLUMN) columns.mark(off, col, w);
+            }
+        }
+        line = ln; column = col; offset = off;
+    }
+
+    /** Erro léxico no fim do casamento (onde o Lexer o detectaria). */
+    private LexicalException error(String msg) {
+        return new LexicalException(msg, Position.pack(line, column, offset));
+    }
+
+    private void digits(int from, int to) {
+        lexLen = 0;
+        appendDigits(from, to);
+    }
+
+    private void appendDigits(int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = buf[i];
+            append(c < 0x80 ? c : (char) ('0' + Character.digit(c, 10)));
+        }
+    }
+
+    private void append(char c) {
+        if (lexLen == lexeme.length) lexeme = Arrays.copyOf(lexeme, 2 * lexLen);
+        lexeme[lexLen++] = c;
+    }
+}
@@ -0,0 +1,23 @@
+package lexer;
+
+// A classe Ident é um identificador leve: guarda só o id do símbolo no SymbolPool
+public class Ident extends Token {
+
+    public final int id;
+    private final SymbolPool pool;
+
+    public Ident(int id, SymbolPool pool) {
+        super(Tag.ID);
+        this.id = id;
+        this.pool = pool;
+    }
+
+    /** Word equivalente, criada sob demanda e compartilhada por todas as ocorrências. */
+    public Word word() {
+        return pool.word(id);
+    }
+
+    public String toString() {
+        return pool.name(id);
+    }
+}
@@ -0,0 +1,32 @@
+package lexer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+// A classe InputStreamSource lê um InputStream em blocos direto para o array do buffer
+final class InputStreamSource extends Utf8Source {
+
+    private static final int BLOCK = 1 << 16;
+
+    private final InputStream stream;
+
+    InputStreamSource(InputStream stream) {
+        this.stream = stream;
+    }
+
+    @Override
+    boolean refill() throws IOException {
+        if (in.capacity() == 0) in = ByteBuffer.allocate(BLOCK).flip();
+        in.compact();                        // guarda bytes não consumidos
+        int r = stream.read(in.array(), in.position(), in.remaining());
+        if (r > 0) in.position(in.position() + r);
+        in.flip();
+        return r > 0;
+    }
+
+    @Override
+    void close() throws IOException {
+        stream.close();
+    }
+}
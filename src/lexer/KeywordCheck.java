@@ -0,0 +1,204 @@
+package lexer;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.Random;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  KeywordCheck  –  confere Keywords.lookup com uma tabela de Strings
+ *  e mede a alocação por token de palavras reservadas e identificadores
+ *
+ *  Conferência: as 17 palavras reservadas, cada prefixo, extensão e troca
+ *  de um caractere delas, e identificadores aleatórios feitos com as
+ *  letras das palavras reservadas; depois um texto com tudo isso em
+ *  maiúsculas e minúsculas misturadas, lido pelo Lexer, contra a tag
+ *  esperada pela tabela.
+ *
+ *  Medição, sobre um texto só de palavras reservadas e identificadores
+ *  que se repetem (bytes por getThreadAllocatedBytes, como TokenCheck):
+ *    scan(TokenBuffer)   o caminho do Parser, sem objetos por token
+ *    scan()              um Ident por identificador
+ *    antigo              o reconhecimento de antes: StringBuilder,
+ *                        toString().toLowerCase() e Hashtable.get
+ *    atual               o mesmo trecho de agora: minúsculas no buffer,
+ *                        Keywords.lookup e SymbolPool.intern
+ *
+ *  Uso: java lexer.KeywordCheck [palavras]
+ *  Padrão: 1000000. Sai com status 1 se houver diferença, ou se
+ *  scan(TokenBuffer) alocar por token.
+ *  ---------------------------------------------------------------- */
+public final class KeywordCheck {
+
+    private static final Word[] KEYWORDS = {
+        Keywords.PROGRAM, Keywords.BEGIN, Keywords.END, Keywords.TYPE, Keywords.INT, Keywords.FLOAT,
+        Keywords.CHAR, Keywords.BOOL, Keywords.IF, Keywords.THEN, Keywords.ELSE, Keywords.WHILE,
+        Keywords.DO, Keywords.REPEAT, Keywords.UNTIL, Keywords.IN, Keywords.OUT
+    };
+
+    private static final String LETTERS = "abcdefghilmnoprstuwy_";
+
+    private static final Map<String, Word> TABLE = new HashMap<>();
+    static {
+        for (Word w : KEYWORDS) TABLE.put(w.lexema, w);
+    }
+
+    private static int checked, differences;
+
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(1);
+
+        /* ----- Keywords.lookup contra a tabela ----- */
+        for (Word w : KEYWORDS) {
+            String k = w.lexema;
+            check(k);
+            for (int i = 0; i < k.length(); i++) {
+                check(k.substring(0, i));
+                for (char c : LETTERS.toCharArray())
+                    check(k.substring(0, i) + c + k.substring(i + 1));
+            }
+            for (char c : LETTERS.toCharArray())
+                check(k + c);
+        }
+        String[] words = new String[count];
+        for (int i = 0; i < count; i++) {
+            words[i] = random.nextInt(3) == 0 ? KEYWORDS[random.nextInt(KEYWORDS.length)].lexema
+                                               : identifier(random, 1 + random.nextInt(8));
+            check(words[i]);
+        }
+
+        /* ----- o Lexer, com maiúsculas misturadas ----- */
+        StringBuilder sb = new StringBuilder();
+        for (String w : words) sb.append(mixCase(random, w)).append(' ');
+        String text = sb.toString();
+        Lexer lex = new Lexer(Source.of(text));
+        TokenBuffer out = new TokenBuffer();
+        lex.scanAll(out);
+        if (out.size() != words.length) {
+            System.err.println("Lexer leu " + out.size() + " tokens, esperado " + words.length);
+            differences++;
+        } else {
+            for (int i = 0; i < words.length; i++) {
+                Word w = TABLE.get(words[i]);
+                int expected = w == null ? Tag.ID : w.tag;
+                checked++;
+                if (out.tag(i) != expected && ++differences <= 20)
+                    System.err.println("Lexer, token " + i + " (" + words[i] + "): tag " + out.tag(i) + ", esperado " + expected);
+            }
+        }
+        System.out.println(checked + " lexemas conferidos, " + differences + " diferenças");
+
+        /* ----- alocação e tempo ----- */
+        String[] names = new String[200];
+        for (int i = 0; i < names.length; i++) names[i] = identifier(random, 3 + random.nextInt(6));
+        String[] sample = new String[1 << 16];
+        sb.setLength(0);
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = random.nextBoolean() ? KEYWORDS[random.nextInt(KEYWORDS.length)].lexema
+                                             : names[random.nextInt(names.length)];
+            sb.append(random.nextInt(4) == 0 ? sample[i].toUpperCase() : sample[i]).append(i % 8 == 7 ? '\n' : ' ');
+        }
+        String program = sb.toString();
+        char[][] lexemes = new char[sample.length][];
+        for (int i = 0; i < sample.length; i++) lexemes[i] = sample[i].toCharArray();
+
+        double[] buffer = measure(() -> { lex.reset(Source.of(program)); out.clear(); return lex.scanAll(out); });
+        double[] objects = measure(() -> {
+            lex.reset(Source.of(program));
+            int n = 0;
+            while (lex.scan() != null) n++;
+            return n;
+        });
+        Hashtable<String, Word> old = new Hashtable<>();
+        for (Word w : KEYWORDS) old.put(w.lexema, w);
+        double[] before = measure(() -> {
+            for (char[] s : lexemes) oldLookup(old, s);
+            return lexemes.length;
+        });
+        char[] lexeme = new char[64];
+        SymbolPool pool = new SymbolPool();
+        double[] now = measure(() -> {
+            pool.clear();
+            for (char[] s : lexemes) {
+                int n = 0;
+                for (char c : s) lexeme[n++] = (c >= 'A' && c <= 'Z') ? (char) (c | 0x20) : c;
+                if (Keywords.lookup(lexeme, n) == null) pool.intern(lexeme, n);
+            }
+            return lexemes.length;
+        });
+
+        System.out.printf("medição (%d palavras, metade reservadas, %d identificadores distintos; melhor de 9):%n",
+                sample.length, names.length);
+        System.out.printf("  scan(TokenBuffer)  %7.2f bytes/token  %6.1f ns/token%n", buffer[0], buffer[1]);
+        System.out.printf("  scan()             %7.2f bytes/token  %6.1f ns/token%n", objects[0], objects[1]);
+        System.out.printf("  antigo             %7.2f bytes/palavra %5.1f ns/palavra  (só o reconhecimento)%n", before[0], before[1]);
+        System.out.printf("  atual              %7.2f bytes/palavra %5.1f ns/palavra  (só o reconhecimento)%n", now[0], now[1]);
+
+        if (buffer[0] >= 1) {
+            System.err.println("scan(TokenBuffer) alocou " + buffer[0] + " bytes por token");
+            differences++;
+        }
+        if (differences > 0)
+            System.exit(1);
+    }
+
+    private static void check(String s) {
+        char[] c = s.toCharArray();
+        Word got = Keywords.lookup(c, c.length), expected = TABLE.get(s);
+        checked++;
+        if (got != expected && ++differences <= 20)
+            System.err.println("lookup(\"" + s + "\"): " + got + ", esperado " + expected);
+    }
+
+    private static String identifier(Random random, int n) {
+        char[] c = new char[n];
+        for (int i = 0; i < n; i++) c[i] = LETTERS.charAt(random.nextInt(LETTERS.length() - (i == 0 ? 1 : 0)));
+        return new String(c);
+    }
+
+    private static String mixCase(Random random, String s) {
+        char[] c = s.toCharArray();
+        for (int i = 0; i < c.length; i++)
+            if (random.nextInt(4) == 0) c[i] = Character.toUpperCase(c[i]);
+        return new String(c);
+    }
+
+    /** O reconhecimento do Lexer antes de Keywords: uma String por palavra, reservada ou não. */
+    private static Word oldLookup(Hashtable<String, Word> words, char[] lexeme) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : lexeme) sb.append(c);
+        String s = sb.toString().toLowerCase();
+        Word w = words.get(s);
+        if (w != null) return w;
+        w = new Word(s, Tag.ID);
+        words.put(s, w);
+        return w;
+    }
+
+    /* ----------------------------------------------------------
+     *  {bytes por unidade, ns por unidade}: aquece e fica com a
+     *  melhor de 9 voltas
+     * ---------------------------------------------------------- */
+    private interface Run {
+        int run() throws IOException;
+    }
+
+    private static double[] measure(Run r) throws IOException {
+        for (int i = 0; i < 20; i++) r.run();
+        com.sun.management.ThreadMXBean mx =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+        double bytes = Double.MAX_VALUE, ns = Double.MAX_VALUE;
+        for (int round = 0; round < 9; round++) {
+            long a = mx.getThreadAllocatedBytes(tid), t = System.nanoTime();
+            int n = r.run();
+            long elapsed = System.nanoTime() - t, allocated = mx.getThreadAllocatedBytes(tid) - a;
+            bytes = Math.min(bytes, (double) allocated / n);
+            ns = Math.min(ns, (double) elapsed / n);
+        }
+        return new double[] { bytes, ns };
+    }
+}
@@ -0,0 +1,90 @@
+package lexer;
+
+// A classe Keywords reconhece as palavras reservadas direto no buffer do Lexer, sem criar Strings
+final class Keywords {
+
+    static final Word
+        IF      = new Word("if",      Tag.IF),
+        PROGRAM = new Word("program", Tag.PROGRAM),
+        BEGIN   = new Word("begin",   Tag.BEGIN),
+        END     = new Word("end",     Tag.END),
+        TYPE    = new Word("type",    Tag.TYPE),
+        INT     = new Word("int",     Tag.INT),
+        FLOAT   = new Word("float",   Tag.FLOAT),
+        CHAR    = new Word("char",    Tag.CHAR),
+        BOOL    = new Word("bool",    Tag.BOOL),
+        THEN    = new Word("then",    Tag.THEN),
+        ELSE    = new Word("else",    Tag.ELSE),
+        WHILE   = new Word("while",   Tag.WHILE),
+        DO      = new Word("do",      Tag.DO),
+        REPEAT  = new Word("repeat",  Tag.REPEAT),
+        UNTIL   = new Word("until",   Tag.UNTIL),
+        IN      = new Word("in",      Tag.IN),
+        OUT     = new Word("out",     Tag.OUT);
+
+    /* indexado por tag - Tag.PROGRAM */
+    private static final Word[] BY_TAG = {
+        PROGRAM, BEGIN, END, TYPE, INT, FLOAT, CHAR, BOOL, IF,
+        THEN, ELSE, WHILE, DO, REPEAT, UNTIL, IN, OUT
+    };
+
+    private Keywords() { }
+
+    /** Palavra reservada com a tag dada, ou null. */
+    static Word forTag(int tag) {
+        int i = tag - Tag.PROGRAM;
+        return (i >= 0 && i < BY_TAG.length) ? BY_TAG[i] : null;
+    }
+
+    /**
+     * Devolve a palavra reservada cujo lexema é s[0..n) (já em minúsculas),
+     * ou null. Decide pelo tamanho e pelo primeiro caractere; no máximo uma
+     * comparação completa por chamada.
+     */
+    static Word lookup(char[] s, int n) {
+        switch (n) {
+            case 2:
+                switch (s[0]) {
+                    case 'i': return s[1] == 'f' ? IF : s[1] == 'n' ? IN : null;
+                    case 'd': return s[1] == 'o' ? DO : null;
+                }
+                return null;
+            case 3:
+                switch (s[0]) {
+                    case 'e': return same(s, END);
+                    case 'i': return same(s, INT);
+                    case 'o': return same(s, OUT);
+                }
+                return null;
+            case 4:
+                switch (s[0]) {
+                    case 't': return s[1] == 'y' ? same(s, TYPE) : same(s, THEN);
+                    case 'c': return same(s, CHAR);
+                    case 'b': return same(s, BOOL);
+                    case 'e': return same(s, ELSE);
+                }
+                return null;
+            case 5:
+                switch (s[0]) {
+                    case 'b': return same(s, BEGIN);
+                    case 'f': return same(s, FLOAT);
+                    case 'w': return same(s, WHILE);
+                    case 'u': return same(s, UNTIL);
+                }
+                return null;
+            case 6:
+                return s[0] == 'r' ? same(s, REPEAT) : null;
+            case 7:
+                return s[0] == 'p' ? same(s, PROGRAM) : null;
+        }
+        return null;
+    }
+
+    /* compara s com o lexema de w (mesmo tamanho garantido pelo switch) */
+    private static Word same(char[] s, Word w) {
+        String k = w.lexema;
+        for (int i = 1; i < k.length(); i++)
+            if (s[i] != k.charAt(i)) return null;
+        return w;
+    }
+}
@@ -5,57 +5,225 @@ import java.util.*;
 
 // A classe Lexer mapeia cadeias em palavras
 public class Lexer {
-    public static int line = 1;              // contador de linhas
     private char ch = ' ';                   // caractere lido do arquivo
-    private final FileReader file;
+    private int width;                       // bytes UTF-8 de 'ch'
+    private boolean eof;
+    private boolean pending;                 // 'ch' já consumido por readch(c)
 
-    private final Hashtable<String, Word> words = new Hashtable<>();
+    /* posição de 'ch' na fonte e início do último token devolvido */
+    private int line = 1, column;
+    private long offset;
+    private long tokenPos;
+    private Source src;
 
-    /* ----------------------------------------------------------
-     *  Construtor ­– carrega palavras‑chave na tabela
-     * ---------------------------------------------------------- */
-    private void reserve(Word w) { words.put(w.getLexeme(), w); }
+    /* janela de caracteres já decodificados (reaproveitada a cada bloco) */
+    private static final int WINDOW = 1 << 16;
+    private final char[] buf = new char[WINDOW];
+    private int pos, limit;
+
+    /* colunas das linhas que passam de Position.MAX_COLUMN */
+    private final ColumnIndex columns = new ColumnIndex();
+
+    /* salto em bloco vetorial, se VectorCharScan e o módulo estiverem presentes;
+       os QUICK primeiros caracteres de cada salto vão no laço escalar, que
+       resolve sozinho os saltos curtos entre tokens */
+    private CharScan scan = CharScan.create();
+    private static final int QUICK = 16;
+
+    /* identificadores já vistos; palavras reservadas ficam em Keywords */
+    private final SymbolPool symbols = new SymbolPool();
+
+    /* lexema corrente, já em minúsculas (reaproveitado entre tokens) */
+    private char[] lexeme = new char[64];
+    private int lexLen;
+
+    /* atributos do último token reconhecido por next() */
+    private int symbol, intValue;
+    private float realValue;
+    private char charValue;
+
+    /* modo trecho (ParallelLexer): comentário aberto no fim não é erro */
+    private boolean chunk;
+    private boolean openComment;
 
     public Lexer(String fileName) throws FileNotFoundException {
-        try { file = new FileReader(fileName); }
+        try { src = new MappedFileSource(fileName); }
         catch (FileNotFoundException e) {
             System.err.println("Arquivo não encontrado");
             throw e;
         }
+    }
+
+    /** Lexer sobre qualquer entrada (ver as fábricas de {@link Source}). */
+    public Lexer(Source src) {
+        this.src = src;
+    }
+
+    /**
+     * Recomeça a análise sobre outra entrada, reaproveitando a janela,
+     * o buffer de lexemas e o SymbolPool (esvaziado). Tokens e ids
+     * obtidos da entrada anterior deixam de valer.
+     */
+    public void reset(Source src) throws IOException {
+        this.src.close();
+        this.src = src;
+        ch = ' ';
+        width = 0;
+        eof = pending = false;
+        line = 1;
+        column = 0;
+        offset = tokenPos = 0;
+        pos = limit = 0;
+        lexLen = 0;
+        openComment = false;
+        columns.clear();
+        symbols.clear();
+    }
+
+    /* ----------------------------------------------------------
+     *  Suporte ao ParallelLexer (trechos de um arquivo maior)
+     * ---------------------------------------------------------- */
+
+    /** Trata a entrada como trecho: EOF dentro de { … } só marca openComment(). */
+    void chunkMode() {
+        chunk = true;
+    }
+
+    /** Começa como se um '{' já tivesse sido lido antes do trecho. */
+    void startInComment() throws IOException {
+        skipUntil('}');
+        if (eof) openComment = true;
+        else readch();                       // consome '}'
+    }
 
-        // Palavras reservadas
-        reserve(new Word("if",      Tag.IF));
-        reserve(new Word("program", Tag.PROGRAM));
-        reserve(new Word("begin",   Tag.BEGIN));
-        reserve(new Word("end",     Tag.END));
-        reserve(new Word("type",    Tag.TYPE));
-        reserve(new Word("int",     Tag.INT));
-        reserve(new Word("float",   Tag.FLOAT));
-        reserve(new Word("char",    Tag.CHAR));
-        reserve(new Word("bool",    Tag.BOOL));
-        reserve(new Word("then",    Tag.THEN));
-        reserve(new Word("else",    Tag.ELSE));
-        reserve(new Word("while",   Tag.WHILE));
-        reserve(new Word("do",      Tag.DO));
-        reserve(new Word("repeat",  Tag.REPEAT));
-        reserve(new Word("until",   Tag.UNTIL));
-        reserve(new Word("in",      Tag.IN));
-        reserve(new Word("out",     Tag.OUT));
+    /** true se a entrada terminou dentro de um comentário { … } (modo trecho). */
+    boolean openComment() {
+        return openComment;
+    }
+
+    /** Troca o salto em bloco (null: só o laço escalar); VectorCheck compara os dois. */
+    void charScan(CharScan scan) {
+        this.scan = scan;
+    }
+
+    /** Offset em bytes do caractere corrente. */
+    long offset() {
+        return offset;
+    }
+
+    /** Linha do caractere corrente (no EOF: 1 + quebras de linha lidas). */
+    int line() {
+        return line;
     }
 
     /* ----------------------------------------------------------
      *  Utilidades de leitura
      * ---------------------------------------------------------- */
     private void readch() throws IOException {
-        int r = file.read();
-        ch = (r == -1) ? (char) -1 : (char) r;
+        if (eof) return;
+        pending = false;
+        offset += width;
+        if (ch == '\n') { line++; column = 1; }
+        else if (++column >= Position.MAX_COLUMN) columns.mark(offset, column, width);
+        load();
+    }
+
+    /** Carrega buf[pos] em 'ch' (recarregando a janela se preciso). */
+    private void load() throws IOException {
+        if (pos == limit && !fill()) { ch = (char) -1; width = 0; eof = true; return; }
+        ch = buf[pos++];
+        width = utf8Width(ch);
+    }
+
+    private static int utf8Width(char c) {
+        return c < 0x80 ? 1 : (c < 0x800 || Character.isSurrogate(c)) ? 2 : 3;
+    }
+
+    /** Recarrega a janela com o próximo bloco da fonte; false no EOF. */
+    private boolean fill() throws IOException {
+        int n = src.read(buf, 0, buf.length);
+        if (n < 0) { src.close(); return false; }
+        pos = 0; limit = n;
+        return true;
+    }
+
+    /* ----------------------------------------------------------
+     *  Saltos em bloco: percorrem a janela direto, com a posição em
+     *  variáveis locais, em vez de um readch() por caractere
+     * ---------------------------------------------------------- */
+
+    /** Avança até o primeiro caractere que não seja espaço. */
+    private void skipBlanks() throws IOException {
+        while (CharClass.isBlank(ch)) {
+            pending = false;
+            int ln = line, col = column;
+            long off = offset + width;
+            if (ch == '\n') { ln++; col = 1; }
+            else if (++col >= Position.MAX_COLUMN) columns.mark(off, col, width);
+
+            char[] b = buf;
+            int i = pos, end = limit, quick = pos + QUICK;
+            for (; i < end; i++) {
+                if (scan != null && i >= quick && col < Position.MAX_COLUMN - QUICK) { // em bloco, sem chegar a MAX_COLUMN
+                    int j = scan.skip(b, i, Math.min(end, i + Position.MAX_COLUMN - 1 - col), CharScan.BLANKS);
+                    off += j - i;
+                    if (scan.lines > 0) { ln += scan.lines; col = j - scan.lastLine; }
+                    else col += j - i;
+                    if ((i = j) == end) break;
+                }
+                char c = b[i];
+                if (!CharClass.isBlank(c)) break;
+                off++;
+                if (c == '\n') { ln++; col = 1; }
+                else if (++col >= Position.MAX_COLUMN) columns.mark(off, col, 1);
+            }
+            line = ln; column = col; offset = off;
+            pos = i;
+            load();
+        }
     }
 
-    /** Cria token de 1 caractere e já avança o ponteiro. */
-    private Token single(int tag) throws IOException {
-        Token t = new Token(tag);
+    /** Avança até ch == stop, ou até o EOF. */
+    private void skipUntil(char stop) throws IOException {
+        while (ch != stop && !eof) {
+            pending = false;
+            int ln = line, col = column;
+            long off = offset + width;
+            if (ch == '\n') { ln++; col = 1; }
+            else if (++col >= Position.MAX_COLUMN) columns.mark(off, col, width);
+
+            char[] b = buf;
+            int i = pos, end = limit, quick = pos + QUICK;
+            for (; i < end; i++) {
+                if (scan != null && i >= quick && col < Position.MAX_COLUMN - QUICK) { // em bloco, sem chegar a MAX_COLUMN
+                    int j = scan.skip(b, i, Math.min(end, i + Position.MAX_COLUMN - 1 - col), stop);
+                    off += j - i;
+                    if (scan.lines > 0) { ln += scan.lines; col = j - scan.lastLine; }
+                    else col += j - i;
+                    if ((i = j) == end) break;
+                }
+                char c = b[i];
+                if (c == stop) break;
+                if (c < 0x80) {
+                    off++;
+                    if (c == '\n') { ln++; col = 1; }
+                    else if (++col >= Position.MAX_COLUMN) columns.mark(off, col, 1);
+                } else {
+                    int w = utf8Width(c);
+                    off += w;
+                    if (++col >= Position.MAX_COLUMN) columns.mark(off, col, w);
+                }
+            }
+            line = ln; column = col; offset = off;
+            pos = i;
+            load();
+        }
+    }
+
+    /** Token de 1 caractere: já avança o ponteiro e devolve a tag. */
+    private int single(int tag) throws IOException {
         readch();
-        return t;
+        return tag;
     }
 
     /** Avança um caractere e retorna true se ele for ‘c’. */
@@ -63,61 +231,143 @@ public class Lexer {
         readch();
         if (ch != c) return false;
         ch = ' ';
+        pending = true;
         return true;
     }
 
+    /** Erro léxico na posição corrente. */
+    private LexicalException error(String msg) {
+        return new LexicalException(msg, Position.pack(line, column, offset));
+    }
+
+    /** Acrescenta c ao lexema corrente. */
+    private void append(char c) {
+        if (lexLen == lexeme.length) lexeme = Arrays.copyOf(lexeme, 2 * lexLen);
+        lexeme[lexLen++] = c;
+    }
+
+    /** Acrescenta o dígito corrente ao lexema, como ASCII. */
+    private void appendDigit() {
+        append(ch < 0x80 ? ch : (char) ('0' + Character.digit(ch, 10)));
+    }
+
+    /** Tabela de identificadores deste Lexer (ids de {@link Ident}). */
+    public SymbolPool symbols() {
+        return symbols;
+    }
+
+    /** Posição (ver {@link Position}) do início do último token lido, ou do EOF. */
+    public long position() {
+        return tokenPos;
+    }
+
+    /** Coluna exata de uma posição criada por este Lexer, mesmo acima de Position.MAX_COLUMN. */
+    public int column(long pos) {
+        return columns.column(pos);
+    }
+
     /* ==========================================================
      *  Principal: devolve o próximo Token ou null (EOF)
      * ========================================================== */
     public Token scan() throws IOException {
+        int tag = next();
+        switch (tag) {
+            case Tag.EOF:        return null;
+            case Tag.ID:         return new Ident(symbol, symbols);
+            case Tag.NUM:        return new Num(intValue);
+            case Tag.REAL:       return new Real(realValue);
+            case Tag.CHAR_CONST: return new CharConst(charValue);
+            case Tag.LITERAL:    return new Literal(new String(lexeme, 0, lexLen));
+            case Tag.AND:        return Word.and;
+            case Tag.OR:         return Word.or;
+            case Tag.EQ:         return Word.eq;
+            case Tag.NE:         return Word.ne;
+            case Tag.LE:         return Word.le;
+            case Tag.GE:         return Word.ge;
+        }
+        Word w = Keywords.forTag(tag);
+        return w != null ? w : Token.of(tag);
+    }
 
-        /* ----- ignora espaços, tabs, CR, etc. ----- */
-        for (;; readch()) {
-            if (ch == ' ' || ch == '\t' || ch == '\r' || ch == '\b') continue;
-            else if (ch == '\n') line++;
-            else break;
+    /* ==========================================================
+     *  Variante sem objetos: acrescenta o próximo token ao buffer
+     *  e devolve sua tag (Tag.EOF no fim, sem acrescentar nada)
+     * ========================================================== */
+    public int scan(TokenBuffer out) throws IOException {
+        int tag = next();
+        if (tag == Tag.EOF) return tag;
+
+        int length = (int) (offset + (pending ? width : 0) - Position.offset(tokenPos));
+        switch (tag) {
+            case Tag.ID:         out.add(tag, tokenPos, length, symbol); break;
+            case Tag.NUM:        out.addInt(tokenPos, length, intValue); break;
+            case Tag.REAL:       out.addReal(tokenPos, length, realValue); break;
+            case Tag.CHAR_CONST: out.add(tag, tokenPos, length, charValue); break;
+            case Tag.LITERAL:    out.addLiteral(tokenPos, length, lexeme, 0, lexLen); break;
+            default:             out.add(tag, tokenPos, length, 0);
         }
+        return tag;
+    }
 
-        /* ----- comentários { … } ou % linha ----- */
-        if (ch == '{') {
-            do {
+    /** Lê todos os tokens restantes para o buffer; devolve quantos foram lidos. */
+    public int scanAll(TokenBuffer out) throws IOException {
+        int n = 0;
+        while (scan(out) != Tag.EOF) n++;
+        return n;
+    }
+
+    /* ==========================================================
+     *  Reconhece o próximo token sem criar objetos: devolve a tag
+     *  e deixa os atributos em symbol/intValue/realValue/...
+     * ========================================================== */
+    private int next() throws IOException {
+
+        /* ----- ignora espaços e comentários (laço, pilha constante) ----- */
+        for (;;) {
+            skipBlanks();
+
+            if (ch == '{') {                 // comentário { … }
+                skipUntil('}');
+                if (eof) {
+                    if (!chunk)
+                        throw error("Erro léxico: comentário de bloco não fechado");
+                    openComment = true;
+                    break;
+                }
+                readch();                    // consome '}'
+            } else if (ch == '%') {          // comentário de uma linha
+                skipUntil('\n');
                 readch();
-                if (ch == (char) -1)
-                    throw new IOException("Erro léxico: comentário de bloco não fechado");
-            } while (ch != '}');
-            readch();            // consome '}'
-            return scan();       // recomeça
-        }
-        if (ch == '%') {         // comentário de uma linha
-            do { readch(); }
-            while (ch != '\n' && ch != (char) -1);
-            line++; readch();
-            return scan();
+            } else {
+                break;
+            }
         }
 
+        tokenPos = Position.pack(line, column, offset);
+
         /* ------------------------------------------------------
          *  Operadores & pontuação
          *  (✅ corrigido: não usa single() depois de readch(c))
          * ------------------------------------------------------ */
         switch (ch) {
             case '&':
-                if (readch('&')) return Word.and;
-                return new Token('&');
+                if (readch('&')) return Tag.AND;
+                return '&';
             case '|':
-                if (readch('|')) return Word.or;
-                return new Token('|');
+                if (readch('|')) return Tag.OR;
+                return '|';
             case '=':
-                if (readch('=')) return Word.eq;
-                return new Token(Tag.ASSIGN);
+                if (readch('=')) return Tag.EQ;
+                return Tag.ASSIGN;
             case '!':
-                if (readch('=')) return Word.ne;
-                return new Token('!');
+                if (readch('=')) return Tag.NE;
+                return '!';
             case '<':
-                if (readch('=')) return Word.le;
-                return new Token(Tag.LT);
+                if (readch('=')) return Tag.LE;
+                return Tag.LT;
             case '>':
-                if (readch('=')) return Word.ge;
-                return new Token(Tag.GT);
+                if (readch('=')) return Tag.GE;
+                return Tag.GT;
 
             /* um único caractere (pode usar single) */
             case '+': return single(Tag.PLUS);
@@ -134,61 +384,68 @@ public class Lexer {
         /* ----- constantes de caractere 'x' ----- */
         if (ch == '\'') {
             readch();
-            char valor = ch;
+            charValue = ch;
             readch();
-            if (ch == '\'') { readch(); return new CharConst(valor); }
-            throw new IOException("Erro léxico: caractere mal formado");
+            if (ch == '\'') { readch(); return Tag.CHAR_CONST; }
+            throw error("Erro léxico: caractere mal formado");
         }
 
         /* ----- literais de string "..." ----- */
         if (ch == '"') {
-            StringBuilder sb = new StringBuilder();
+            lexLen = 0;
             readch();
             while (ch != '"' && ch != '\n' && ch != (char) -1) {
-                sb.append(ch); readch();
+                append(ch); readch();
             }
-            if (ch == '"') { readch(); return new Literal(sb.toString()); }
-            throw new IOException("Erro léxico: string mal formada");
+            if (ch == '"') { readch(); return Tag.LITERAL; }
+            throw error("Erro léxico: string mal formada");
         }
 
         /* ----- números ----- */
-        if (Character.isDigit(ch)) {
-            int val = 0;
-            do { val = 10*val + Character.digit(ch,10); readch(); }
-            while (Character.isDigit(ch));
+        if (CharClass.isDigit(ch)) {
+            lexLen = 0;
+            do { appendDigit(); readch(); }
+            while (CharClass.isDigit(ch));
 
-            if (ch != '.') return new Num(val);
+            if (ch != '.') {
+                intValue = NumberParser.parseInt(lexeme, lexLen);
+                if (intValue < 0)
+                    throw error("Erro léxico: constante inteira fora do intervalo");
+                return Tag.NUM;
+            }
 
             /* ponto flutuante */
-            float x = val, d = 10;
+            int point = lexLen;
             readch();                    // consome '.'
-            if (!Character.isDigit(ch))
-                throw new IOException("Erro léxico: ponto sem dígitos em float");
-            while (Character.isDigit(ch)) {
-                x += Character.digit(ch,10) / d; d *= 10; readch();
-            }
-            return new Real(x);
+            if (!CharClass.isDigit(ch))
+                throw error("Erro léxico: ponto sem dígitos em float");
+            do { appendDigit(); readch(); }
+            while (CharClass.isDigit(ch));
+
+            realValue = NumberParser.parseFloat(lexeme, point, lexLen);
+            return Tag.REAL;
         }
 
         /* ----- identificadores / palavras‑chave ----- */
-        if (Character.isLetter(ch) || ch == '_') {
-            StringBuilder sb = new StringBuilder();
-            do { sb.append(ch); readch(); }
-            while (Character.isLetterOrDigit(ch) || ch == '_');
-
-            String s = sb.toString().toLowerCase();
-            Word w = words.get(s);
-            if (w != null) return w;              // palavra reservada
-            w = new Word(s, Tag.ID); words.put(s, w);
-            return w;
+        if (CharClass.isLetter(ch)) {
+            lexLen = 0;
+            do {
+                append((ch >= 'A' && ch <= 'Z') ? (char) (ch | 0x20)
+                     : (ch < 0x80) ? ch : Character.toLowerCase(ch));
+                readch();
+            } while (CharClass.isLetterOrDigit(ch));
+
+            Word w = Keywords.lookup(lexeme, lexLen);
+            if (w != null) return w.tag;          // palavra reservada
+
+            symbol = symbols.intern(lexeme, lexLen);
+            return Tag.ID;
         }
 
         /* ----- fim de arquivo ----- */
-        if (ch == (char) -1) return null;
+        if (ch == (char) -1) return Tag.EOF;
 
         /* caractere desconhecido isolado */
-        Token t = new Token(ch);
-        readch();
-        return t;
+        return single(ch);
     }
 }
@@ -0,0 +1,19 @@
+package lexer;
+
+import java.io.IOException;
+
+/** Exceção lançada quando ocorre erro léxico. */
+public class LexicalException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final long pos;
+
+    public LexicalException(String msg, long pos) {
+        super(msg);
+        this.pos = pos;
+    }
+
+    public long getPosition() { return pos; }
+
+    public int getLine() { return Position.line(pos); }
+}
@@ -0,0 +1,43 @@
+package lexer;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+// A classe MappedFileSource lê o arquivo-fonte por mapeamento em memória (FileChannel.map)
+final class MappedFileSource extends Utf8Source {
+
+    private static final long SEGMENT = 1L << 28;   // 256 MB por mapeamento
+
+    private final FileChannel channel;
+    private long size = -1;
+    private long base;                              // posição no arquivo de in[0]
+
+    MappedFileSource(String fileName) throws FileNotFoundException {
+        this(new FileInputStream(fileName).getChannel());
+    }
+
+    MappedFileSource(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    boolean refill() throws IOException {
+        if (size < 0) {                     // começa na posição atual do canal
+            size = channel.size();
+            base = channel.position();
+        }
+        if (base + in.limit() >= size) return false;   // já mapeado até o fim
+
+        /* remapeia a partir do primeiro byte ainda não consumido */
+        base += in.position();
+        in = channel.map(FileChannel.MapMode.READ_ONLY, base, Math.min(SEGMENT, size - base));
+        return true;
+    }
+
+    @Override
+    void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,187 @@
+package lexer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  NumberCheck  –  confere o NumberParser bit a bit com
+ *  Integer.parseInt / Float.parseFloat e mede contra o laço antigo
+ *
+ *  Inteiros: dígitos aleatórios de 1 a 12 casas, zeros à esquerda e a
+ *  vizinhança de Integer.MAX_VALUE (o NumberParser devolve -1 onde
+ *  Integer.parseInt estoura). Reais, sempre na forma "d.d" da linguagem:
+ *  aleatórios de até 30 dígitos, os pontos médios exatos entre floats
+ *  vizinhos (empate: arredonda para par), subnormais, o menor float e
+ *  metade dele, Float.MAX_VALUE e o ponto médio entre ele e 2^128 (que
+ *  vai para infinito).
+ *
+ *  A medição compara, sobre constantes curtas como as de um programa,
+ *  o NumberParser, Float.parseFloat e o laço de antes (val = 10*val + d
+ *  e x += d / 10^k), e conta quantas vezes o laço antigo erra o float.
+ *
+ *  Uso: java lexer.NumberCheck [aleatórios]
+ *  Padrão: 1000000. Sai com status 1 se houver diferença.
+ *  ---------------------------------------------------------------- */
+public final class NumberCheck {
+
+    private static int checked, differences;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(1);
+
+        /* ----- inteiros ----- */
+        for (String s : new String[] { "0", "7", "0000", "00000000000000000042", "2147483646", "2147483647",
+                "2147483648", "2147483649", "02147483647", "4294967295", "9999999999", "99999999999999999999" })
+            checkInt(s);
+        for (int i = 0; i < count; i++)
+            checkInt(digits(random, 1 + random.nextInt(12)));
+        for (int i = 0; i < 10_000; i++)
+            checkInt(Long.toString(Integer.MAX_VALUE - 5000L + i));
+
+        /* ----- reais ----- */
+        for (String s : new String[] { "0.0", "000.000", "1.0", "0.1", "0.5", "16777216.0", "16777217.0",
+                "16777219.0", "3.4028235", "0.00000000000000000000000000000000000000000000140129846432481707",
+                "0.0000000000000000000000000000000000000000000007006492321624085", "1234567890123456789.0",
+                "12345678901234567890.0", "0.12345678901234567890123", "9999999999.9999999999" })
+            checkFloat(s);
+        float[] edges = { Float.MIN_VALUE, 2 * Float.MIN_VALUE, Float.MIN_NORMAL, Math.nextDown(Float.MIN_NORMAL),
+                          Float.MAX_VALUE, Math.nextDown(Float.MAX_VALUE), 1f, Math.ulp(1f), 0.1f, 1e10f, 1e-10f };
+        for (float f : edges) {
+            checkFloat(plain(new BigDecimal(f)));
+            checkHalfway(f);
+        }
+        checkHalfway(0f);                                               // metade do menor subnormal
+        checkFloat(plain(new BigDecimal(Float.MAX_VALUE).add(new BigDecimal(Math.ulp(Float.MAX_VALUE)).divide(BigDecimal.valueOf(2)))));
+        checkFloat(plain(BigDecimal.valueOf(2).pow(128)));
+        for (int i = 0; i < count; i++)
+            checkFloat(digits(random, 1 + random.nextInt(15)) + "." + digits(random, 1 + random.nextInt(15)));
+        for (int i = 0; i < count / 10; i++) {
+            float f = Float.intBitsToFloat(random.nextInt(0x7F800000));   // finitos positivos, inclusive subnormais
+            checkFloat(plain(new BigDecimal(f)));
+            checkHalfway(f);
+        }
+
+        System.out.println(checked + " constantes conferidas, " + differences + " diferenças");
+        bench(random);
+        if (differences > 0)
+            System.exit(1);
+    }
+
+    private static String digits(Random random, int n) {
+        char[] d = new char[n];
+        for (int i = 0; i < n; i++) d[i] = (char) ('0' + random.nextInt(10));
+        return new String(d);
+    }
+
+    /** Forma "d.d" sem expoente. */
+    private static String plain(BigDecimal b) {
+        String s = b.toPlainString();
+        return s.indexOf('.') < 0 ? s + ".0" : s;
+    }
+
+    /** Ponto médio exato entre f e o float seguinte (o de MAX_VALUE é conferido à parte). */
+    private static void checkHalfway(float f) {
+        if (f == Float.MAX_VALUE) return;
+        BigDecimal a = new BigDecimal(f), b = new BigDecimal(Math.nextUp(f));
+        checkFloat(plain(a.add(b).divide(BigDecimal.valueOf(2))));
+    }
+
+    private static void checkInt(String s) {
+        int expected;
+        try {
+            expected = Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            expected = -1;
+        }
+        int got = NumberParser.parseInt(s.toCharArray(), s.length());
+        checked++;
+        if (got != expected) report("inteiro " + s + ": " + got + ", esperado " + expected);
+    }
+
+    private static void checkFloat(String s) {
+        int point = s.indexOf('.');
+        char[] d = (s.substring(0, point) + s.substring(point + 1)).toCharArray();
+        float got = NumberParser.parseFloat(d, point, d.length);
+        float expected = Float.parseFloat(s);
+        checked++;
+        if (Float.floatToRawIntBits(got) != Float.floatToRawIntBits(expected))
+            report("real " + s + ": " + got + ", esperado " + expected);
+    }
+
+    private static void report(String message) {
+        if (++differences <= 20) System.err.println(message);
+    }
+
+    /* ----------------------------------------------------------
+     *  Medição sobre constantes curtas (até 6 + 6 dígitos)
+     * ---------------------------------------------------------- */
+    private static void bench(Random random) {
+        int n = 1 << 20;
+        List<char[]> digits = new ArrayList<>(n);
+        int[] points = new int[n];
+        String[] texts = new String[n];
+        for (int i = 0; i < n; i++) {
+            String a = digits(random, 1 + random.nextInt(6)), b = digits(random, 1 + random.nextInt(6));
+            digits.add((a + b).toCharArray());
+            points[i] = a.length();
+            texts[i] = a + "." + b;
+        }
+
+        int wrong = 0;
+        for (int i = 0; i < n; i++)
+            if (Float.floatToRawIntBits(oldFloat(digits.get(i), points[i])) != Float.floatToRawIntBits(Float.parseFloat(texts[i])))
+                wrong++;
+
+        long tOld = Long.MAX_VALUE, tNew = Long.MAX_VALUE, tJdk = Long.MAX_VALUE;
+        long tOldInt = Long.MAX_VALUE, tNewInt = Long.MAX_VALUE;
+        float sink = 0;
+        for (int round = 0; round < 7; round++) {
+            long t = System.nanoTime();
+            for (int i = 0; i < n; i++) sink += oldFloat(digits.get(i), points[i]);
+            tOld = Math.min(tOld, System.nanoTime() - t);
+
+            t = System.nanoTime();
+            for (int i = 0; i < n; i++) { char[] d = digits.get(i); sink += NumberParser.parseFloat(d, points[i], d.length); }
+            tNew = Math.min(tNew, System.nanoTime() - t);
+
+            t = System.nanoTime();
+            for (int i = 0; i < n; i++) sink += Float.parseFloat(texts[i]);
+            tJdk = Math.min(tJdk, System.nanoTime() - t);
+
+            t = System.nanoTime();
+            for (int i = 0; i < n; i++) sink += oldInt(digits.get(i), points[i]);
+            tOldInt = Math.min(tOldInt, System.nanoTime() - t);
+
+            t = System.nanoTime();
+            for (int i = 0; i < n; i++) sink += NumberParser.parseInt(digits.get(i), points[i]);
+            tNewInt = Math.min(tNewInt, System.nanoTime() - t);
+        }
+        System.out.printf("medição (%d constantes, melhor de 7; soma %s):%n", n, sink);
+        System.out.printf("  real, laço antigo     %7.1f ns/constante  (%d de %d arredondadas errado)%n",
+                (double) tOld / n, wrong, n);
+        System.out.printf("  real, NumberParser    %7.1f ns/constante%n", (double) tNew / n);
+        System.out.printf("  real, Float.parseFloat%7.1f ns/constante%n", (double) tJdk / n);
+        System.out.printf("  int,  laço antigo     %7.1f ns/constante%n", (double) tOldInt / n);
+        System.out.printf("  int,  NumberParser    %7.1f ns/constante%n", (double) tNewInt / n);
+    }
+
+    /** O laço que o Lexer usava antes do NumberParser (parte inteira sem teste de estouro). */
+    private static float oldFloat(char[] d, int point) {
+        float x = oldInt(d, point), k = 10;
+        for (int i = point; i < d.length; i++) {
+            x += Character.digit(d[i], 10) / k;
+            k *= 10;
+        }
+        return x;
+    }
+
+    private static int oldInt(char[] d, int n) {
+        int val = 0;
+        for (int i = 0; i < n; i++)
+            val = 10 * val + Character.digit(d[i], 10);
+        return val;
+    }
+}
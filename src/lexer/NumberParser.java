@@ -0,0 +1,139 @@
+package lexer;
+
+import java.math.BigInteger;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  NumberParser  –  conversão exata das constantes numéricas
+ *
+ *  Inteiros: acumulação com detecção de estouro.
+ *  Reais: caminho rápido de Clinger (mantissa e potência de 10 exatas
+ *  em float), depois Eisel–Lemire (produto de 128 bits pela potência
+ *  de 5 tabelada) e, para mais de 19 dígitos significativos,
+ *  Float.parseFloat. O resultado é sempre o float mais próximo.
+ *  ---------------------------------------------------------------- */
+final class NumberParser {
+
+    /* limites de expoente decimal que ainda podem dar float finito e não nulo */
+    private static final int SMALLEST_POWER = -64, LARGEST_POWER = 38;
+
+    private static final int MANTISSA_BITS = 23;      // bits explícitos do float
+    private static final int MIN_EXPONENT = -127;
+    private static final int INFINITE_POWER = 0xFF;
+
+    private static final float[] POW10 = {
+        1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    /* 5^q normalizado em 128 bits (hi, lo), q em [SMALLEST_POWER, LARGEST_POWER] */
+    private static final long[] POW5 = new long[2 * (LARGEST_POWER - SMALLEST_POWER + 1)];
+
+    static {
+        BigInteger two128 = BigInteger.ONE.shiftLeft(128);
+        for (int q = SMALLEST_POWER; q <= LARGEST_POWER; q++) {
+            BigInteger c;
+            if (q >= 0) {
+                c = BigInteger.valueOf(5).pow(q);
+                int bits = c.bitLength();
+                c = bits < 128 ? c.shiftLeft(128 - bits) : c.shiftRight(bits - 128);
+            } else {
+                BigInteger p5 = BigInteger.valueOf(5).pow(-q);
+                int z = p5.subtract(BigInteger.ONE).bitLength();    // menor z com 2^z >= 5^-q
+                int b = q >= -27 ? z + 127 : 2 * z + 128;
+                c = BigInteger.ONE.shiftLeft(b).divide(p5).add(BigInteger.ONE);
+                while (c.compareTo(two128) >= 0) c = c.shiftRight(1);
+            }
+            int i = 2 * (q - SMALLEST_POWER);
+            POW5[i] = c.shiftRight(64).longValue();
+            POW5[i + 1] = c.longValue();
+        }
+    }
+
+    private NumberParser() { }
+
+    /** Valor de d[0..n) (dígitos ASCII), ou -1 se não couber num int. */
+    static int parseInt(char[] d, int n) {
+        int v = 0;
+        for (int i = 0; i < n; i++) {
+            int digit = d[i] - '0';
+            if (v > (Integer.MAX_VALUE - digit) / 10) return -1;
+            v = 10 * v + digit;
+        }
+        return v;
+    }
+
+    /** Float mais próximo de d[0..point) "." d[point..n) (dígitos ASCII). */
+    static float parseFloat(char[] d, int point, int n) {
+        /* mantissa decimal sem zeros à esquerda e à direita */
+        int first = 0, last = n;
+        while (first < n && d[first] == '0') first++;
+        while (last > first && last > point && d[last - 1] == '0') last--;
+        if (first == last) return 0f;
+
+        if (last - first > 19)                                  // não cabe exato em 64 bits
+            return Float.parseFloat(new String(d, 0, point) + "." + new String(d, point, n - point));
+
+        long w = 0;
+        for (int i = first; i < last; i++)
+            w = 10 * w + (d[i] - '0');
+        return toFloat(w, point - last);
+    }
+
+    /* ----------------------------------------------------------
+     *  w * 10^q, com w != 0 exato em 64 bits (sem sinal)
+     * ---------------------------------------------------------- */
+    static float toFloat(long w, int q) {
+        /* Clinger: w e 10^|q| exatos em float -> uma única operação arredondada */
+        if (w >= 0 && w <= (1L << 24) && q >= -10 && q <= 10)
+            return q < 0 ? (float) w / POW10[-q] : (float) w * POW10[q];
+
+        if (q < SMALLEST_POWER) return 0f;
+        if (q > LARGEST_POWER) return Float.POSITIVE_INFINITY;
+
+        /* Eisel–Lemire */
+        int lz = Long.numberOfLeadingZeros(w);
+        w <<= lz;
+
+        int index = 2 * (q - SMALLEST_POWER);
+        long hi = multiplyHighUnsigned(w, POW5[index]);
+        long lo = w * POW5[index];
+        long precisionMask = 0xFFFFFFFFFFFFFFFFL >>> (MANTISSA_BITS + 3);
+        if ((hi & precisionMask) == precisionMask) {            // refina com a 2ª metade
+            long hi2 = multiplyHighUnsigned(w, POW5[index + 1]);
+            lo += hi2;
+            if (Long.compareUnsigned(hi2, lo) > 0) hi++;
+        }
+
+        int upper = (int) (hi >>> 63);
+        int shift = upper + 64 - MANTISSA_BITS - 3;
+        long mantissa = hi >>> shift;
+        int power2 = (((152170 + 65536) * q) >> 16) + 63 + upper - lz - MIN_EXPONENT;
+
+        if (power2 <= 0) {                                      // subnormal
+            if (-power2 + 1 >= 64) return 0f;
+            mantissa >>>= -power2 + 1;
+            mantissa += mantissa & 1;
+            mantissa >>>= 1;
+            power2 = mantissa < (1L << MANTISSA_BITS) ? 0 : 1;
+            return Float.intBitsToFloat((power2 << MANTISSA_BITS) | (int) (mantissa & ((1L << MANTISSA_BITS) - 1)));
+        }
+
+        /* exatamente no meio entre dois floats: arredonda para par */
+        if (Long.compareUnsigned(lo, 1) <= 0 && q >= -17 && q <= 10 && (mantissa & 3) == 1
+                && (mantissa << shift) == hi)
+            mantissa &= ~1L;
+
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if (mantissa >= (2L << MANTISSA_BITS)) {
+            mantissa = 1L << MANTISSA_BITS;
+            power2++;
+        }
+        mantissa &= ~(1L << MANTISSA_BITS);
+        if (power2 >= INFINITE_POWER) return Float.POSITIVE_INFINITY;
+        return Float.intBitsToFloat((power2 << MANTISSA_BITS) | (int) mantissa);
+    }
+
+    private static long multiplyHighUnsigned(long a, long b) {
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+}
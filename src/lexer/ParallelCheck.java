@@ -0,0 +1,202 @@
+package lexer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  ParallelCheck  –  compara o ParallelLexer com o Lexer serial e
+ *  mede o ganho por número de threads
+ *
+ *  Gera um arquivo com comandos, strings, constantes de caractere,
+ *  comentários '%' e comentários { … } de 1 a 2000 linhas (um deles com
+ *  1/8 do arquivo, atravessando vários trechos). O texto dos comentários
+ *  tem '{', '%' e aspas, que fora de comentário abrem outro comentário
+ *  ou uma string mal formada, e alguns fecham com '}' dentro do que,
+ *  fora de comentário, seria uma string: a análise "dentro" do trecho
+ *  seguinte não pode reaproveitar a "fora" ali. Para cada quantidade
+ *  de threads (1, 2, 4, … até o máximo), exige os mesmos tokens do
+ *  Lexer.scanAll serial (tags, posições, comprimentos e valores;
+ *  identificadores pelo nome) e mede o tempo.
+ *  Por fim acrescenta um erro léxico no fim e exige a mesma mensagem e
+ *  posição nos dois.
+ *
+ *  Uso: java lexer.ParallelCheck [MB] [threads máx.]
+ *  Padrão: 64 MB e Runtime.availableProcessors(). Sai com status 1 se
+ *  houver diferença.
+ *  ---------------------------------------------------------------- */
+public final class ParallelCheck {
+
+    public static void main(String[] args) throws IOException {
+        long size = (args.length > 0 ? Long.parseLong(args[0]) : 64) << 20;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1])
+                                         : Runtime.getRuntime().availableProcessors();
+
+        Path file = Files.createTempFile("parallel", ".txt");
+        try {
+            generate(file, size, new Random(1));
+            int differences = run(file.toString(), maxThreads);
+            Files.writeString(file, "out(\"sem fim\n", StandardOpenOption.APPEND);
+            differences += error(file.toString(), maxThreads);
+            if (differences > 0)
+                System.exit(1);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static int run(String file, int maxThreads) throws IOException {
+        TokenBuffer ref = new TokenBuffer();
+        SymbolPool refSymbols = null;
+        long serial = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            ref.clear();
+            long t = System.nanoTime();
+            Lexer lex = new Lexer(file);
+            lex.scanAll(ref);
+            serial = Math.min(serial, System.nanoTime() - t);
+            refSymbols = lex.symbols();
+        }
+        double mb = Files.size(Path.of(file)) / 1e6;
+        System.out.printf("%.1f MB, %d tokens (melhor de 5)%n", mb, ref.size());
+        System.out.printf("  serial       %8.1f ms  %7.1f MB/s%n", serial / 1e6, mb / (serial / 1e9));
+
+        int differences = 0;
+        TokenBuffer out = new TokenBuffer();
+        for (int p = 1; p <= maxThreads; p = p < maxThreads && p * 2 > maxThreads ? maxThreads : p * 2) {
+            ForkJoinPool pool = new ForkJoinPool(p);
+            ParallelLexer lexer = new ParallelLexer(pool);
+            long best = Long.MAX_VALUE;
+            SymbolPool symbols = null;
+            String diff = null;
+            for (int round = 0; round < 5 && diff == null; round++) {
+                out.clear();
+                symbols = new SymbolPool();
+                long t = System.nanoTime();
+                try {
+                    lexer.scanAll(file, out, symbols);
+                } catch (LexicalException e) {
+                    diff = "paralelo: " + e.getMessage() + " em " + Position.toString(e.getPosition());
+                }
+                best = Math.min(best, System.nanoTime() - t);
+            }
+            pool.shutdown();
+
+            if (diff == null) diff = compare(ref, refSymbols, out, symbols);
+            System.out.printf("  %2d threads   %8.1f ms  %7.1f MB/s  ganho %.2fx%s%n", p, best / 1e6,
+                    mb / (best / 1e9), (double) serial / best, diff == null ? "" : "  DIFERENTE");
+            if (diff != null) {
+                System.err.println("    " + diff);
+                differences++;
+            }
+            if (p == maxThreads) break;
+        }
+        return differences;
+    }
+
+    /** Com um erro no fim do arquivo, exige a mesma mensagem e posição (do arquivo, não do trecho). */
+    private static int error(String file, int threads) throws IOException {
+        String serial = null, parallel = null;
+        try {
+            new Lexer(file).scanAll(new TokenBuffer());
+        } catch (LexicalException e) {
+            serial = e.getMessage() + " em " + Position.toString(e.getPosition());
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            new ParallelLexer(pool).scanAll(file, new TokenBuffer(), new SymbolPool());
+        } catch (LexicalException e) {
+            parallel = e.getMessage() + " em " + Position.toString(e.getPosition());
+        } finally {
+            pool.shutdown();
+        }
+        if (serial == null || !serial.equals(parallel)) {
+            System.err.println("erro no fim: serial " + serial + ", paralelo " + parallel);
+            return 1;
+        }
+        System.out.println("erro no fim: " + serial);
+        return 0;
+    }
+
+    /** Primeira diferença entre as duas leituras, ou null se forem iguais. */
+    private static String compare(TokenBuffer a, SymbolPool sa, TokenBuffer b, SymbolPool sb) {
+        int n = Math.min(a.size(), b.size());
+        for (int i = 0; i < n; i++) {
+            String x = describe(a, sa, i), y = describe(b, sb, i);
+            if (!x.equals(y)) return "token " + i + ": serial " + x + ", paralelo " + y;
+        }
+        if (a.size() != b.size())
+            return "serial leu " + a.size() + " tokens, paralelo " + b.size();
+        return null;
+    }
+
+    private static String describe(TokenBuffer t, SymbolPool symbols, int i) {
+        String value;
+        switch (t.tag(i)) {
+            case Tag.ID:         value = symbols.name(t.symbol(i)); break;
+            case Tag.NUM:        value = Integer.toString(t.intValue(i)); break;
+            case Tag.REAL:       value = Integer.toHexString(Float.floatToRawIntBits(t.realValue(i))); break;
+            case Tag.CHAR_CONST: value = Character.toString(t.charValue(i)); break;
+            case Tag.LITERAL:    value = t.literal(i); break;
+            default:             value = "";
+        }
+        return t.tag(i) + "@" + Position.toString(t.position(i)) + "+" + t.length(i) + " " + value;
+    }
+
+    /* ----------------------------------------------------------
+     *  Gerador
+     * ---------------------------------------------------------- */
+    private static final String[] STATEMENTS = {
+        "x%d = (a + %d) * b2 - 3.25;",
+        "out(\"valor } de { x%d\");",
+        "in(y%d);",
+        "if (x%d >= %d) && !(c == 'z') then",
+        "end; %% fim { do bloco } %d",
+        "c = '}';  w%d = w%d / 7;",
+    };
+
+    private static final String[] COMMENT = {
+        "texto simples %d",
+        "texto { %% \" ' @ #%d",
+        "nota @ %d",
+        "aspas \" abertas %d",
+    };
+
+    private static final String[] CLOSE = {
+        "}",
+        "}   x = 1;",
+        "\"a } b\" y \"c",            // dentro: b " y " c; fora: "a } b" y e erro
+    };
+
+    private static void generate(Path file, long size, Random random) throws IOException {
+        long written = 0, huge = size / 2;
+        try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            while (written < size) {
+                StringBuilder sb = new StringBuilder();
+                if (written >= huge) {
+                    huge = Long.MAX_VALUE;
+                    sb.append("{ comentário longo\n");
+                    for (long n = 0; n < size / 8; n += 64)
+                        sb.append(String.format(COMMENT[(int) (n / 64 % 4)], n)).append(" .........................\n");
+                    sb.append("}\n");
+                } else if (random.nextInt(50) == 0) {
+                    sb.append('{');
+                    int kinds = random.nextBoolean() ? 1 : COMMENT.length;     // metade só com texto simples
+                    for (int n = 1 + random.nextInt(2000); n > 0; n--)
+                        sb.append(String.format(COMMENT[random.nextInt(kinds)], n)).append('\n');
+                    sb.append(CLOSE[random.nextInt(CLOSE.length)]).append('\n');
+                } else {
+                    String s = STATEMENTS[random.nextInt(STATEMENTS.length)];
+                    sb.append(String.format(s, random.nextInt(1000), random.nextInt(1000))).append('\n');
+                }
+                w.append(sb);
+                written += sb.length();
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package lexer;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  ParallelLexer  –  análise léxica de arquivos grandes em trechos
+ *
+ *  O arquivo é cortado logo após quebras de linha e cada trecho é
+ *  analisado por um Lexer próprio num ForkJoinPool. Como nenhum token
+ *  atravessa '\n' (strings e comentários '%' terminam na linha), o
+ *  único estado que pode vazar de um trecho para o seguinte é estar
+ *  dentro de um comentário { … }.
+ *
+ *  Primeiro todos os trechos são analisados começando fora de
+ *  comentário. Depois, em paralelo, só os trechos cujo antecessor
+ *  terminou dentro de um comentário são analisados de novo começando
+ *  dentro dele. Essa segunda análise pula até o primeiro '}' e, se dali
+ *  até o próximo token da primeira análise só houver espaços, reaproveita
+ *  os tokens dela; senão segue lendo o resto do trecho. Na costura, em
+ *  ordem, escolhe-se a análise que corresponde ao estado em que o
+ *  antecessor terminou; se ela não foi feita (o antecessor só ficou
+ *  dentro de comentário por causa da análise "dentro"), é feita ali.
+ *  ---------------------------------------------------------------- */
+public final class ParallelLexer {
+
+    private static final long MIN_CHUNK = 1L << 20;     // 1 MB
+    private static final long MAX_CHUNK = 1L << 30;     // alvo; map() aceita até 2 GB
+
+    private final ForkJoinPool pool;
+
+    public ParallelLexer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelLexer(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Lê todos os tokens de fileName para out, com ids de identificadores
+     * em symbols e linhas/offsets relativos ao arquivo inteiro. Devolve a
+     * quantidade de tokens lidos.
+     */
+    public int scanAll(String fileName, TokenBuffer out, SymbolPool symbols) throws IOException {
+        try (FileChannel channel = new FileInputStream(fileName).getChannel()) {
+            long[] cuts = cuts(channel, pool.getParallelism());
+            List<Chunk> chunks = new ArrayList<>();
+            List<Run> runs = new ArrayList<>();
+            for (int i = 0; i + 1 < cuts.length; i++) {
+                Chunk c = new Chunk(channel, cuts[i], cuts[i + 1] - cuts[i]);
+                chunks.add(c);
+                runs.add(c.normal);
+            }
+            runAll(runs);
+
+            /* ----- análise "dentro" onde o antecessor termina em comentário ----- */
+            runs.clear();
+            for (int i = 1; i < chunks.size(); i++) {
+                Lexer prev = chunks.get(i - 1).normal.lexer;
+                if (prev != null && prev.openComment()) runs.add(chunks.get(i).comment);
+            }
+            if (!runs.isEmpty()) runAll(runs);
+
+            /* ----- costura em ordem ----- */
+            int before = out.size(), lines = 0;
+            boolean inComment = false;
+            for (Chunk c : chunks) {
+                Run r = inComment ? c.comment : c.normal;
+                if (!r.isDone()) pool.invoke(r);
+                if (r.error instanceof LexicalException) {
+                    long p = ((LexicalException) r.error).getPosition();
+                    throw new LexicalException(r.error.getMessage(), Position.pack(
+                            Position.line(p) + lines, Position.column(p), Position.offset(p) + c.start));
+                }
+                if (r.error != null) throw r.error;
+
+                Run t = r.tail;
+                SymbolPool local = t.lexer.symbols();
+                int[] map = new int[local.size()];
+                for (int id = 0; id < map.length; id++)
+                    map[id] = symbols.intern(local, id);
+
+                out.append(t.tokens, r.first, lines, c.start, map);
+                lines += t.lexer.line() - 1;
+                inComment = t.lexer.openComment();
+            }
+            if (inComment)
+                throw new LexicalException("Erro léxico: comentário de bloco não fechado",
+                        Position.pack(lines + 1, 1, channel.size()));
+            return out.size() - before;
+        }
+    }
+
+    private void runAll(List<Run> runs) {
+        pool.invoke(new RecursiveAction() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute() {
+                invokeAll(runs);
+            }
+        });
+    }
+
+    /* ----------------------------------------------------------
+     *  Pontos de corte: logo após um '\n' perto de cada fração do
+     *  arquivo. Evita '\n' precedido de aspas simples, que pode
+     *  ser o valor de uma constante de caractere.
+     * ---------------------------------------------------------- */
+    private static long[] cuts(FileChannel channel, int parallelism) throws IOException {
+        long size = channel.size();
+        long n = Math.max(1, Math.min(4L * parallelism, size / MIN_CHUNK));
+        n = Math.max(n, (size + MAX_CHUNK - 1) / MAX_CHUNK);
+
+        long[] cuts = new long[(int) n + 1];
+        int k = 1;
+        ByteBuffer b = ByteBuffer.allocate(1 << 12);
+        for (int i = 1; i < n; i++) {
+            long c = nextLineStart(channel, b, Math.max(i * (size / n), cuts[k - 1]), size);
+            if (c > cuts[k - 1] && c < size) cuts[k++] = c;
+        }
+        cuts[k++] = size;
+        for (int i = 1; i < k; i++)
+            if (cuts[i] - cuts[i - 1] > Integer.MAX_VALUE)
+                throw new IOException("Linha longa demais para dividir o arquivo em trechos");
+        return Arrays.copyOf(cuts, k);
+    }
+
+    private static long nextLineStart(FileChannel channel, ByteBuffer b, long from, long size)
+            throws IOException {
+        int prev = 0;
+        for (long p = Math.max(from - 1, 0); p < size; ) {
+            b.clear();
+            int r = channel.read(b, p);
+            if (r <= 0) break;
+            for (int i = 0; i < r; i++) {
+                int c = b.get(i);
+                if (c == '\n' && p + i >= from && prev != '\'') return p + i + 1;
+                prev = c;
+            }
+            p += r;
+        }
+        return size;
+    }
+
+    /* ----------------------------------------------------------
+     *  Um trecho e suas duas análises (fora / dentro de comentário)
+     * ---------------------------------------------------------- */
+    private static final class Chunk {
+        final FileChannel channel;
+        final long start, length;
+        final Run normal = new Run(this, false), comment = new Run(this, true);
+
+        Chunk(FileChannel channel, long start, long length) {
+            this.channel = channel;
+            this.start = start;
+            this.length = length;
+        }
+    }
+
+    private static final class Run extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final Chunk chunk;
+        final boolean inComment;
+        final TokenBuffer tokens = new TokenBuffer();
+        Lexer lexer;
+        IOException error;
+        Run tail = this;        // análise cujos tokens (a partir de first) valem para esta
+        int first;
+
+        Run(Chunk chunk, boolean inComment) {
+            this.chunk = chunk;
+            this.inComment = inComment;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                ByteBuffer bytes = chunk.channel.map(FileChannel.MapMode.READ_ONLY,
+                        chunk.start, chunk.length);
+                lexer = new Lexer(new ByteBufferSource(bytes));
+                lexer.chunkMode();
+                if (inComment) {
+                    lexer.startInComment();
+                    if (!lexer.openComment() && join(bytes, lexer.offset())) return;
+                }
+                lexer.scanAll(tokens);
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+
+        /**
+         * Depois do '}' em 'from', a análise "dentro" fica igual à "fora"
+         * se esta tiver um token em k >= from e só houver espaços em
+         * [from, k): as duas chegam a k fora de comentário, na mesma
+         * linha, coluna e offset do trecho.
+         */
+        private boolean join(ByteBuffer bytes, long from) {
+            Run n = chunk.normal;
+            TokenBuffer t = n.tokens;
+            int lo = 0, hi = t.size();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (Position.offset(t.position(mid)) < from) lo = mid + 1;
+                else hi = mid;
+            }
+            if (lo == t.size()) return false;
+            for (long p = from, end = Position.offset(t.position(lo)); p < end; p++)
+                if (!CharClass.isBlank((char) (bytes.get((int) p) & 0xff))) return false;
+            tail = n;
+            first = lo;
+            error = n.error;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package lexer;
+
+// A classe Position empacota linha, coluna e deslocamento (em bytes) num único long
+public final class Position {
+
+    /*
+     * layout: [ linha : 22 | coluna : 10 | offset : 32 ]  (valores saturam no máximo)
+     * A coluna guardada para em MAX_COLUMN; a exata sai do offset pelo
+     * scanner que criou a posição (Lexer.column / DfaLexer.column).
+     */
+    private static final int  LINE_BITS = 22, COLUMN_BITS = 10, OFFSET_BITS = 32;
+    private static final int  MAX_LINE = (1 << LINE_BITS) - 1;
+    public static final int   MAX_COLUMN = (1 << COLUMN_BITS) - 1;
+    private static final long MAX_OFFSET = (1L << OFFSET_BITS) - 1;
+
+    private Position() { }
+
+    public static long pack(int line, int column, long offset) {
+        long l = Math.min(line, MAX_LINE);
+        long c = Math.min(column, MAX_COLUMN);
+        long o = Math.min(offset, MAX_OFFSET);
+        return (l << (COLUMN_BITS + OFFSET_BITS)) | (c << OFFSET_BITS) | o;
+    }
+
+    public static int line(long pos) {
+        return (int) (pos >>> (COLUMN_BITS + OFFSET_BITS));
+    }
+
+    /** Coluna guardada em pos (MAX_COLUMN = essa ou qualquer outra depois dela). */
+    public static int column(long pos) {
+        return (int) (pos >>> OFFSET_BITS) & MAX_COLUMN;
+    }
+
+    public static long offset(long pos) {
+        return pos & MAX_OFFSET;
+    }
+
+    public static String toString(long pos) {
+        return line(pos) + ":" + column(pos);
+    }
+}
@@ -0,0 +1,58 @@
+package lexer;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+
+// A classe Source fornece ao Lexer blocos de caracteres já decodificados
+public abstract class Source {
+
+    Source() { }
+
+    /* ----------------------------------------------------------
+     *  Fábricas: cada tipo de entrada usa o caminho mais direto
+     * ---------------------------------------------------------- */
+
+    /** Arquivo em disco, mapeado em memória (UTF-8). */
+    public static Source open(String fileName) throws FileNotFoundException {
+        return new MappedFileSource(fileName);
+    }
+
+    /** Texto já em memória: copiado para a janela do Lexer sem decodificação. */
+    public static Source of(CharSequence text) {
+        return new CharSequenceSource(text);
+    }
+
+    /** Bytes UTF-8 já em memória. */
+    public static Source of(byte[] utf8) {
+        return new ByteBufferSource(ByteBuffer.wrap(utf8));
+    }
+
+    /** Canal de bytes UTF-8; um FileChannel é mapeado em memória. */
+    public static Source of(ReadableByteChannel channel) {
+        if (channel instanceof FileChannel)
+            return new MappedFileSource((FileChannel) channel);
+        return new ChannelSource(channel);
+    }
+
+    /** Fluxo de bytes UTF-8; um FileInputStream é mapeado em memória. */
+    public static Source of(InputStream in) {
+        if (in instanceof FileInputStream)
+            return new MappedFileSource(((FileInputStream) in).getChannel());
+        return new InputStreamSource(in);
+    }
+
+    /**
+     * Copia até len caracteres para dst[off..off+len) e devolve quantos
+     * foram escritos, ou -1 no fim da entrada. Exige len >= 2 (pares
+     * substitutos UTF-16 nunca são partidos entre duas chamadas).
+     */
+    abstract int read(char[] dst, int off, int len) throws IOException;
+
+    /** Libera o recurso subjacente (arquivo, canal...). */
+    void close() throws IOException { }
+}
@@ -0,0 +1,184 @@
+package lexer;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  SourceCheck  –  vazão (caracteres por segundo) das Sources de
+ *  1 MB a 1 GB, com o leitor de antes como referência
+ *
+ *  Gera um arquivo temporário com cara de programa (identificadores,
+ *  números, comentários com acentos, '中' e um ou outro caractere fora
+ *  do BMP) em tamanhos 1, 4, 16, 64, 256 e 1024 MB, e lê tudo em janelas
+ *  de 64K caracteres, como o Lexer:
+ *    mapeado   Source.open (MappedFileSource, segmentos de 256 MB)
+ *    byte[]    Source.of(byte[]) (ByteBufferSource, o mesmo Utf8Source)
+ *    String    Source.of(String) (CharSequenceSource, sem decodificar)
+ *    JDK       InputStreamReader UTF-8 com read(char[]) em bloco
+ *    antigo    FileReader.read() caractere a caractere, como o Lexer fazia
+ *  byte[] e String só entram enquanto o texto cabe com folga no heap.
+ *  Antes de medir, confere que todas devolvem os mesmos caracteres
+ *  (quantidade e hash) que o decodificador UTF-8 do JDK. O arquivo acabou
+ *  de ser escrito, então está no cache de páginas: mede a decodificação,
+ *  não o disco.
+ *
+ *  Uso: java lexer.SourceCheck [MB máximo]
+ *  Padrão: 1024. Sai com status 1 se houver diferença.
+ *  ---------------------------------------------------------------- */
+public final class SourceCheck {
+
+    private static final int WINDOW = 1 << 16;
+
+    private static final String[] NAMES = { "mapeado", "byte[]", "String", "JDK", "antigo" };
+
+    public static void main(String[] args) throws IOException {
+        int maxMb = args.length > 0 ? Integer.parseInt(args[0]) : 1024;
+        byte[] block = block(new Random(1));
+        File file = File.createTempFile("source", ".txt");
+        file.deleteOnExit();
+
+        int differences = 0;
+        System.out.printf("%7s %9s", "MB", "M car");
+        for (String name : NAMES) System.out.printf(" %10s", name);
+        System.out.println("   (M car/s, melhor de até 5)");
+        for (int mb = 1; mb <= maxMb; mb *= 4) {
+            long bytes = write(file, block, (long) mb << 20);
+            byte[] utf8 = null;
+            String text = null;
+            if (bytes * 8 < Runtime.getRuntime().maxMemory()) {
+                utf8 = Files.readAllBytes(file.toPath());
+                text = new String(utf8, StandardCharsets.UTF_8);
+            }
+
+            long[] expected = jdk(file);
+            long[][] got = { drain(Source.open(file.getPath())),
+                             utf8 == null ? null : drain(Source.of(utf8)),
+                             text == null ? null : drain(Source.of(text)),
+                             expected, old(file) };
+            for (int k = 0; k < got.length; k++)
+                if (got[k] != null && (got[k][0] != expected[0] || got[k][1] != expected[1])) {
+                    System.err.printf("%d MB, %s: %d caracteres (hash %x), esperado %d (hash %x)%n", mb, NAMES[k],
+                            got[k][0], got[k][1], expected[0], expected[1]);
+                    differences++;
+                }
+
+            int rounds = mb <= 64 ? 5 : 2;
+            long[] best = new long[NAMES.length];
+            java.util.Arrays.fill(best, Long.MAX_VALUE);
+            for (int round = 0; round < rounds; round++) {
+                long t = System.nanoTime();
+                count(Source.open(file.getPath()));
+                best[0] = Math.min(best[0], System.nanoTime() - t);
+                if (utf8 != null) {
+                    t = System.nanoTime();
+                    count(Source.of(utf8));
+                    best[1] = Math.min(best[1], System.nanoTime() - t);
+                    t = System.nanoTime();
+                    count(Source.of(text));
+                    best[2] = Math.min(best[2], System.nanoTime() - t);
+                }
+                t = System.nanoTime();
+                count(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+                best[3] = Math.min(best[3], System.nanoTime() - t);
+                if (round == 0 || mb <= 64) {       // o antigo leva segundos por GB: uma volta basta
+                    t = System.nanoTime();
+                    old(file);
+                    best[4] = Math.min(best[4], System.nanoTime() - t);
+                }
+            }
+
+            double chars = expected[0] / 1e6;
+            System.out.printf("%7d %9.1f", mb, chars);
+            for (long b : best)
+                System.out.printf(" %10s", b == Long.MAX_VALUE ? "-" : String.format("%.0f", chars / (b / 1e9)));
+            System.out.println();
+        }
+
+        if (differences > 0)
+            System.exit(1);
+    }
+
+    /* ----------------------------------------------------------
+     *  Leitura: {caracteres, hash} ou só a contagem
+     * ---------------------------------------------------------- */
+    private static long[] drain(Source src) throws IOException {
+        char[] w = new char[WINDOW];
+        long n = 0, h = 0;
+        for (int k; (k = src.read(w, 0, WINDOW)) >= 0; n += k)
+            for (int i = 0; i < k; i++) h = 31 * h + w[i];
+        src.close();
+        return new long[] { n, h };
+    }
+
+    private static long count(Source src) throws IOException {
+        char[] w = new char[WINDOW];
+        long n = 0;
+        for (int k; (k = src.read(w, 0, WINDOW)) >= 0; ) n += k;
+        src.close();
+        return n;
+    }
+
+    private static long count(Reader in) throws IOException {
+        char[] w = new char[WINDOW];
+        long n = 0;
+        try (Reader r = in) {
+            for (int k; (k = r.read(w, 0, WINDOW)) >= 0; ) n += k;
+        }
+        return n;
+    }
+
+    private static long[] jdk(File file) throws IOException {
+        char[] w = new char[WINDOW];
+        long n = 0, h = 0;
+        try (Reader r = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            for (int k; (k = r.read(w, 0, WINDOW)) >= 0; n += k)
+                for (int i = 0; i < k; i++) h = 31 * h + w[i];
+        }
+        return new long[] { n, h };
+    }
+
+    /** O caminho de antes do user-001: um FileReader.read() por caractere. */
+    private static long[] old(File file) throws IOException {
+        long n = 0, h = 0;
+        try (Reader r = new FileReader(file, StandardCharsets.UTF_8)) {
+            for (int c; (c = r.read()) >= 0; n++) h = 31 * h + c;
+        }
+        return new long[] { n, h };
+    }
+
+    /* ----------------------------------------------------------
+     *  Gerador: um bloco de ~64 KB repetido até o tamanho pedido
+     * ---------------------------------------------------------- */
+    private static byte[] block(Random random) {
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 64 << 10) {
+            int k = random.nextInt(10);
+            if (k < 6)
+                sb.append("    x").append(random.nextInt(1000)).append(" = y + ").append(random.nextInt(100_000)).append(";\n");
+            else if (k < 8)
+                sb.append("    { comentário com acentuação: ação, café, 中文 }\n");
+            else if (k < 9)
+                sb.append("    out(\"função 😀 \").append(c);\n");
+            else
+                sb.append("    % real: ").append(random.nextInt(1000)).append('.').append(random.nextInt(1000)).append('\n');
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long write(File file, byte[] block, long size) throws IOException {
+        long written = 0;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file.toPath()), 1 << 20)) {
+            for (; written < size; written += block.length) out.write(block);
+        }
+        return written;
+    }
+}
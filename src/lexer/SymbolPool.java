@@ -0,0 +1,120 @@
+package lexer;
+
+import java.util.Arrays;
+
+// A classe SymbolPool interna identificadores: ids inteiros densos e lexemas num único char[]
+public final class SymbolPool {
+
+    /* tabela de endereçamento aberto (sondagem linear) com id + 1; 0 = vazio */
+    private int[] table = new int[1 << 10];
+
+    /* lexemas concatenados numa arena; símbolo i ocupa chars[start[i] .. start[i] + length[i]) */
+    private char[] chars = new char[1 << 12];
+    private int used;
+
+    private int[] start = new int[1 << 9];
+    private int[] length = new int[1 << 9];
+    private int[] hash = new int[1 << 9];
+    private int count;
+
+    /* objetos criados só quando alguém os pede */
+    private String[] names = new String[0];
+    private Word[] words = new Word[0];
+
+    /** Devolve o id de s[0..n), cadastrando-o se for novo. */
+    public int intern(char[] s, int n) {
+        return intern(s, 0, n);
+    }
+
+    /** Id neste pool do símbolo 'id' de outro pool. */
+    public int intern(SymbolPool from, int id) {
+        return intern(from.chars, from.start[id], from.length[id]);
+    }
+
+    private int intern(char[] s, int off, int n) {
+        int h = hash(s, off, n);
+        int mask = table.length - 1;
+        for (int i = h & mask; ; i = (i + 1) & mask) {
+            int e = table[i];
+            if (e == 0) break;
+            int id = e - 1;
+            if (hash[id] == h && length[id] == n
+                    && Arrays.equals(chars, start[id], start[id] + n, s, off, off + n))
+                return id;
+        }
+        return add(s, off, n, h);
+    }
+
+    /** Esvazia o pool mantendo a capacidade já alocada. */
+    public void clear() {
+        Arrays.fill(table, 0);
+        Arrays.fill(names, 0, Math.min(count, names.length), null);
+        Arrays.fill(words, 0, Math.min(count, words.length), null);
+        count = used = 0;
+    }
+
+    /** Quantidade de símbolos distintos. */
+    public int size() {
+        return count;
+    }
+
+    /** Lexema do símbolo (String criada na primeira chamada). */
+    public String name(int id) {
+        if (id >= names.length) names = Arrays.copyOf(names, Math.max(2 * names.length, count));
+        String s = names[id];
+        if (s == null) names[id] = s = new String(chars, start[id], length[id]);
+        return s;
+    }
+
+    /** Word do símbolo (criada na primeira chamada). */
+    public Word word(int id) {
+        if (id >= words.length) words = Arrays.copyOf(words, Math.max(2 * words.length, count));
+        Word w = words[id];
+        if (w == null) words[id] = w = new Word(name(id), Tag.ID);
+        return w;
+    }
+
+    /* ----------------------------------------------------------
+     *  Inserção e crescimento
+     * ---------------------------------------------------------- */
+    private int add(char[] s, int off, int n, int h) {
+        if (count == start.length) {
+            int cap = 2 * count;
+            start = Arrays.copyOf(start, cap);
+            length = Arrays.copyOf(length, cap);
+            hash = Arrays.copyOf(hash, cap);
+        }
+        if (used + n > chars.length)
+            chars = Arrays.copyOf(chars, Math.max(2 * chars.length, used + n));
+
+        int id = count++;
+        System.arraycopy(s, off, chars, used, n);
+        start[id] = used;
+        length[id] = n;
+        hash[id] = h;
+        used += n;
+
+        if (2 * count > table.length) rehash();
+        else place(table, id);
+        return id;
+    }
+
+    private void rehash() {
+        int[] t = new int[2 * table.length];
+        for (int id = 0; id < count; id++) place(t, id);
+        table = t;
+    }
+
+    private void place(int[] t, int id) {
+        int mask = t.length - 1;
+        int i = hash[id] & mask;
+        while (t[i] != 0) i = (i + 1) & mask;
+        t[i] = id + 1;
+    }
+
+    private static int hash(char[] s, int off, int n) {
+        int h = 0;
+        for (int i = off; i < off + n; i++) h = 31 * h + s[i];
+        return h ^ (h >>> 16);
+    }
+}
@@ -3,6 +3,9 @@ package lexer;
 // A classe Tag define constantes para os tokens da linguagem
 public class Tag {
 
+    // Fim de arquivo (devolvido pela variante de Lexer.scan sem objetos)
+    public static final int EOF = -1;
+
     // Palavras reservadas
     public static final int 
         PROGRAM = 256,
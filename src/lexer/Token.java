@@ -4,10 +4,28 @@ public class Token {
 
     public final int tag; // constante que representa o token
 
+    /* tokens sem atributos, um por tag: caracteres ASCII, operadores simples e delimitadores
+     * (os operadores compostos ficam em Word) */
+    private static final Token[] SHARED = new Token[Tag.RPAREN + 1];
+
+    static {
+        for (int t = 0; t < 128; t++)
+            SHARED[t] = new Token(t);
+        for (int t : new int[] { Tag.GT, Tag.LT, Tag.ASSIGN, Tag.PLUS, Tag.MINUS, Tag.TIMES, Tag.DIV,
+                                 Tag.SEMICOLON, Tag.COLON, Tag.COMMA, Tag.LPAREN, Tag.RPAREN })
+            SHARED[t] = new Token(t);
+    }
+
     public Token(int t) {
         tag = t;
     }
 
+    /** Token compartilhado para a tag, ou um novo se a tag não tiver instância única. */
+    public static Token of(int tag) {
+        Token t = (tag >= 0 && tag < SHARED.length) ? SHARED[tag] : null;
+        return t != null ? t : new Token(tag);
+    }
+
     public String toString() {
         switch (tag) {
             // --- palavras reservadas / identificadores ---
@@ -0,0 +1,126 @@
+package lexer;
+
+import java.util.Arrays;
+
+// A classe TokenBuffer guarda tokens em vetores paralelos (sem um objeto por token)
+public final class TokenBuffer {
+
+    /*
+     * Token i: tag[i], pos[i] (ver Position), length[i] em bytes e payload[i]:
+     *   ID         -> id no SymbolPool do Lexer
+     *   NUM        -> índice em ints
+     *   REAL       -> índice em reals
+     *   CHAR_CONST -> o próprio caractere
+     *   LITERAL    -> índice em litStart/litLength (texto em litChars)
+     *   demais     -> 0
+     */
+    private int[] tag = new int[1 << 10];
+    private long[] pos = new long[1 << 10];
+    private int[] length = new int[1 << 10];
+    private int[] payload = new int[1 << 10];
+    private int size;
+
+    private int[] ints = new int[1 << 6];
+    private int intCount;
+    private float[] reals = new float[1 << 6];
+    private int realCount;
+
+    private int[] litStart = new int[1 << 6], litLength = new int[1 << 6];
+    private int litCount;
+    private char[] litChars = new char[1 << 10];
+    private int litUsed;
+
+    /* ----------------------------------------------------------
+     *  Leitura
+     * ---------------------------------------------------------- */
+    public int size()              { return size; }
+    public int tag(int i)          { return tag[i]; }
+    public long position(int i)    { return pos[i]; }
+    public int length(int i)       { return length[i]; }
+    public int payload(int i)      { return payload[i]; }
+
+    public int symbol(int i)       { return payload[i]; }
+    public int intValue(int i)     { return ints[payload[i]]; }
+    public float realValue(int i)  { return reals[payload[i]]; }
+    public char charValue(int i)   { return (char) payload[i]; }
+
+    /** Texto de um LITERAL (cria a String). */
+    public String literal(int i) {
+        int k = payload[i];
+        return new String(litChars, litStart[k], litLength[k]);
+    }
+
+    /** Esvazia o buffer mantendo a capacidade já alocada. */
+    public void clear() {
+        size = intCount = realCount = litCount = litUsed = 0;
+    }
+
+    /* ----------------------------------------------------------
+     *  Escrita (usada pelo Lexer)
+     * ---------------------------------------------------------- */
+    void add(int t, long p, int len, int value) {
+        if (size == tag.length) {
+            int cap = 2 * size;
+            tag = Arrays.copyOf(tag, cap);
+            pos = Arrays.copyOf(pos, cap);
+            length = Arrays.copyOf(length, cap);
+            payload = Arrays.copyOf(payload, cap);
+        }
+        tag[size] = t;
+        pos[size] = p;
+        length[size] = len;
+        payload[size] = value;
+        size++;
+    }
+
+    void addInt(long p, int len, int v) {
+        if (intCount == ints.length) ints = Arrays.copyOf(ints, 2 * intCount);
+        ints[intCount] = v;
+        add(Tag.NUM, p, len, intCount++);
+    }
+
+    void addReal(long p, int len, float v) {
+        if (realCount == reals.length) reals = Arrays.copyOf(reals, 2 * realCount);
+        reals[realCount] = v;
+        add(Tag.REAL, p, len, realCount++);
+    }
+
+    void addLiteral(long p, int len, char[] s, int off, int n) {
+        if (litCount == litStart.length) {
+            litStart = Arrays.copyOf(litStart, 2 * litCount);
+            litLength = Arrays.copyOf(litLength, 2 * litCount);
+        }
+        if (litUsed + n > litChars.length)
+            litChars = Arrays.copyOf(litChars, Math.max(2 * litChars.length, litUsed + n));
+        System.arraycopy(s, off, litChars, litUsed, n);
+        litStart[litCount] = litUsed;
+        litLength[litCount] = n;
+        litUsed += n;
+        add(Tag.LITERAL, p, len, litCount++);
+    }
+
+    /**
+     * Acrescenta os tokens de outro buffer a partir do índice first,
+     * deslocando linhas e offsets (o trecho de origem começa no início
+     * de uma linha) e traduzindo ids de símbolos por symbolMap.
+     */
+    void append(TokenBuffer from, int first, int lineDelta, long offsetDelta, int[] symbolMap) {
+        for (int i = first; i < from.size; i++) {
+            long p = from.pos[i];
+            p = Position.pack(Position.line(p) + lineDelta, Position.column(p),
+                              Position.offset(p) + offsetDelta);
+            int t = from.tag[i], len = from.length[i];
+            switch (t) {
+                case Tag.ID:      add(t, p, len, symbolMap[from.payload[i]]); break;
+                case Tag.NUM:     addInt(p, len, from.intValue(i)); break;
+                case Tag.REAL:    addReal(p, len, from.realValue(i)); break;
+                case Tag.LITERAL: {
+                    int k = from.payload[i];
+                    addLiteral(p, len, from.litChars, from.litStart[k], from.litLength[k]);
+                    break;
+                }
+                default:          add(t, p, len, from.payload[i]);
+            }
+        }
+    }
+}
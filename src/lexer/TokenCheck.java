@@ -0,0 +1,66 @@
+package lexer;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  TokenCheck  –  confere que pontuação e operadores saem do Lexer
+ *  como instâncias únicas (Token.of / Word) e mede quantos bytes
+ *  o scan() aloca por token só de pontuação.
+ *
+ *  Uso: java lexer.TokenCheck [repetições]
+ *  Sai com status 1 se algum token não for a instância compartilhada.
+ *  ---------------------------------------------------------------- */
+public final class TokenCheck {
+
+    private static final String PUNCTUATION = "; : , ( ) + - * / = < > & | ! && || == != <= >= ";
+
+    public static void main(String[] args) throws IOException {
+        int reps = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int failures = identity();
+
+        /* aquece e mede a alocação de scan() sobre pontuação pura */
+        String text = PUNCTUATION.repeat(1000);
+        Lexer lex = new Lexer(Source.of(text));
+        for (int i = 0; i < 20; i++) drain(lex, text);
+        com.sun.management.ThreadMXBean mx =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+        long before = mx.getThreadAllocatedBytes(tid);
+        long tokens = 0;
+        for (int i = 0; i < reps / 1000; i++) tokens += drain(lex, text);
+        long bytes = mx.getThreadAllocatedBytes(tid) - before;
+        System.out.printf("%d tokens, %d bytes alocados (%.3f bytes/token)%n",
+                tokens, bytes, (double) bytes / Math.max(1, tokens));
+
+        if (failures > 0) {
+            System.err.println(failures + " tokens não compartilhados");
+            System.exit(1);
+        }
+        System.out.println("tokens de pontuação compartilhados: ok");
+    }
+
+    /** Lê a pontuação duas vezes e exige a mesma instância nas duas e em Token.of. */
+    private static int identity() throws IOException {
+        Lexer a = new Lexer(Source.of(PUNCTUATION)), b = new Lexer(Source.of(PUNCTUATION));
+        int failures = 0;
+        for (Token x = a.scan(), y = b.scan(); x != null || y != null; x = a.scan(), y = b.scan()) {
+            if (x != y) {
+                System.err.println("instâncias distintas para " + x + " / " + y);
+                failures++;
+            } else if (!(x instanceof Word) && x != Token.of(x.tag)) {
+                System.err.println("Token.of(" + x.tag + ") não devolve a instância do Lexer");
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    /** Relê o texto com o mesmo Lexer (reset não realoca a janela). */
+    private static int drain(Lexer lex, String text) throws IOException {
+        lex.reset(Source.of(text));
+        int n = 0;
+        while (lex.scan() != null) n++;
+        return n;
+    }
+}
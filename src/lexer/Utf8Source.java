@@ -0,0 +1,81 @@
+package lexer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// A classe Utf8Source decodifica UTF-8 a partir de um ByteBuffer, com atalho para ASCII
+abstract class Utf8Source extends Source {
+
+    private static final char REPLACEMENT = '\uFFFD';
+    private static final int[] MIN_CODE = { 0, 0, 0x80, 0x800, 0x10000 };
+
+    protected ByteBuffer in = ByteBuffer.allocate(0);   // bytes ainda não decodificados
+    private boolean eof;
+
+    /**
+     * Disponibiliza mais bytes em 'in', preservando os que ainda não foram
+     * consumidos. Devolve false quando a entrada acabou.
+     */
+    abstract boolean refill() throws IOException;
+
+    @Override
+    int read(char[] dst, int off, int len) throws IOException {
+        for (;;) {
+            int n = decode(dst, off, len);
+            if (n > 0) return n;
+            if (eof) return -1;
+            eof = !refill();
+        }
+    }
+
+    /* ----------------------------------------------------------
+     *  Decodifica o que couber em dst; uma sequência multibyte
+     *  cortada no fim do bloco fica para depois do refill().
+     * ---------------------------------------------------------- */
+    private int decode(char[] dst, int off, int len) {
+        ByteBuffer b = in;
+        int p = b.position(), lim = b.limit();
+        int n = off, end = off + len;
+
+        while (n < end && p < lim) {
+            int c = b.get(p);
+            if (c >= 0) {                       // ASCII: caso comum
+                dst[n++] = (char) c;
+                p++;
+                continue;
+            }
+
+            int need = (c & 0xE0) == 0xC0 ? 2
+                     : (c & 0xF0) == 0xE0 ? 3
+                     : (c & 0xF8) == 0xF0 ? 4 : 0;
+            if (need == 0) { dst[n++] = REPLACEMENT; p++; continue; }
+            if (p + need > lim) {
+                if (!eof) break;                // aguarda o resto da sequência
+                dst[n++] = REPLACEMENT; p++; continue;
+            }
+
+            int cp = c & (0x7F >> need), i = 1;
+            for (; i < need; i++) {
+                int cc = b.get(p + i);
+                if ((cc & 0xC0) != 0x80) break;
+                cp = (cp << 6) | (cc & 0x3F);
+            }
+            if (i < need || cp < MIN_CODE[need] || cp > Character.MAX_CODE_POINT
+                    || (cp >= Character.MIN_SURROGATE && cp <= Character.MAX_SURROGATE)) {
+                dst[n++] = REPLACEMENT; p++; continue;
+            }
+
+            if (cp >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                if (n + 1 == end) break;        // par substituto não cabe na janela
+                dst[n++] = Character.highSurrogate(cp);
+                dst[n++] = Character.lowSurrogate(cp);
+            } else {
+                dst[n++] = (char) cp;
+            }
+            p += need;
+        }
+
+        b.position(p);
+        return n - off;
+    }
+}
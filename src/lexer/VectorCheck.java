@@ -0,0 +1,147 @@
+package lexer;
+
+import java.io.IOException;
+import java.util.Random;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  VectorCheck  –  compara o salto em bloco vetorial (VectorCharScan)
+ *  com o laço escalar do Lexer
+ *
+ *  Primeiro confere VectorCharScan.skip() contra uma versão escalar em
+ *  janelas aleatórias (brancos, '}', '\n', letras e caracteres fora do
+ *  ASCII), nos dois modos (caractere procurado e brancos). Depois lê um
+ *  texto gerado, cheio de indentação e de comentários { … } e '%'
+ *  longos, com e sem o salto vetorial: exige os mesmos tokens (tags,
+ *  posições, comprimentos e Lexer.column()) e mede os dois.
+ *
+ *  Precisa de VectorCharScan compilada (ver CharScan) e de
+ *    java --add-modules jdk.incubator.vector -cp <saída> lexer.VectorCheck [MB]
+ *  Sem ela, só avisa e mede o laço escalar. Padrão: 40 MB. Sai com
+ *  status 1 se houver diferença.
+ *  ---------------------------------------------------------------- */
+public final class VectorCheck {
+
+    private static final char[] ALPHABET = { ' ', ' ', ' ', '\n', '\t', '\r', '\b', '}', '}', 'a', '{', '%', 'é', '中' };
+
+    public static void main(String[] args) throws IOException {
+        int mb = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+        CharScan vector = CharScan.create();
+        if (vector == null)
+            System.out.println("VectorCharScan indisponível: compile src-vector e rode com "
+                    + "--add-modules jdk.incubator.vector (ou tire -Dlexer.vector=false)");
+
+        int differences = vector == null ? 0 : kernel(vector, new Random(1));
+        String text = generate(mb << 20, new Random(2));
+
+        TokenBuffer scalar = new TokenBuffer(), fast = new TokenBuffer();
+        int[] scalarColumns = lex(text, null, scalar);
+        long tScalar = Long.MAX_VALUE, tVector = Long.MAX_VALUE;
+        if (vector != null) {
+            int[] fastColumns = lex(text, CharScan.create(), fast);
+            String diff = compare(scalar, scalarColumns, fast, fastColumns);
+            if (diff != null) {
+                System.err.println("Lexer: " + diff);
+                differences++;
+            }
+        }
+        for (int round = 0; round < 5; round++) {
+            long t = System.nanoTime();
+            lex(text, null, scalar);
+            tScalar = Math.min(tScalar, System.nanoTime() - t);
+            if (vector != null) {
+                t = System.nanoTime();
+                lex(text, CharScan.create(), fast);
+                tVector = Math.min(tVector, System.nanoTime() - t);
+            }
+        }
+        double chars = text.length() / 1e6;
+        System.out.printf("Lexer sobre %.1f M caracteres, %d tokens (melhor de 5):%n", chars, scalar.size());
+        System.out.printf("  escalar   %7.1f ms  %7.1f M car/s%n", tScalar / 1e6, chars / (tScalar / 1e9));
+        if (vector != null)
+            System.out.printf("  vetorial  %7.1f ms  %7.1f M car/s  (%s)%n", tVector / 1e6,
+                    chars / (tVector / 1e9), vector.getClass().getSimpleName());
+
+        if (differences > 0)
+            System.exit(1);
+    }
+
+    /* ----------------------------------------------------------
+     *  skip() contra a versão escalar
+     * ---------------------------------------------------------- */
+    private static int kernel(CharScan vector, Random random) {
+        char[] b = new char[4096];
+        int differences = 0, calls = 0;
+        for (int t = 0; t < 20_000; t++) {
+            int spread = 1 + random.nextInt(ALPHABET.length);        // às vezes só brancos
+            for (int i = 0; i < b.length; i++)
+                b[i] = random.nextInt(64) == 0 ? ALPHABET[random.nextInt(ALPHABET.length)]
+                                               : ALPHABET[random.nextInt(Math.min(spread, 7))];
+            int from = random.nextInt(b.length), to = from + random.nextInt(b.length - from + 1) - random.nextInt(4);
+            char stop = random.nextInt(3) == 0 ? CharScan.BLANKS : random.nextBoolean() ? '}' : '\n';
+
+            int got = vector.skip(b, from, to, stop);
+            int lines = 0, last = -1, i = from;
+            for (; i < to; i++) {
+                char c = b[i];
+                if (c >= 0x80 || (stop == CharScan.BLANKS ? !CharClass.isBlank(c) : c == stop)) break;
+                if (c == '\n') { lines++; last = i; }
+            }
+            int expected = Math.max(i, from);
+            calls++;
+            if (got != expected || vector.lines != lines || vector.lastLine != last) {
+                if (++differences <= 5)
+                    System.err.printf("skip(%d, %d, %d): %d/%d/%d, esperado %d/%d/%d%n", from, to, (int) stop,
+                            got, vector.lines, vector.lastLine, expected, lines, last);
+            }
+        }
+        System.out.println(calls + " chamadas de skip() conferidas, " + differences + " diferenças");
+        return differences;
+    }
+
+    /* ----------------------------------------------------------
+     *  Lexer com e sem o salto vetorial
+     * ---------------------------------------------------------- */
+    private static int[] lex(String text, CharScan scan, TokenBuffer out) throws IOException {
+        out.clear();
+        Lexer lex = new Lexer(Source.of(text));
+        lex.charScan(scan);
+        lex.scanAll(out);
+        int[] columns = new int[out.size()];
+        for (int i = 0; i < columns.length; i++)
+            columns[i] = lex.column(out.position(i));
+        return columns;
+    }
+
+    private static String compare(TokenBuffer a, int[] ca, TokenBuffer b, int[] cb) {
+        if (a.size() != b.size())
+            return "escalar leu " + a.size() + " tokens, vetorial " + b.size();
+        for (int i = 0; i < a.size(); i++)
+            if (a.tag(i) != b.tag(i) || a.position(i) != b.position(i) || a.length(i) != b.length(i) || ca[i] != cb[i])
+                return "token " + i + ": escalar " + Position.toString(a.position(i)) + " col " + ca[i]
+                        + ", vetorial " + Position.toString(b.position(i)) + " col " + cb[i];
+        return null;
+    }
+
+    /** Indentação funda, comentários longos (alguns com acentos) e linhas além de MAX_COLUMN. */
+    private static String generate(int size, Random random) {
+        StringBuilder sb = new StringBuilder(size + 4096);
+        while (sb.length() < size) {
+            int k = random.nextInt(100) == 0 ? 9 : random.nextInt(9);
+            String indent = " ".repeat(random.nextInt(40)) + "\t".repeat(random.nextInt(3));
+            if (k < 5) {
+                sb.append(indent).append("x").append(random.nextInt(100)).append(" = y + 1;\n");
+            } else if (k < 8) {
+                sb.append(indent).append('{');
+                for (int n = random.nextInt(30); n > 0; n--)
+                    sb.append(" linha de comentário sem nada de especial ").append(n).append('\n');
+                sb.append("}\n");
+            } else if (k < 9) {
+                sb.append(indent).append("% ").append("comentário até o fim da linha ".repeat(1 + random.nextInt(4))).append('\n');
+            } else {
+                sb.append(" ".repeat(900 + random.nextInt(400))).append("z = 1; { ")
+                  .append("-".repeat(random.nextInt(2000))).append(" } w = 2;\n");
+            }
+        }
+        return sb.toString();
+    }
+}
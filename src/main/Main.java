@@ -1,8 +1,20 @@
 package main;
 
+import ast.ConstantFolder;
+import ir.Cfg;
+import ir.CopyPropagation;
+import ir.DeadCode;
+import ir.DefiniteAssignment;
+import ir.Lowering;
+import ir.Sccp;
+import ir.Ssa;
+import ir.Tac;
 import lexer.Lexer;
 import lexer.Token;
+import parser.Diagnostic;
+import parser.Diagnostics;
 import parser.ParserException;
+import parser.SemanticException;
 import parser.Parser;
 
 import java.io.IOException;
@@ -30,9 +42,46 @@ public class Main {
             // while ((t = lex.scan()) != null) {
             //     System.out.println("TOKEN: " + t);
             // }
-            Parser parser = new Parser(lex);
+            // segundo argumento opcional: limite de erros relatados
+            Diagnostics diags = args.length > 1
+                    ? new Diagnostics(Integer.parseInt(args[1]))
+                    : new Diagnostics();
+            Parser parser = new Parser(lex, diags);
             parser.parse();
-        } catch (ParserException | IOException e) {
+            // avisos de leituras de variáveis que podem não ter sido atribuídas (só sem erros)
+            if (diags.count() == 0)
+                new DefiniteAssignment(new Cfg(Lowering.lower(parser.ast()))).check(diags);
+            for (Diagnostic d : diags.list())
+                System.err.println(d);
+            if (diags.count() == 0)
+                System.out.println("Compilação concluída sem erros!");
+            // -Dmain.opt=true: dobra constantes, otimiza em SSA e relata quanto mudou (só sem erros)
+            Tac code = null;
+            if (Boolean.getBoolean("main.opt") && diags.count() == 0) {
+                ConstantFolder folder = new ConstantFolder(parser.ast());
+                folder.run();
+                System.out.println(filename + ": " + folder.folded() + " nós dobrados, "
+                        + folder.eliminatedBlocks() + " blocos eliminados");
+                Tac lowered = Lowering.lower(parser.ast());
+                int before = lowered.size();
+                Ssa ssa = new Ssa(lowered);
+                Sccp sccp = new Sccp(ssa);
+                sccp.run();
+                CopyPropagation copies = new CopyPropagation(ssa);
+                copies.run();
+                DeadCode dce = new DeadCode(ssa);
+                dce.run();
+                code = ssa.toTac();
+                System.out.println(filename + ": SSA com " + ssa.phis() + " phis; "
+                        + sccp.constants() + " constantes, " + sccp.branches() + " desvios resolvidos, "
+                        + sccp.unreachable() + " blocos mortos; " + copies.copies() + " cópias propagadas; "
+                        + dce.removed() + " instruções removidas; "
+                        + before + " -> " + code.size() + " instruções");
+            }
+            // -Dmain.ir=true: mostra o código de três endereços (só sem erros)
+            if (Boolean.getBoolean("main.ir") && diags.count() == 0)
+                System.out.print(new Cfg(code != null ? code : Lowering.lower(parser.ast())));
+        } catch (ParserException | SemanticException | IOException e) {
             System.err.println(e.getMessage());
         }
     }
@@ -44,4 +93,4 @@ public class Main {
 // for dir in modificada_6; do  # pastas-origem dos testes
 //   for i in {2,4,5}; do     /usr/bin/env /usr/lib/jvm/java-17-openjdk-amd64/bin/java       -XX:+ShowCodeDetailsInExceptionMessages       -cp /home/gi/.config/Code/User/workspaceStorage/2e3b82d01d3e7ac12c7df6fd79e9be5f/redhat.java/jdt_ws/Trabalho_Pratico_3935c5a7/bin       main.Main "$dir/teste$i.txt"       2> "$dir/resultados/$dir-erro$i";   done; done
 
-// rm -rf /home/gi/Desktop/Semestre8/Compiladores/Trabalho_Pratico/modificada_3/resultados && mkdir /home/gi/Desktop/Semestre8/Compiladores/Trabalho_Pratico/modificada_3/resultados
\ No newline at end of file
+// rm -rf /home/gi/Desktop/Semestre8/Compiladores/Trabalho_Pratico/modificada_3/resultados && mkdir /home/gi/Desktop/Semestre8/Compiladores/Trabalho_Pratico/modificada_3/resultados
\ No newline at end of file
@@ -0,0 +1,16 @@
+package parser;
+
+import lexer.Position;
+
+/** Um erro ou aviso registrado durante a compilação (sem pilha de chamadas). */
+public record Diagnostic(Kind kind, long position, String message) {
+
+    public enum Kind { LEXICAL, SYNTAX, SEMANTIC, WARNING }
+
+    public boolean isError() { return kind != Kind.WARNING; }
+
+    public int line() { return Position.line(position); }
+
+    @Override
+    public String toString() { return message; }
+}
@@ -0,0 +1,54 @@
+package parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// A classe Diagnostics acumula os erros (e avisos) de uma compilação, até um limite configurável
+public class Diagnostics {
+
+    public static final int DEFAULT_LIMIT = 100;
+
+    private final int limit;
+    private final ArrayList<Diagnostic> list = new ArrayList<>();
+    private int errors, warnings;
+
+    public Diagnostics() {
+        this(DEFAULT_LIMIT);
+    }
+
+    public Diagnostics(int limit) {
+        if (limit < 1)
+            throw new IllegalArgumentException("limite de erros deve ser >= 1");
+        this.limit = limit;
+    }
+
+    /**
+     * Registra o erro ou aviso; ignorado depois que o limite foi atingido.
+     * Erros e avisos têm limites separados, e avisos não contam em count().
+     */
+    public void add(Diagnostic.Kind kind, long pos, String message) {
+        if (kind == Diagnostic.Kind.WARNING) {
+            if (warnings == limit) return;
+            warnings++;
+        } else {
+            if (errors == limit) return;
+            errors++;
+        }
+        list.add(new Diagnostic(kind, pos, message));
+    }
+
+    public boolean isFull() { return errors >= limit; }
+
+    /** Quantidade de erros (sem os avisos). */
+    public int count() { return errors; }
+
+    public int warnings() { return warnings; }
+
+    public List<Diagnostic> list() { return Collections.unmodifiableList(list); }
+
+    public void clear() {
+        list.clear();
+        errors = warnings = 0;
+    }
+}
@@ -0,0 +1,247 @@
+package parser;
+
+import ast.Ast;
+import lexer.Lexer;
+import lexer.Source;
+
+import java.io.IOException;
+import java.util.Random;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  ExprCheck  –  compara as expressões por precedência (climb) com a
+ *  versão recursiva de referência (-Dparser.recursiveExpr)
+ *
+ *  Gera programas com expressões aleatórias (variáveis int, float e
+ *  char, constantes, '!', '-' unário, addop, mulop, um relop por nível
+ *  de parênteses, aninhamento de até 6 níveis); metade só com contas
+ *  int e condições bool, sem erros de tipo, e um quarto com um token
+ *  trocado ou removido. Cada programa é analisado pelas duas versões, com
+ *  Diagnostics, e exige os mesmos nós (tipo de nó, posição, valor, tipo
+ *  e ligações) e os mesmos diagnósticos.
+ *
+ *  Depois analisa 'a = (a + (a + ... a))' com profundidades de 10 a
+ *  100000, numa thread com pilha fixa de STACK bytes: mede o tempo por
+ *  nível de cada versão e mostra onde a recursiva estoura a pilha.
+ *
+ *  Uso: java parser.ExprCheck [programas]
+ *  Padrão: 5000. Sai com status 1 se houver diferença, ou se climb
+ *  estourar a pilha.
+ *  ---------------------------------------------------------------- */
+public final class ExprCheck {
+
+    private static final long STACK = 1L << 20;     // o -Xss padrão da JVM em 64 bits
+
+    private static final String[] OPERANDS = { "a", "b", "x", "c", "1", "7", "2.5", "'z'" };
+    private static final String[] OPERATORS = { "+", "-", "||", "*", "/", "&&" };
+    private static final String[] INT_OPERANDS = { "a", "b", "1", "7" };
+    private static final String[] ARITHMETIC = { "+", "-", "*", "/" };
+    private static final String[] RELOPS = { "==", ">", ">=", "<", "<=", "!=" };
+
+    private final Random random;
+    private final StringBuilder sb = new StringBuilder();
+    private boolean typed;          // contas só com int e condições bool: sem erros semânticos
+
+    private ExprCheck(long seed) {
+        random = new Random(seed);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int programs = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+
+        ExprCheck g = new ExprCheck(1);
+        int differences = 0, withErrors = 0;
+        for (int t = 0; t < programs; t++) {
+            String src = g.program();
+            Result climb = parse(src, false), recursive = parse(src, true);
+            String diff = climb.compare(recursive);
+            if (climb.diagnostics.length() > 0) withErrors++;
+            if (diff != null && ++differences <= 5)
+                System.err.println("programa " + t + ": " + diff + "\n" + src);
+        }
+        System.out.println(programs + " programas (" + withErrors + " com diagnósticos), "
+                + differences + " com diferença");
+
+        System.out.printf("profundidade   climb (ns/nível)   recursiva (ns/nível)   (pilha de %d KB)%n", STACK >> 10);
+        for (int depth : new int[] { 10, 100, 1000, 10_000, 100_000 }) {
+            String src = nested(depth);
+            Object[] climb = deep(src, false), recursive = deep(src, true);
+            if (climb[0] == null) {
+                System.err.println("climb estourou a pilha na profundidade " + depth);
+                differences++;
+            } else if (recursive[0] != null) {
+                String diff = ((Result) climb[0]).compare((Result) recursive[0]);
+                if (diff != null) {
+                    System.err.println("profundidade " + depth + ": " + diff);
+                    differences++;
+                }
+            }
+            System.out.printf("%12d   %16s   %20s%n", depth, cell(climb, depth), cell(recursive, depth));
+        }
+
+        if (differences > 0)
+            System.exit(1);
+    }
+
+    /* ----------------------------------------------------------
+     *  Resultado de uma análise: a Ast e os diagnósticos
+     * ---------------------------------------------------------- */
+    private static final class Result {
+        final Ast ast;
+        final StringBuilder diagnostics = new StringBuilder();
+
+        Result(Ast ast, Diagnostics diags) {
+            this.ast = ast;
+            for (Diagnostic d : diags.list())
+                diagnostics.append(d.kind()).append(' ').append(d.position()).append(' ').append(d).append('\n');
+        }
+
+        /** Primeira diferença em relação a o, ou null se forem iguais. */
+        String compare(Result o) {
+            if (!diagnostics.toString().equals(o.diagnostics.toString()))
+                return "diagnósticos:\n" + diagnostics + "x\n" + o.diagnostics;
+            Ast a = ast, b = o.ast;
+            if (a.size() != b.size() || a.root() != b.root())
+                return "climb fez " + a.size() + " nós, a recursiva " + b.size();
+            for (int n = 0; n < a.size(); n++)
+                if (a.kind(n) != b.kind(n) || a.position(n) != b.position(n) || a.value(n) != b.value(n)
+                        || a.typeOrdinal(n) != b.typeOrdinal(n) || a.child(n) != b.child(n) || a.next(n) != b.next(n))
+                    return "nó " + n + " difere";
+            return null;
+        }
+    }
+
+    private static Result parse(String src, boolean recursive) throws IOException {
+        Diagnostics diags = new Diagnostics();
+        Parser parser = new Parser(new Lexer(Source.of(src)), diags);
+        parser.recursiveExpr(recursive);
+        parser.parse();
+        return new Result(parser.ast(), diags);
+    }
+
+    /** {Result ou null se estourou a pilha, nanossegundos} */
+    private static Object[] deep(String src, boolean recursive) throws InterruptedException {
+        Object[] out = new Object[2];
+        Thread t = new Thread(null, () -> {
+            try {
+                long best = Long.MAX_VALUE;
+                Result r = null;
+                for (int round = 0; round < Math.max(3, 100_000 / src.length()); round++) {
+                    long start = System.nanoTime();
+                    r = parse(src, recursive);
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+                out[0] = r;
+                out[1] = best;
+            } catch (StackOverflowError e) {
+                out[1] = -1L;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }, "expr", STACK);
+        t.start();
+        t.join();
+        return out;
+    }
+
+    private static String cell(Object[] r, int depth) {
+        return r[0] == null ? "StackOverflowError" : String.format("%.0f", (long) r[1] / (double) depth);
+    }
+
+    /* ----------------------------------------------------------
+     *  Gerador
+     * ---------------------------------------------------------- */
+    private static String nested(int depth) {
+        StringBuilder sb = new StringBuilder("program\nint: a;\nbegin\na = ");
+        for (int i = 1; i < depth; i++) sb.append("(a + ");
+        sb.append('a');
+        for (int i = 1; i < depth; i++) sb.append(')');
+        return sb.append("\nend\n").toString();
+    }
+
+    private String program() {
+        sb.setLength(0);
+        sb.append("program\nint: a, b;\nfloat: x;\nchar: c;\nbegin\n");
+        typed = random.nextBoolean();
+        for (int n = 1 + random.nextInt(4); n > 0; n--) {
+            if (random.nextBoolean()) {
+                sb.append("a = ");
+                if (typed) arithmetic(0);
+                else expr(0, false);
+                sb.append(";\n");
+            } else {
+                sb.append("if ");
+                if (typed) condition(0);
+                else expr(0, true);
+                sb.append(" then\nb = 1\nend;\n");
+            }
+        }
+        sb.append("out(a)\nend\n");
+        String src = sb.toString();
+        if (random.nextInt(4) > 0)
+            return src;
+
+        /* troca ou remove um token da parte de comandos */
+        String[] tokens = src.substring(src.indexOf("begin")).split(" ");
+        int k = random.nextInt(tokens.length);
+        tokens[k] = random.nextBoolean() ? "" : OPERATORS[random.nextInt(OPERATORS.length)];
+        return src.substring(0, src.indexOf("begin")) + String.join(" ", tokens);
+    }
+
+    private void expr(int depth, boolean relop) {
+        simple(depth);
+        if (relop) {
+            sb.append(' ').append(RELOPS[random.nextInt(RELOPS.length)]).append(' ');
+            simple(depth);
+        }
+    }
+
+    private void simple(int depth) {
+        for (int n = random.nextInt(4); ; n--) {
+            int u = random.nextInt(6);
+            if (u == 0) sb.append('!');
+            else if (u == 1) sb.append('-');
+            if (depth < 6 && random.nextInt(4) == 0) {
+                sb.append('(');
+                expr(depth + 1, random.nextBoolean());
+                sb.append(')');
+            } else {
+                sb.append(OPERANDS[random.nextInt(OPERANDS.length)]);
+            }
+            if (n == 0) break;
+            sb.append(' ').append(OPERATORS[random.nextInt(OPERATORS.length)]).append(' ');
+        }
+    }
+
+    private void arithmetic(int depth) {
+        for (int n = random.nextInt(4); ; n--) {
+            if (random.nextInt(6) == 0) sb.append('-');
+            if (depth < 6 && random.nextInt(4) == 0) {
+                sb.append('(');
+                arithmetic(depth + 1);
+                sb.append(')');
+            } else {
+                sb.append(INT_OPERANDS[random.nextInt(INT_OPERANDS.length)]);
+            }
+            if (n == 0) break;
+            sb.append(' ').append(ARITHMETIC[random.nextInt(ARITHMETIC.length)]).append(' ');
+        }
+    }
+
+    /* int relop int, ou condições entre parênteses ligadas por && e || */
+    private void condition(int depth) {
+        if (depth == 6 || random.nextBoolean()) {
+            arithmetic(depth);
+            sb.append(' ').append(RELOPS[random.nextInt(RELOPS.length)]).append(' ');
+            arithmetic(depth);
+            return;
+        }
+        for (int n = random.nextInt(3); ; n--) {
+            if (random.nextInt(4) == 0) sb.append('!');
+            sb.append('(');
+            condition(depth + 1);
+            sb.append(')');
+            if (n == 0) break;
+            sb.append(random.nextBoolean() ? " && " : " || ");
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package parser;
+
+import ast.Ast;
+import lexer.Lexer;
+import lexer.Source;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  LL1Check  –  compara parseLL1() (driver por tabela, com recuperação
+ *  por FOLLOW) com parse() (descida recursiva), os dois com Diagnostics
+ *
+ *  Gera programas com declarações no início e dentro de if / while /
+ *  repeat, comandos aninhados, in/out e expressões; três quartos deles
+ *  recebem de 1 a 3 estragos (token removido, trocado ou inserido, em
+ *  qualquer ponto, inclusive program/begin/end e as declarações). Cada
+ *  programa é analisado pelas duas versões, com limite de erros padrão
+ *  ou de 1 a 4 (para passar pelo ABORT), e exige os mesmos diagnósticos
+ *  (tipo, posição e texto) e a mesma Ast. Arquivos dados na linha de
+ *  comando (os teste*.txt, por exemplo) são comparados do mesmo jeito.
+ *
+ *  Uso: java parser.LL1Check [programas] [arquivo...]
+ *  Padrão: 20000. Sai com status 1 se houver diferença.
+ *  ---------------------------------------------------------------- */
+public final class LL1Check {
+
+    private static final String[] NAMES = { "a", "b", "x", "c", "n" };
+    private static final String[] TYPES = { "int", "float", "char" };
+    private static final String[] OPERANDS = { "a", "b", "x", "c", "n", "1", "7", "2.5", "'z'" };
+    private static final String[] OPERATORS = { "+", "-", "||", "*", "/", "&&" };
+    private static final String[] RELOPS = { "==", ">", ">=", "<", "<=", "!=" };
+    private static final String[] JUNK = {
+        ";", ":", ",", "(", ")", "=", "+", "*", "==", "!", "program", "begin", "end", "int", "char",
+        "if", "then", "else", "while", "do", "repeat", "until", "in", "out", "a", "1", "{ c }", "\"s\"", "@"
+    };
+
+    private final Random random;
+    private final StringBuilder sb = new StringBuilder();
+
+    private LL1Check(long seed) {
+        random = new Random(seed);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int programs = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int differences = 0, withErrors = 0, recovered = 0;
+
+        for (int i = 1; i < args.length; i++) {
+            String src = new String(Files.readAllBytes(Paths.get(args[i])), StandardCharsets.UTF_8);
+            String diff = compare(src, 0);
+            if (diff != null) {
+                System.err.println(args[i] + ": " + diff);
+                differences++;
+            }
+        }
+
+        LL1Check g = new LL1Check(1);
+        for (int t = 0; t < programs; t++) {
+            String src = g.program();
+            int limit = g.random.nextInt(3) == 0 ? 1 + g.random.nextInt(4) : 0;
+            Result recursive = parse(src, false, limit);
+            if (recursive.diagnostics.length() > 0) withErrors++;
+            if (recursive.syntaxErrors > 1) recovered++;
+            String diff = recursive.compare(parse(src, true, limit));
+            if (diff != null && ++differences <= 5)
+                System.err.println("programa " + t + " (limite " + limit + "): " + diff + "\n" + src);
+        }
+        System.out.println((args.length > 1 ? args.length - 1 + " arquivos e " : "") + programs + " programas ("
+                + withErrors + " com diagnósticos, " + recovered + " com mais de um erro sintático), "
+                + differences + " com diferença");
+
+        if (differences > 0)
+            System.exit(1);
+    }
+
+    private static String compare(String src, int limit) throws IOException {
+        return parse(src, false, limit).compare(parse(src, true, limit));
+    }
+
+    /* ----------------------------------------------------------
+     *  Resultado de uma análise: a Ast e os diagnósticos
+     * ---------------------------------------------------------- */
+    private static final class Result {
+        final Ast ast;
+        final StringBuilder diagnostics = new StringBuilder();
+        int syntaxErrors;
+
+        Result(Ast ast, Diagnostics diags) {
+            this.ast = ast;
+            for (Diagnostic d : diags.list()) {
+                if (d.kind() == Diagnostic.Kind.SYNTAX) syntaxErrors++;
+                diagnostics.append(d.kind()).append(' ').append(d.position()).append(' ').append(d).append('\n');
+            }
+        }
+
+        /** Primeira diferença em relação a o (o driver LL(1)), ou null se forem iguais. */
+        String compare(Result o) {
+            if (!diagnostics.toString().equals(o.diagnostics.toString()))
+                return "diagnósticos:\n" + diagnostics + "x\n" + o.diagnostics;
+            Ast a = ast, b = o.ast;
+            if (a.size() != b.size() || a.root() != b.root())
+                return "parse() fez " + a.size() + " nós, parseLL1() " + b.size();
+            for (int n = 0; n < a.size(); n++)
+                if (a.kind(n) != b.kind(n) || a.position(n) != b.position(n) || a.value(n) != b.value(n)
+                        || a.typeOrdinal(n) != b.typeOrdinal(n) || a.child(n) != b.child(n) || a.next(n) != b.next(n))
+                    return "nó " + n + " difere";
+            return null;
+        }
+    }
+
+    private static Result parse(String src, boolean table, int limit) throws IOException {
+        Diagnostics diags = limit > 0 ? new Diagnostics(limit) : new Diagnostics();
+        Parser parser = new Parser(new Lexer(Source.of(src)), diags);
+        if (table)
+            parser.parseLL1();
+        else
+            parser.parse();
+        return new Result(parser.ast(), diags);
+    }
+
+    /* ----------------------------------------------------------
+     *  Gerador
+     * ---------------------------------------------------------- */
+    private String program() {
+        sb.setLength(0);
+        sb.append("program\n");
+        decls(3);
+        sb.append("begin\n");
+        stmts(0);
+        sb.append("\nend\n");
+        String src = sb.toString();
+        if (random.nextInt(4) == 0)
+            return src;
+
+        /* estraga de 1 a 3 tokens em qualquer ponto */
+        String[] tokens = src.split(" ");
+        for (int n = 1 + random.nextInt(3); n > 0; n--) {
+            int k = random.nextInt(tokens.length);
+            switch (random.nextInt(3)) {
+                case 0: tokens[k] = ""; break;
+                case 1: tokens[k] = JUNK[random.nextInt(JUNK.length)]; break;
+                default: tokens[k] = tokens[k] + " " + JUNK[random.nextInt(JUNK.length)];
+            }
+        }
+        return String.join(" ", tokens);
+    }
+
+    private void decls(int max) {
+        for (int n = random.nextInt(max + 1); n > 0; n--) {
+            sb.append(TYPES[random.nextInt(TYPES.length)]).append(" : ");
+            for (int k = random.nextInt(3); ; k--) {
+                sb.append(NAMES[random.nextInt(NAMES.length)]);
+                if (k <= 0) break;
+                sb.append(" , ");
+            }
+            sb.append(" ;\n");
+        }
+    }
+
+    private void stmts(int depth) {
+        for (int n = random.nextInt(4); ; n--) {
+            stmt(depth);
+            if (n <= 0) break;
+            sb.append(" ;\n");
+        }
+    }
+
+    private void stmt(int depth) {
+        int k = random.nextInt(depth < 3 ? 7 : 4);
+        switch (k) {
+            case 0:
+            case 1:
+                sb.append(NAMES[random.nextInt(NAMES.length)]).append(" = ");
+                expr(0, false);
+                break;
+            case 2:
+                sb.append("in ( ").append(NAMES[random.nextInt(NAMES.length)]).append(" )");
+                break;
+            case 3:
+                sb.append("out ( ");
+                if (random.nextBoolean()) sb.append("\"texto\"");
+                else expr(0, false);
+                sb.append(" )");
+                break;
+            case 4:
+                sb.append("if ");
+                expr(0, true);
+                sb.append(" then\n");
+                body(depth);
+                if (random.nextBoolean()) {
+                    sb.append("\nelse\n");
+                    body(depth);
+                }
+                sb.append("\nend");
+                break;
+            case 5:
+                sb.append("while ");
+                expr(0, true);
+                sb.append(" do\n");
+                body(depth);
+                sb.append("\nend");
+                break;
+            default:
+                sb.append("repeat\n");
+                body(depth);
+                sb.append("\nuntil ");
+                expr(0, true);
+        }
+    }
+
+    private void body(int depth) {
+        decls(2);
+        stmts(depth + 1);
+    }
+
+    private void expr(int depth, boolean relop) {
+        simple(depth);
+        if (relop) {
+            sb.append(' ').append(RELOPS[random.nextInt(RELOPS.length)]).append(' ');
+            simple(depth);
+        }
+    }
+
+    private void simple(int depth) {
+        for (int n = random.nextInt(3); ; n--) {
+            int u = random.nextInt(8);
+            if (u == 0) sb.append("! ");
+            else if (u == 1) sb.append("- ");
+            if (depth < 3 && random.nextInt(5) == 0) {
+                sb.append("( ");
+                expr(depth + 1, random.nextBoolean());
+                sb.append(" )");
+            } else {
+                sb.append(OPERANDS[random.nextInt(OPERANDS.length)]);
+            }
+            if (n <= 0) break;
+            sb.append(' ').append(OPERATORS[random.nextInt(OPERATORS.length)]).append(' ');
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package parser;
+
+import lexer.Tag;
+
+// Gerado por gen.LL1Generator a partir de grammar.txt -- não editar à mão
+final class LL1Table {
+
+    private LL1Table() { }
+
+    /*
+     * Símbolo s: terminal se s < NT_BASE, não-terminal s - NT_BASE se
+     * s < ACTION_BASE, senão ação s - ACTION_BASE.
+     */
+    static final int TERMINALS = 40, NONTERMINALS = 34;
+    static final int NT_BASE = TERMINALS, ACTION_BASE = NT_BASE + NONTERMINALS;
+    static final int WORDS = 1;
+
+    /* não-terminais da gramática (os auxiliares não têm nome) */
+    static final int NT_PROGRAM = 0;
+    static final int NT_DECL_LIST = 1;
+    static final int NT_DECL = 2;
+    static final int NT_IDENT_LIST = 3;
+    static final int NT_TYPE = 4;
+    static final int NT_STMT_LIST = 5;
+    static final int NT_STMT = 6;
+    static final int NT_ASSIGN_STMT = 7;
+    static final int NT_IF_STMT = 8;
+    static final int NT_ELSE_PART = 9;
+    static final int NT_WHILE_STMT = 10;
+    static final int NT_REPEAT_STMT = 11;
+    static final int NT_BODY = 12;
+    static final int NT_READ_STMT = 13;
+    static final int NT_WRITE_STMT = 14;
+    static final int NT_WRITABLE = 15;
+    static final int NT_CONDITION = 16;
+    static final int NT_EXPRESSION = 17;
+    static final int NT_SIMPLE_EXPR = 18;
+    static final int NT_TERM = 19;
+    static final int NT_FACTOR_A = 20;
+    static final int NT_FACTOR = 21;
+    static final int NT_CONSTANT = 22;
+    static final int NT_RELOP = 23;
+    static final int NT_ADDOP = 24;
+    static final int NT_MULOP = 25;
+
+    /* ações semânticas (Parser.action) */
+    static final int ACT_BLOCK = 0;
+    static final int ACT_PROGRAM = 1;
+    static final int ACT_POP = 2;
+    static final int ACT_DECL = 3;
+    static final int ACT_TYPE = 4;
+    static final int ACT_CHILD = 5;
+    static final int ACT_LOOKUP = 6;
+    static final int ACT_ASSIGN = 7;
+    static final int ACT_POS = 8;
+    static final int ACT_IF_COND = 9;
+    static final int ACT_SCOPE = 10;
+    static final int ACT_IF = 11;
+    static final int ACT_NONE = 12;
+    static final int ACT_WHILE_COND = 13;
+    static final int ACT_WHILE = 14;
+    static final int ACT_REPEAT = 15;
+    static final int ACT_LEAVE = 16;
+    static final int ACT_READ = 17;
+    static final int ACT_WRITE = 18;
+    static final int ACT_LITERAL = 19;
+    static final int ACT_OP = 20;
+    static final int ACT_BINARY = 21;
+    static final int ACT_UNARY = 22;
+    static final int ACT_VAR = 23;
+    static final int ACT_CONST = 24;
+
+    /* tag do Lexer de cada terminal */
+    static final int[] TAG = {
+        Tag.EOF,               // EOF
+        Tag.PROGRAM,           // "program"
+        Tag.BEGIN,             // "begin"
+        Tag.END,               // "end"
+        Tag.INT,               // "int"
+        Tag.FLOAT,             // "float"
+        Tag.CHAR,              // "char"
+        Tag.IF,                // "if"
+        Tag.THEN,              // "then"
+        Tag.ELSE,              // "else"
+        Tag.WHILE,             // "while"
+        Tag.DO,                // "do"
+        Tag.REPEAT,            // "repeat"
+        Tag.UNTIL,             // "until"
+        Tag.IN,                // "in"
+        Tag.OUT,               // "out"
+        Tag.EQ,                // "=="
+        Tag.GT,                // ">"
+        Tag.GE,                // ">="
+        Tag.LT,                // "<"
+        Tag.LE,                // "<="
+        Tag.NE,                // "!="
+        Tag.ASSIGN,            // "="
+        Tag.PLUS,              // "+"
+        Tag.MINUS,             // "-"
+        Tag.OR,                // "||"
+        Tag.TIMES,             // "*"
+        Tag.DIV,               // "/"
+        Tag.AND,               // "&&"
+        '!',                   // "!"
+        Tag.SEMICOLON,         // ";"
+        Tag.COLON,             // ":"
+        Tag.COMMA,             // ","
+        Tag.LPAREN,            // "("
+        Tag.RPAREN,            // ")"
+        Tag.ID,                // identifier
+        Tag.LITERAL,           // literal
+        Tag.NUM,               // integer_const
+        Tag.REAL,              // float_const
+        Tag.CHAR_CONST,        // char_const
+    };
+
+    static final String[] NAME = {
+        "program",
+        "decl-list",
+        "decl",
+        "ident-list",
+        "type",
+        "stmt-list",
+        "stmt",
+        "assign-stmt",
+        "if-stmt",
+        "else-part",
+        "while-stmt",
+        "repeat-stmt",
+        "body",
+        "read-stmt",
+        "write-stmt",
+        "writable",
+        "condition",
+        "expression",
+        "simple-expr",
+        "term",
+        "factor-a",
+        "factor",
+        "constant",
+        "relop",
+        "addop",
+        "mulop",
+        "program#1",
+        "decl-list#2",
+        "ident-list#3",
+        "stmt-list#4",
+        "body#5",
+        "expression#6",
+        "simple-expr#7",
+        "term#8",
+    };
+
+    /* lado direito de cada produção, na ordem da gramática */
+    static final int[] LHS = {26, 26, 0, 27, 27, 1, 2, 28, 28, 3, 4, 4, 4, 29, 29, 5, 6, 6, 6, 6, 6, 6, 7, 8, 9, 9, 10, 11, 30, 30, 12, 13, 14, 15, 15, 16, 31, 31, 17, 32, 32, 18, 33, 33, 19, 20, 20, 20, 21, 21, 21, 22, 22, 22, 23, 23, 23, 23, 23, 23, 24, 24, 24, 25, 25, 25};
+
+    static final int[][] RHS = {
+        {41},                          // 0: program#1 ::= decl-list
+        {},                            // 1: program#1 ::=
+        {1, 74, 66, 2, 75, 45, 3},     // 2: program ::= "program" @block program#1 "begin" @program stmt-list "end"
+        {42, 67},                      // 3: decl-list#2 ::= decl decl-list#2
+        {},                            // 4: decl-list#2 ::=
+        {42, 67},                      // 5: decl-list ::= decl decl-list#2
+        {44, 31, 43, 30, 76},          // 6: decl ::= type ":" ident-list ";" @pop
+        {32, 35, 77, 68},              // 7: ident-list#3 ::= "," identifier @decl ident-list#3
+        {},                            // 8: ident-list#3 ::=
+        {35, 77, 68},                  // 9: ident-list ::= identifier @decl ident-list#3
+        {4, 78},                       // 10: type ::= "int" @type
+        {5, 78},                       // 11: type ::= "float" @type
+        {6, 78},                       // 12: type ::= "char" @type
+        {30, 46, 79, 69},              // 13: stmt-list#4 ::= ";" stmt @child stmt-list#4
+        {},                            // 14: stmt-list#4 ::=
+        {46, 79, 69},                  // 15: stmt-list ::= stmt @child stmt-list#4
+        {47},                          // 16: stmt ::= assign-stmt
+        {48},                          // 17: stmt ::= if-stmt
+        {50},                          // 18: stmt ::= while-stmt
+        {51},                          // 19: stmt ::= repeat-stmt
+        {53},                          // 20: stmt ::= read-stmt
+        {54},                          // 21: stmt ::= write-stmt
+        {35, 80, 22, 58, 81},          // 22: assign-stmt ::= identifier @lookup "=" simple-expr @assign
+        {7, 82, 56, 83, 8, 84, 52, 49, 3, 85}, // 23: if-stmt ::= "if" @pos condition @if-cond "then" @scope body else-part "end" @if
+        {9, 84, 52},                   // 24: else-part ::= "else" @scope body
+        {86},                          // 25: else-part ::= @none
+        {10, 82, 56, 87, 11, 84, 52, 3, 88}, // 26: while-stmt ::= "while" @pos condition @while-cond "do" @scope body "end" @while
+        {12, 82, 84, 52, 13, 56, 89},  // 27: repeat-stmt ::= "repeat" @pos @scope body "until" condition @repeat
+        {41},                          // 28: body#5 ::= decl-list
+        {},                            // 29: body#5 ::=
+        {70, 45, 90},                  // 30: body ::= body#5 stmt-list @leave
+        {14, 82, 33, 35, 80, 34, 91},  // 31: read-stmt ::= "in" @pos "(" identifier @lookup ")" @read
+        {15, 82, 33, 55, 34, 92},      // 32: write-stmt ::= "out" @pos "(" writable ")" @write
+        {36, 93},                      // 33: writable ::= literal @literal
+        {58},                          // 34: writable ::= simple-expr
+        {57},                          // 35: condition ::= expression
+        {63, 94, 58, 95},              // 36: expression#6 ::= relop @op simple-expr @binary
+        {},                            // 37: expression#6 ::=
+        {58, 71},                      // 38: expression ::= simple-expr expression#6
+        {64, 94, 59, 95, 72},          // 39: simple-expr#7 ::= addop @op term @binary simple-expr#7
+        {},                            // 40: simple-expr#7 ::=
+        {59, 72},                      // 41: simple-expr ::= term simple-expr#7
+        {65, 94, 60, 95, 73},          // 42: term#8 ::= mulop @op factor-a @binary term#8
+        {},                            // 43: term#8 ::=
+        {60, 73},                      // 44: term ::= factor-a term#8
+        {61},                          // 45: factor-a ::= factor
+        {29, 94, 61, 96},              // 46: factor-a ::= "!" @op factor @unary
+        {24, 94, 61, 96},              // 47: factor-a ::= "-" @op factor @unary
+        {35, 97},                      // 48: factor ::= identifier @var
+        {62},                          // 49: factor ::= constant
+        {33, 57, 34},                  // 50: factor ::= "(" expression ")"
+        {37, 98},                      // 51: constant ::= integer_const @const
+        {38, 98},                      // 52: constant ::= float_const @const
+        {39, 98},                      // 53: constant ::= char_const @const
+        {16},                          // 54: relop ::= "=="
+        {17},                          // 55: relop ::= ">"
+        {18},                          // 56: relop ::= ">="
+        {19},                          // 57: relop ::= "<"
+        {20},                          // 58: relop ::= "<="
+        {21},                          // 59: relop ::= "!="
+        {23},                          // 60: addop ::= "+"
+        {24},                          // 61: addop ::= "-"
+        {25},                          // 62: addop ::= "||"
+        {26},                          // 63: mulop ::= "*"
+        {27},                          // 64: mulop ::= "/"
+        {28},                          // 65: mulop ::= "&&"
+    };
+
+    /* FIRST e FOLLOW: bit k = terminal k, WORDS longs por não-terminal */
+    static final long[] FIRST = {
+        0x2L,
+        0x70L,
+        0x70L,
+        0x800000000L,
+        0x70L,
+        0x80000d480L,
+        0x80000d480L,
+        0x800000000L,
+        0x80L,
+        0x200L,
+        0x400L,
+        0x1000L,
+        0x80000d4f0L,
+        0x4000L,
+        0x8000L,
+        0xfa21000000L,
+        0xea21000000L,
+        0xea21000000L,
+        0xea21000000L,
+        0xea21000000L,
+        0xea21000000L,
+        0xea00000000L,
+        0xe000000000L,
+        0x3f0000L,
+        0x3800000L,
+        0x1c000000L,
+        0x70L,
+        0x70L,
+        0x100000000L,
+        0x40000000L,
+        0x70L,
+        0x3f0000L,
+        0x3800000L,
+        0x1c000000L,
+    };
+
+    static final long[] FOLLOW = {
+        0x1L,
+        0x80000d484L,
+        0x80000d4f4L,
+        0x40000000L,
+        0x80000000L,
+        0x2208L,
+        0x40002208L,
+        0x40002208L,
+        0x40002208L,
+        0x8L,
+        0x40002208L,
+        0x40002208L,
+        0x2208L,
+        0x40002208L,
+        0x40002208L,
+        0x400000000L,
+        0x40002b08L,
+        0x440002b08L,
+        0x4403f2b08L,
+        0x443bf2b08L,
+        0x45fbf2b08L,
+        0x45fbf2b08L,
+        0x45fbf2b08L,
+        0xea21000000L,
+        0xea21000000L,
+        0xea21000000L,
+        0x4L,
+        0x80000d484L,
+        0x40000000L,
+        0x2208L,
+        0x80000d480L,
+        0x440002b08L,
+        0x4403f2b08L,
+        0x443bf2b08L,
+    };
+
+    /* produção para (não-terminal, terminal): TABLE[a * TERMINALS + k], -1 = erro */
+    static final short[] TABLE = {
+        -1,2,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1, // program
+        -1,-1,-1,-1,5,5,5,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1, // decl-list
+        -1,-1,-1,-1,6,6,6,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1, // decl
+        -1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,9,-1,-1,-1,-1, // ident-list
+        -1,-1,-1,-1,10,11,12,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1, // type
+        -1,-1,-1,-1,-1,-1,-1,15,-1,-1,15,-1,15,-1,15,15,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,15,-1,-1,-1,-1, // stmt-list
+        -1,-1,-1,-1,-1,-1,-1,17,-1,-1,18,-1,19,-1,20,21,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,16,-1,-1,-1,-1, // stmt
+        -1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,22,-1,-1,-1,-1, // assign-stmt
+        -1,-1,-1,-1,-1,-1,-1,23,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1, // if-stmt
+        -1,-1,-1,25,-1,-1,-1,-1,-1,24,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1, // else-part
+        -1,-1,-1,-1,-1,-1,-1,-1,-1,-1,26,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1, // while-stmt
+        -1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,27,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1, // repeat-stmt
+        -1,-1,-1,-1,30,30,30,30,-1,-1,30,-1,30,-1,30,30,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,30,-1,-1,-1,-1, // body
+        -1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,31,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1, // read-stmt
+        -1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,32,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1, // write-stmt
+        -1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,34,-1,-1,-1,-1,34,-1,-1,-1,34,-1,34,33,34,34,34, // writable
+        -1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,35,-1,-1,-1,-1,35,-1,-1,-1,35,-1,35,-1,35,35,35, // condition
+        -1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,38,-1,-1,-1,-1,38,-1,-1,-1,38,-1,38,-1,38,38,38, // expression
+        -1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,41,-1,-1,-1,-1,41,-1,-1,-1,41,-1,41,-1,41,41,41, // simple-expr
+        -1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,44,-1,-1,-1,-1,44,-1,-1,-1,44,-1,44,-1,44,44,44, // term
+        -1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,47,-1,-1,-1,-1,46,-1,-1,-1,45,-1,45,-1,45,45,45, // factor-a
+        -1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,50,-1,48,-1,49,49,49, // factor
+        -1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,51,52,53, // constant
+        -1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,54,55,56,57,58,59,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1, // relop
+        -1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,60,61,62,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1, // addop
+        -1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,63,64,65,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1, // mulop
+        -1,-1,1,-1,0,0,0,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1, // program#1
+        -1,-1,4,-1,3,3,3,4,-1,-1,4,-1,4,-1,4,4,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,4,-1,-1,-1,-1, // decl-list#2
+        -1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,8,-1,7,-1,-1,-1,-1,-1,-1,-1, // ident-list#3
+        -1,-1,-1,14,-1,-1,-1,-1,-1,14,-1,-1,-1,14,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,13,-1,-1,-1,-1,-1,-1,-1,-1,-1, // stmt-list#4
+        -1,-1,-1,-1,28,28,28,29,-1,-1,29,-1,29,-1,29,29,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,29,-1,-1,-1,-1, // body#5
+        -1,-1,-1,37,-1,-1,-1,-1,37,37,-1,37,-1,37,-1,-1,36,36,36,36,36,36,-1,-1,-1,-1,-1,-1,-1,-1,37,-1,-1,-1,37,-1,-1,-1,-1,-1, // expression#6
+        -1,-1,-1,40,-1,-1,-1,-1,40,40,-1,40,-1,40,-1,-1,40,40,40,40,40,40,-1,39,39,39,-1,-1,-1,-1,40,-1,-1,-1,40,-1,-1,-1,-1,-1, // simple-expr#7
+        -1,-1,-1,43,-1,-1,-1,-1,43,43,-1,43,-1,43,-1,-1,43,43,43,43,43,43,-1,43,43,43,42,42,42,-1,43,-1,-1,-1,43,-1,-1,-1,-1,-1, // term#8
+    };
+
+    /* produção usada quando o terminal não está na tabela (-1 = erro) */
+    static final short[] DEFAULT = {2, 5, 6, 9, -1, 15, -1, 22, 23, 25, 26, 27, 30, 31, 32, -1, 35, 38, 41, 44, -1, -1, -1, -1, -1, -1, 1, 4, 8, 14, 29, 37, 40, 43};
+
+    static final String[] ERROR = new String[NONTERMINALS], ERROR_EOF = new String[NONTERMINALS];
+
+    static {
+        ERROR[4] = "tipo esperado";
+        ERROR[6] = "início de comando inválido";
+        ERROR[15] = "fator esperado";
+        ERROR[20] = "fator esperado";
+        ERROR[21] = "fator esperado";
+        ERROR[22] = "constante esperada";
+        ERROR_EOF[6] = "instrução inesperada (EOF)";
+    }
+
+    /* terminal de cada tag (-1 = tag fora da gramática) */
+    private static final byte[] TERMINAL = new byte[Tag.RPAREN + 1];
+
+    static {
+        java.util.Arrays.fill(TERMINAL, (byte) -1);
+        for (int k = 1; k < TERMINALS; k++)
+            TERMINAL[TAG[k]] = (byte) k;
+    }
+
+    static int terminal(int tag) {
+        if (tag == Tag.EOF)
+            return 0;
+        return tag >= 0 && tag < TERMINAL.length ? TERMINAL[tag] : -1;
+    }
+
+    /** true se tag pode iniciar o não-terminal a. */
+    static boolean starts(int a, int tag) {
+        int k = terminal(tag);
+        return k >= 0 && (FIRST[a * WORDS + (k >>> 6)] & (1L << k)) != 0;
+    }
+
+    /** true se tag pode seguir o não-terminal a (está em FOLLOW(a)). */
+    static boolean follows(int a, int tag) {
+        int k = terminal(tag);
+        return k >= 0 && (FOLLOW[a * WORDS + (k >>> 6)] & (1L << k)) != 0;
+    }
+}
@@ -2,20 +2,30 @@
  *  Parser.java  –  análise sintática + semântica “on‑the‑fly”
  *                 Usa ParserException para erros de sintaxe
  *                 e SemanticException para violações semânticas.
+ *                 Com um Diagnostics, registra os erros e se
+ *                 recupera em modo pânico (sincroniza em ';',
+ *                 end, until, else) para relatar todos de uma vez.
+ *                 A árvore sintática (tipada) fica em ast().
  *  Pacote: parser
  *  ----------------------------------------------------------------
  */
 package parser;
 
+import ast.Ast;
+import ast.Node;
+import lexer.CharConst;
+import lexer.Ident;
+import lexer.LexicalException;
 import lexer.Lexer;
+import lexer.Literal;
+import lexer.Num;
+import lexer.Real;
+import lexer.Source;
 import lexer.Tag;
 import lexer.Token;
 
 import java.io.IOException;
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 public class Parser {
 
@@ -26,42 +36,133 @@ public class Parser {
      */
     private final Lexer lex;
     private Token look; // token corrente
+    private long lookPos; // posição de 'look' (ver lexer.Position)
 
-    /* tabela de símbolos: pilha de mapas (um por escopo) */
-    private final Deque<Map<String, Type>> scopes = new ArrayDeque<>();
+    /* null = para no primeiro erro (lança exceção); senão acumula e se recupera */
+    private final Diagnostics diags;
+
+    /* desvio de controle do modo pânico: sem pilha e sem mensagem */
+    private static final class Panic extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Panic() { super(null, null, false, false); }
+    }
+
+    private static final Panic RECOVER = new Panic(), ABORT = new Panic();
+
+    private long lastSyntaxPos = -1;
+
+    /* -Dparser.stackTraces=true: exceções com pilha, para depurar o próprio parser */
+    private static final boolean STACK_TRACES = Boolean.getBoolean("parser.stackTraces");
+
+    /*
+     * tabela de símbolos plana, indexada pelo id que o Lexer dá a cada
+     * identificador: head[id] é a declaração mais interna do símbolo.
+     * As declarações formam uma pilha (vetores paralelos b*) que também
+     * serve de registro para desfazer; bPrev liga cada uma à que ela
+     * esconde e scopeMarks guarda onde cada escopo começou na pilha.
+     * bVar é a variável correspondente na Ast (-1 para os nomes não
+     * declarados que o modo com Diagnostics registra).
+     */
+    private static final Type[] TYPES = Type.values();
+
+    private int[] head = new int[0];
+    private byte[] bType = new byte[64];
+    private int[] bLevel = new int[64], bPrev = new int[64], bSym = new int[64], bVar = new int[64];
+    private int bCount;
+    private int[] scopeMarks = new int[16];
+    private int level; // profundidade do escopo corrente (0 = nenhum)
+
+    private final Ast ast = new Ast();
 
     public Parser(Lexer lex) throws IOException {
+        this(lex, null);
+    }
+
+    /** Parser que registra os erros em diags (até o limite dele) em vez de parar no primeiro. */
+    public Parser(Lexer lex, Diagnostics diags) throws IOException {
         this.lex = lex;
+        this.diags = diags;
+        ast.setSymbols(lex.symbols());
         move(); // carrega primeiro token
         enterScope(); // escopo global
     }
 
+    /**
+     * Prepara o parser (e seu Lexer) para outra entrada, reaproveitando
+     * a tabela de símbolos já alocada. Os Diagnostics ligados a ele são
+     * esvaziados: os erros (e o limite) passam a contar da nova entrada.
+     */
+    public void reset(Source src) throws IOException {
+        while (level > 0)
+            leaveScope();
+        if (diags != null)
+            diags.clear();
+        lex.reset(src);
+        ast.clear();
+        lastSyntaxPos = -1;
+        move();
+        enterScope();
+    }
+
     /*
      * ------------------------------------------------------------
      * Escopos e símbolos
      * ------------------------------------------------------------
      */
     private void enterScope() {
-        scopes.push(new HashMap<>());
+        if (level == scopeMarks.length)
+            scopeMarks = Arrays.copyOf(scopeMarks, 2 * level);
+        scopeMarks[level++] = bCount;
     }
 
+    /* desfaz só as declarações feitas no escopo que termina */
     private void leaveScope() {
-        scopes.pop();
+        int mark = scopeMarks[--level];
+        while (bCount > mark) {
+            bCount--;
+            head[bSym[bCount]] = bPrev[bCount];
+        }
+    }
+
+    private void declare(int id, Type t, int var) {
+        if (id >= head.length) {
+            int n = head.length;
+            head = Arrays.copyOf(head, Math.max(2 * n, id + 16));
+            Arrays.fill(head, n, head.length, -1);
+        }
+        int b = head[id];
+        if (b >= 0 && bLevel[b] == level)
+            errorSemantic(SemanticException.Reason.REDECLARED, name(id), null, null);
+
+        if (bCount == bType.length) {
+            int cap = 2 * bCount;
+            bType = Arrays.copyOf(bType, cap);
+            bLevel = Arrays.copyOf(bLevel, cap);
+            bPrev = Arrays.copyOf(bPrev, cap);
+            bSym = Arrays.copyOf(bSym, cap);
+            bVar = Arrays.copyOf(bVar, cap);
+        }
+        bType[bCount] = (byte) t.ordinal();
+        bLevel[bCount] = level;
+        bPrev[bCount] = b;
+        bSym[bCount] = id;
+        bVar[bCount] = var;
+        head[id] = bCount++;
     }
 
-    private void declare(String id, Type t) {
-        Map<String, Type> top = scopes.peek();
-        if (top.containsKey(id))
-            errorSemantic("identificador '" + id + "' já declarado neste bloco");
-        top.put(id, t);
+    /* declaração visível de id (índice nos vetores b*) */
+    private int lookup(int id) {
+        int b = id < head.length ? head[id] : -1;
+        if (b >= 0)
+            return b;
+        errorSemantic(SemanticException.Reason.UNDECLARED, name(id), null, null);
+        declare(id, Type.ERROR, -1); // só chega no modo com Diagnostics: relata uma vez por escopo
+        return head[id];
     }
 
-    private Type lookup(String id) {
-        for (Map<String, Type> s : scopes)
-            if (s.containsKey(id))
-                return s.get(id);
-        errorSemantic("identificador '" + id + "' não declarado");
-        return Type.ERROR; // nunca chega
+    private String name(int id) {
+        return lex.symbols().name(id);
     }
 
     /*
@@ -70,18 +171,80 @@ public class Parser {
      * ------------------------------------------------------------
      */
     private void move() throws IOException {
-        look = lex.scan();
+        for (;;) {
+            try {
+                look = lex.scan();
+                lookPos = lex.position();
+                return;
+            } catch (LexicalException e) {
+                if (diags == null)
+                    throw e;
+                diags.add(Diagnostic.Kind.LEXICAL, e.getPosition(), e.getMessage());
+                if (diags.isFull()) { // finge EOF; o próximo erro encerra
+                    look = null;
+                    return;
+                }
+            }
+        }
     } // null = EOF
 
     private void errorSyntax(String msg) {
-        throw new ParserException(
-                "Erro sintático na linha " + Lexer.line +
-                        ": " + msg +
-                        " (encontrado: " + (look == null ? "EOF" : look) + ")");
+        errorSyntax(msg, ParserException.NO_TAG);
     }
 
-    private void errorSemantic(String msg) {
-        throw new SemanticException(msg, Lexer.line);
+    /* msg == null: "esperado '<expected>'"; a mensagem só é montada se pedida */
+    private void errorSyntax(String msg, int expected) {
+        ParserException e = new ParserException(lookPos, msg, expected, look, STACK_TRACES);
+        if (diags == null)
+            throw e;
+        if (lookPos != lastSyntaxPos) { // um erro sintático por token
+            lastSyntaxPos = lookPos;
+            diags.add(Diagnostic.Kind.SYNTAX, lookPos, e.getMessage());
+        }
+        throw diags.isFull() ? ABORT : RECOVER;
+    }
+
+    private void errorSemantic(SemanticException.Reason reason, String name, Type left, Type right) {
+        SemanticException e = new SemanticException(reason, lookPos, name, left, right, STACK_TRACES);
+        if (diags == null)
+            throw e;
+        diags.add(Diagnostic.Kind.SEMANTIC, lookPos, e.getMessage());
+        if (diags.isFull())
+            throw ABORT;
+    }
+
+    /*
+     * ------------------------------------------------------------
+     * Recuperação em modo pânico (só com Diagnostics)
+     * ------------------------------------------------------------
+     */
+    private static boolean isSync(int tag) {
+        return tag == Tag.SEMICOLON || tag == Tag.END || tag == Tag.UNTIL || tag == Tag.ELSE;
+    }
+
+    /* descarta tokens até um de sincronização (ou EOF), sem consumi-lo */
+    private void synchronize(Panic p) throws IOException {
+        if (p == ABORT)
+            throw p;
+        while (look != null && !isSync(look.tag))
+            move();
+    }
+
+    /* idem, parando também em 'begin' ou início de declaração */
+    private void synchronizeDecl(Panic p) throws IOException {
+        if (p == ABORT)
+            throw p;
+        while (look != null && !isSync(look.tag) && look.tag != Tag.BEGIN && !isTypeStarter())
+            move();
+        if (look != null && look.tag == Tag.SEMICOLON)
+            move();
+    }
+
+    /** Consome um identificador e devolve seu id de símbolo. */
+    private int matchId() throws IOException {
+        int id = (look instanceof Ident) ? ((Ident) look).id : -1;
+        match(Tag.ID);
+        return id;
     }
 
     private void match(int tag) throws IOException {
@@ -90,7 +253,7 @@ public class Parser {
         if (look != null && look.tag == tag) {
             move();
         } else {
-            errorSyntax("esperado '" + tagToString(tag) + "'");
+            errorSyntax(null, tag);
         }
     }
 
@@ -100,11 +263,36 @@ public class Parser {
      * ------------------------------------------------------------
      */
     public void parse() throws IOException {
-        program();
-        if (look != null)
-            errorSyntax("tokens adicionais após 'end'");
-        leaveScope(); // fecha escopo global
-        System.out.println("Compilação concluída sem erros!");
+        run(false);
+    }
+
+    /**
+     * Como parse(), mas pelo driver LL(1) dirigido por tabela (ver
+     * grammar.txt). Com Diagnostics, se recupera nos mesmos pontos que
+     * parse() e relata os mesmos erros.
+     */
+    public void parseLL1() throws IOException {
+        run(true);
+    }
+
+    private void run(boolean table) throws IOException {
+        try {
+            if (table)
+                driveLL1();
+            else
+                program();
+            if (look != null)
+                errorSyntax("tokens adicionais após 'end'");
+        } catch (Panic p) {
+            // erro já registrado em diags; nada mais a analisar
+        }
+        while (level > 0)
+            leaveScope(); // fecha escopo global (e os abertos por um ABORT)
+    }
+
+    /** Árvore do último parse() (válida até o próximo reset). */
+    public Ast ast() {
+        return ast;
     }
 
     /*
@@ -114,41 +302,70 @@ public class Parser {
      */
 
     /* program ::= program [decl-list] begin stmt-list end */
-    private void program() throws IOException {
-        match(Tag.PROGRAM);
+    private int program() throws IOException {
+        long p = lookPos;
+        try {
+            match(Tag.PROGRAM);
+        } catch (Panic e) {
+            synchronizeDecl(e);
+        }
+        int block = ast.add(Node.BLOCK, lookPos, 0, null);
+        int last = Ast.NONE;
         if (isTypeStarter())
-            declList();
-        match(Tag.BEGIN);
-        stmtList();
+            last = declList(block, last);
+        try {
+            match(Tag.BEGIN);
+        } catch (Panic e) {
+            synchronizeDecl(e); // pula até 'begin' (ou sincronização)
+            if (look != null && look.tag == Tag.BEGIN)
+                move();
+        }
+        int root = ast.add(Node.PROGRAM, p, 0, null, block, Ast.NONE);
+        ast.setRoot(root); // já visível se a recuperação abortar no meio
+        stmtList(block, last);
         match(Tag.END);
+        return root;
     }
 
-    /* decl-list ::= decl {decl} */
-    private void declList() throws IOException {
+    /* decl-list ::= decl {decl}  (os DECL viram filhos de block, após last) */
+    private int declList(int block, int last) throws IOException {
         do {
-            decl();
+            try {
+                last = decl(block, last);
+            } catch (Panic p) {
+                synchronizeDecl(p);
+            }
         } while (isTypeStarter());
+        return last;
     }
 
     /* decl ::= type ":" ident-list ";" */
-    private void decl() throws IOException {
+    private int decl(int block, int last) throws IOException {
         Type t = type();
         match(Tag.COLON);
-        identList(t);
+        last = identList(t, block, last);
         match(Tag.SEMICOLON);
+        return last;
     }
 
     /* ident-list ::= identifier {"," identifier} */
-    private void identList(Type t) throws IOException {
-        String id = look.toString();
-        match(Tag.ID);
-        declare(id, t);
+    private int identList(Type t, int block, int last) throws IOException {
+        last = ast.append(block, last, declVar(t));
         while (look != null && look.tag == Tag.COMMA) {
             match(Tag.COMMA);
-            id = look.toString();
-            match(Tag.ID);
-            declare(id, t);
+            last = ast.append(block, last, declVar(t));
         }
+        return last;
+    }
+
+    private int declVar(Type t) throws IOException {
+        long p = lookPos;
+        int id = matchId();
+        int n = ast.add(Node.DECL, p, 0, null);
+        int v = ast.addVariable(id, t, n);
+        declare(id, t, v);
+        ast.setValue(n, v);
+        return n;
     }
 
     /* type ::= int | float | char */
@@ -169,301 +386,716 @@ public class Parser {
         }
     }
 
-    /* stmt-list ::= stmt {";" stmt} */
-    private void stmtList() throws IOException {
-        stmt();
+    /* stmt-list ::= stmt {";" stmt}  (os comandos viram filhos de block, após last) */
+    private void stmtList(int block, int last) throws IOException {
+        last = ast.append(block, last, guardedStmt());
         while (look != null && look.tag == Tag.SEMICOLON) {
             match(Tag.SEMICOLON);
-            stmt();
+            last = ast.append(block, last, guardedStmt());
         }
     }
 
+    /* stmt com recuperação: após um erro, continua no próximo ponto de sincronização */
+    private int guardedStmt() throws IOException {
+        try {
+            return stmt();
+        } catch (Panic p) {
+            synchronize(p);
+            return Ast.NONE;
+        }
+    }
+
+    /* escopo de if/while/repeat: [decl-list] stmt-list num BLOCK próprio */
+    private int block() throws IOException {
+        int block = ast.add(Node.BLOCK, lookPos, 0, null);
+        enterScope();
+        int last = Ast.NONE;
+        if (isTypeStarter())
+            last = declList(block, last);
+        stmtList(block, last);
+        leaveScope();
+        return block;
+    }
+
     /*
      * stmt ::= assign‑stmt | if‑stmt | while‑stmt | repeat‑stmt | read‑stmt |
      * write‑stmt
      */
-    private void stmt() throws IOException {
+    private int stmt() throws IOException {
         if (look == null)
             errorSyntax("instrução inesperada (EOF)");
         switch (look.tag) {
             case Tag.ID:
-                assignStmt();
-                break;
+                return assignStmt();
             case Tag.IF:
-                ifStmt();
-                break;
+                return ifStmt();
             case Tag.WHILE:
-                whileStmt();
-                break;
+                return whileStmt();
             case Tag.REPEAT:
-                repeatStmt();
-                break;
+                return repeatStmt();
             case Tag.IN:
-                readStmt();
-                break;
+                return readStmt();
             case Tag.OUT:
-                writeStmt();
-                break;
+                return writeStmt();
             default:
                 errorSyntax("início de comando inválido");
+                return Ast.NONE;
         }
     }
 
     /* assign-stmt ::= identifier "=" simple_expr */
-    private void assignStmt() throws IOException {
-        String id = look.toString();
-        match(Tag.ID);
-        Type idType = lookup(id);
+    private int assignStmt() throws IOException {
+        long p = lookPos;
+        int id = matchId();
+        int b = lookup(id);
+        Type idType = TYPES[bType[b]];
         match(Tag.ASSIGN);
-        Type exprType = simpleExpr();
-        if (idType != exprType)
-            errorSemantic("tipo da expressão (" + exprType +
-                    ") incompatível com '" + id + "' (" + idType + ")");
+        int e = simpleExpr();
+        Type exprType = ast.type(e);
+        if (idType != exprType && idType != Type.ERROR && exprType != Type.ERROR)
+            errorSemantic(SemanticException.Reason.ASSIGN, name(id), idType, exprType);
+        return ast.add(Node.ASSIGN, p, bVar[b], null, e, Ast.NONE);
     }
 
     /* ---------- estruturas de controle com escopos ---------- */
 
-    private void ifStmt() throws IOException {
+    private int ifStmt() throws IOException {
+        long p = lookPos;
         match(Tag.IF);
-        Type cond = condition();
-        requireBool(cond, "condição do 'if'");
+        int cond = condition();
+        requireBool(ast.type(cond), "condição do 'if'");
         match(Tag.THEN);
 
-        enterScope();
-        if (isTypeStarter())
-            declList();
-        stmtList();
-        leaveScope();
-
+        int then = block();
+        int otherwise = Ast.NONE;
         if (look != null && look.tag == Tag.ELSE) {
             match(Tag.ELSE);
-            enterScope();
-            if (isTypeStarter())
-                declList();
-            stmtList();
-            leaveScope();
+            otherwise = block();
         }
         match(Tag.END);
+        int n = ast.add(Node.IF, p, 0, null, cond, then);
+        ast.append(n, then, otherwise);
+        return n;
     }
 
-    private void whileStmt() throws IOException {
+    private int whileStmt() throws IOException {
+        long p = lookPos;
         match(Tag.WHILE);
-        Type cond = condition();
-        requireBool(cond, "condição do 'while'");
+        int cond = condition();
+        requireBool(ast.type(cond), "condição do 'while'");
         match(Tag.DO);
-        enterScope();
-        if (isTypeStarter())
-            declList();
-        stmtList();
-        leaveScope();
+        int body = block();
         match(Tag.END);
+        return ast.add(Node.WHILE, p, 0, null, cond, body);
     }
 
-    private void repeatStmt() throws IOException {
+    private int repeatStmt() throws IOException {
+        long p = lookPos;
         match(Tag.REPEAT);
-        enterScope();
-        if (isTypeStarter())
-            declList();
-        stmtList();
-        leaveScope();
+        int body = block();
         match(Tag.UNTIL);
-        Type cond = condition();
-        requireBool(cond, "condição do 'until'");
+        int cond = condition();
+        requireBool(ast.type(cond), "condição do 'until'");
+        return ast.add(Node.REPEAT, p, 0, null, body, cond);
     }
 
     /* read-stmt ::= in "(" identifier ")" */
-    private void readStmt() throws IOException {
+    private int readStmt() throws IOException {
+        long p = lookPos;
         match(Tag.IN);
         match(Tag.LPAREN);
-        String id = look.toString();
-        match(Tag.ID);
-        lookup(id); // existência garantida
+        int b = lookup(matchId()); // existência garantida
         match(Tag.RPAREN);
+        return ast.add(Node.READ, p, bVar[b], null);
     }
 
     /* write-stmt ::= out "(" writable ")" */
-    private void writeStmt() throws IOException {
+    private int writeStmt() throws IOException {
+        long p = lookPos;
         match(Tag.OUT);
         match(Tag.LPAREN);
-        writable();
+        int arg = writable();
         match(Tag.RPAREN);
+        return ast.add(Node.WRITE, p, 0, null, arg, Ast.NONE);
     }
 
-    private void writable() throws IOException {
-        if (look.tag == Tag.LITERAL) {
+    private int writable() throws IOException {
+        if (look != null && look.tag == Tag.LITERAL) {
+            int n = ast.add(Node.LITERAL, lookPos, ast.addLiteral(((Literal) look).valor), null);
             match(Tag.LITERAL);
-        } else {
-            simpleExpr(); // checa tipos internamente
+            return n;
         }
+        return simpleExpr(); // checa tipos internamente
     }
 
-    /* ---------- EXPRESSÕES ---------- */
+    /* ---------- EXPRESSÕES (devolvem o nó; o tipo fica em ast.type) ---------- */
 
-    private Type condition() throws IOException {
+    private int condition() throws IOException {
         return expression();
     }
 
     /* expression ::= simple-expr | simple-expr relop simple-expr */
-    private Type expression() throws IOException {
-        Type left = simpleExpr();
+    private int expression() throws IOException {
+        return recursiveExpr ? relExpr() : climb(true);
+    }
+
+    /* simple-expr ::= term {addop term} */
+    private int simpleExpr() throws IOException {
+        return recursiveExpr ? addExpr() : climb(false);
+    }
+
+    /* nó BINARY com a checagem de tipos do operador (comum às duas versões) */
+    private int binary(int op, long p, int left, int right) {
+        Type t = ast.type(left), r = ast.type(right);
+        if (isRelop(op)) {
+            if (!isComparable(t, r))
+                errorSemantic(SemanticException.Reason.RELATIONAL, null, t, r);
+            t = Type.BOOL;
+        } else if (op == Tag.OR || op == Tag.AND) {
+            if (!isBoolOrError(t) || !isBoolOrError(r))
+                errorSemantic(SemanticException.Reason.BOOL_OPERANDS, op == Tag.OR ? "or" : "and", t, r);
+            t = Type.BOOL;
+        } else {
+            t = arithmeticResult(t, r);
+        }
+        return ast.add(Node.BINARY, p, op, t, left, right);
+    }
+
+    /* nó UNARY ('!' ou '-') */
+    private int unary(int op, long p, int e) {
+        if (op == '!') {
+            requireBool(ast.type(e), "operando de '!'");
+            return ast.add(Node.UNARY, p, '!', Type.BOOL, e, Ast.NONE);
+        }
+        requireNumericOrChar(ast.type(e), "operando de unário '-'");
+        return ast.add(Node.UNARY, p, Tag.MINUS, ast.type(e), e, Ast.NONE);
+    }
+
+    /*
+     * ------------------------------------------------------------
+     * Versão iterativa (padrão): precedência de operadores com pilhas
+     * explícitas, sem um quadro Java por nível de parênteses.
+     * Precedências seguem os níveis da gramática: relop 1, addop 2,
+     * mulop 3; unários se aplicam só ao fator seguinte. Cada nível de
+     * parênteses aceita um único relop, como em expression.
+     * ------------------------------------------------------------
+     */
+    private static final boolean RECURSIVE_EXPR = Boolean.getBoolean("parser.recursiveExpr");
+
+    private boolean recursiveExpr = RECURSIVE_EXPR;
+
+    /** Escolhe a versão das expressões deste parser (ExprCheck compara as duas). */
+    void recursiveExpr(boolean on) {
+        recursiveExpr = on;
+    }
+
+    private static final int OPEN = Tag.LPAREN; // marca de '(' na pilha de operadores
+    private static final int NEG = -2;          // '-' unário na pilha (Tag.MINUS é o binário)
+
+    private int[] operands = new int[32], operators = new int[32];
+    private long[] opPos = new long[32];
+    private boolean[] relopSeen = new boolean[32]; // por nível de parênteses
+
+    private int climb(boolean allowRelop) throws IOException {
+        int nTop = 0, oTop = 0, depth = 0;
+        relopSeen[0] = !allowRelop;
+        for (;;) {
+            /* ----- operando: [unário] ( '(' ... | primário ) ----- */
+            if (oTop + 2 >= operators.length) {
+                operators = Arrays.copyOf(operators, 2 * operators.length);
+                opPos = Arrays.copyOf(opPos, operators.length);
+            }
+            if (look != null && (look.tag == '!' || look.tag == Tag.MINUS)) {
+                operators[oTop] = look.tag == '!' ? '!' : NEG;
+                opPos[oTop++] = lookPos;
+                match(look.tag);
+            }
+            if (look != null && look.tag == Tag.LPAREN) {
+                operators[oTop] = OPEN;
+                opPos[oTop++] = lookPos;
+                match(Tag.LPAREN);
+                if (++depth == relopSeen.length)
+                    relopSeen = Arrays.copyOf(relopSeen, 2 * depth);
+                relopSeen[depth] = false;
+                continue;
+            }
+            if (nTop == operands.length)
+                operands = Arrays.copyOf(operands, 2 * nTop);
+            operands[nTop++] = primary();
+
+            /* ----- após um fator completo: unário pendente, ')' e operadores ----- */
+            for (;;) {
+                if (oTop > 0 && (operators[oTop - 1] == '!' || operators[oTop - 1] == NEG)) {
+                    oTop--;
+                    operands[nTop - 1] = unary(operators[oTop] == NEG ? Tag.MINUS : '!',
+                            opPos[oTop], operands[nTop - 1]);
+                }
+                int prec = look == null ? 0 : precedence(look.tag);
+                if (prec == 1 && relopSeen[depth])
+                    prec = 0;                           // segundo relop: fim deste nível
+                if (prec > 0) {
+                    while (oTop > 0 && operators[oTop - 1] != OPEN
+                            && precedence(operators[oTop - 1]) >= prec) {
+                        oTop--;
+                        nTop--;
+                        operands[nTop - 1] = binary(operators[oTop], opPos[oTop],
+                                operands[nTop - 1], operands[nTop]);
+                    }
+                    if (prec == 1)
+                        relopSeen[depth] = true;
+                    operators[oTop] = look.tag;
+                    opPos[oTop++] = lookPos;
+                    match(look.tag);
+                    break;                              // próximo operando
+                }
+                while (oTop > 0 && operators[oTop - 1] != OPEN) {
+                    oTop--;
+                    nTop--;
+                    operands[nTop - 1] = binary(operators[oTop], opPos[oTop],
+                            operands[nTop - 1], operands[nTop]);
+                }
+                if (depth == 0)
+                    return operands[0];
+                match(Tag.RPAREN);
+                oTop--;                                 // tira a marca '('
+                depth--;
+            }
+        }
+    }
+
+    private static int precedence(int tag) {
+        if (isRelop(tag))
+            return 1;
+        if (LL1Table.starts(LL1Table.NT_ADDOP, tag))
+            return 2;
+        if (LL1Table.starts(LL1Table.NT_MULOP, tag))
+            return 3;
+        return 0;
+    }
+
+    /* identifier | constant (o fator sem parênteses) */
+    private int primary() throws IOException {
+        switch (look == null ? Tag.EOF : look.tag) {
+            case Tag.ID: {
+                long p = lookPos;
+                int b = lookup(matchId());
+                return ast.add(Node.VAR, p, bVar[b], TYPES[bType[b]]);
+            }
+
+            case Tag.NUM:
+            case Tag.REAL:
+            case Tag.CHAR_CONST:
+                return constant();
+
+            default:
+                errorSyntax("fator esperado");
+                return Ast.NONE;
+        }
+    }
+
+    /*
+     * ------------------------------------------------------------
+     * Versão recursiva (-Dparser.recursiveExpr=true), referência da
+     * iterativa: um método por nível da gramática.
+     * ------------------------------------------------------------
+     */
+    private int relExpr() throws IOException {
+        int left = addExpr();
         if (isRelop(look)) {
+            long p = lookPos;
+            int op = look.tag;
             relop();
-            Type right = simpleExpr();
-            if (!isComparable(left, right))
-                errorSemantic("tipos incompatíveis em operador relacional (" +
-                        left + " x " + right + ")");
-            return Type.BOOL;
+            return binary(op, p, left, addExpr());
         }
         return left;
     }
 
-    /* simple-expr ::= term {addop term} */
-    private Type simpleExpr() throws IOException {
-        Type t = term();
+    private int addExpr() throws IOException {
+        int n = term();
         while (isAddop(look)) {
+            long p = lookPos;
             int op = look.tag;
             addop();
-            Type rhs = term();
-            if (op == Tag.OR) {
-                if (t != Type.BOOL || rhs != Type.BOOL)
-                    errorSemantic("'or' requer operandos booleanos");
-                t = Type.BOOL;
-            } else {
-                t = arithmeticResult(t, rhs);
-            }
+            n = binary(op, p, n, term());
         }
-        return t;
+        return n;
     }
 
     /* term ::= factor-a {mulop factor-a} */
-    private Type term() throws IOException {
-        Type t = factorA();
+    private int term() throws IOException {
+        int n = factorA();
         while (isMulop(look)) {
+            long p = lookPos;
             int op = look.tag;
             mulop();
-            Type rhs = factorA();
-            if (op == Tag.AND) {
-                if (t != Type.BOOL || rhs != Type.BOOL)
-                    errorSemantic("'and' requer operandos booleanos");
-                t = Type.BOOL;
-            } else {
-                t = arithmeticResult(t, rhs);
-            }
+            n = binary(op, p, n, factorA());
         }
-        return t;
+        return n;
     }
 
     /* factor-a ::= factor | "!" factor | "-" factor */
-    private Type factorA() throws IOException {
-        if (look.tag == '!') {
-            match('!');
-            Type t = factor();
-            requireBool(t, "operando de '!'");
-            return Type.BOOL;
-        }
-        if (look.tag == Tag.MINUS) {
-            match(Tag.MINUS);
-            Type t = factor();
-            requireNumericOrChar(t, "operando de unário '-'");
-            return t;
+    private int factorA() throws IOException {
+        long p = lookPos;
+        if (look != null && (look.tag == '!' || look.tag == Tag.MINUS)) {
+            int op = look.tag;
+            match(op);
+            return unary(op, p, factor());
         }
         return factor();
     }
 
     /* factor ::= identifier | constant | "(" expression ")" */
-    private Type factor() throws IOException {
-        switch (look.tag) {
-            case Tag.ID:
-                String id = look.toString();
-                match(Tag.ID);
-                return lookup(id);
-
-            case Tag.NUM:
-            case Tag.REAL:
-            case Tag.CHAR_CONST:
-                return constant();
-
-            case Tag.LPAREN:
-                match(Tag.LPAREN);
-                Type t = expression();
-                match(Tag.RPAREN);
-                return t;
-
-            default:
-                errorSyntax("fator esperado");
-                return Type.ERROR;
+    private int factor() throws IOException {
+        if (look != null && look.tag == Tag.LPAREN) {
+            match(Tag.LPAREN);
+            int e = relExpr();
+            match(Tag.RPAREN);
+            return e;
         }
+        return primary();
     }
 
-    private Type constant() throws IOException {
-        switch (look.tag) {
+    private int constant() throws IOException {
+        long p = lookPos;
+        Token t = look;
+        if (t.tag != Tag.NUM && t.tag != Tag.REAL && t.tag != Tag.CHAR_CONST)
+            errorSyntax("constante esperada");
+        match(t.tag);
+        return constNode(t, p);
+    }
+
+    private int constNode(Token t, long p) {
+        switch (t.tag) {
             case Tag.NUM:
-                match(Tag.NUM);
-                return Type.INT;
+                return ast.add(Node.INT_CONST, p, ((Num) t).valor, Type.INT);
             case Tag.REAL:
-                match(Tag.REAL);
-                return Type.FLOAT;
-            case Tag.CHAR_CONST:
-                match(Tag.CHAR_CONST);
-                return Type.CHAR;
+                return ast.add(Node.REAL_CONST, p, Float.floatToRawIntBits(((Real) t).valor), Type.FLOAT);
             default:
-                errorSyntax("constante esperada");
-                return Type.ERROR;
+                return ast.add(Node.CHAR_CONST, p, ((CharConst) t).valor, Type.CHAR);
         }
     }
 
     /*
      * ============================================================
-     * Regras de tipo / promoção e utilidades semânticas
+     * Driver LL(1) dirigido por tabela (LL1Table, gerada de grammar.txt)
      * ============================================================
+     *
+     * Pilha de símbolos explícita; as ações semânticas da gramática usam
+     * uma pilha de valores (nó, binding, tag ou ordinal de tipo, cada um
+     * com uma posição) e a pilha de blocos abertos, e chamam os mesmos
+     * métodos da descida recursiva (declare, lookup, binary, unary, ...),
+     * de modo que a AST e os erros semânticos saem iguais.
+     *
+     * Recuperação (só com Diagnostics): ao expandir stmt ou decl o driver
+     * empilha uma marca GUARD e guarda as alturas das pilhas, como o
+     * try de guardedStmt / declList. Um erro dentro dela corta a pilha de
+     * símbolos até a marca e descarta tokens até FOLLOW(stmt) — ';', end,
+     * else, until, os mesmos de isSync — ou, numa declaração, até onde
+     * synchronizeDecl para; o stmt perdido vira Ast.NONE para o @child.
+     * Fora de qualquer marca só "program" e "begin" se recuperam, como em
+     * program(); o resto encerra a análise em run().
      */
-    private static boolean isNumeric(Type t) {
-        return t == Type.INT || t == Type.FLOAT;
+    private int[] llStack = new int[64];
+    private int[] values = new int[64];
+    private long[] valuePos = new long[64];
+    private int vTop;
+    private int[] openBlocks = new int[16], openLast = new int[16];
+    private int blockTop;
+    private Token prevTok;  // último token casado com um terminal
+    private long prevPos;
+
+    private static final int GUARD = -1;    // fim de um stmt/decl protegido na pilha de símbolos
+    private int[] guardNt = new int[16], guardSp = new int[16], guardV = new int[16];
+    private int[] guardBlock = new int[16], guardLast = new int[16];
+    private int gTop;
+
+    private void driveLL1() throws IOException {
+        int sp = 0;
+        vTop = blockTop = gTop = 0;
+        llStack[sp++] = LL1Table.NT_BASE + LL1Table.NT_PROGRAM;
+        while (sp > 0) {
+            int s = llStack[--sp];
+            try {
+                if (s == GUARD) {
+                    gTop--;                                 // stmt/decl terminou sem erro
+                } else if (s < LL1Table.NT_BASE) {
+                    prevTok = look;
+                    prevPos = lookPos;
+                    matchLL1(LL1Table.TAG[s]);
+                } else if (s < LL1Table.ACTION_BASE) {
+                    int a = s - LL1Table.NT_BASE;
+                    if (sp + 1 >= llStack.length)
+                        llStack = Arrays.copyOf(llStack, 2 * llStack.length);
+                    if (diags != null && (a == LL1Table.NT_STMT || a == LL1Table.NT_DECL))
+                        guard(a, sp++);
+                    int k = LL1Table.terminal(look == null ? Tag.EOF : look.tag);
+                    int p = k < 0 ? -1 : LL1Table.TABLE[a * LL1Table.TERMINALS + k];
+                    if (p < 0)
+                        p = LL1Table.DEFAULT[a];
+                    if (p < 0) {
+                        String msg = look == null ? LL1Table.ERROR_EOF[a] : null;
+                        errorSyntax(msg != null ? msg
+                                : LL1Table.ERROR[a] != null ? LL1Table.ERROR[a]
+                                : "símbolo inesperado em " + LL1Table.NAME[a]);
+                    }
+                    int[] r = LL1Table.RHS[p];
+                    if (sp + r.length > llStack.length)
+                        llStack = Arrays.copyOf(llStack, 2 * (sp + r.length));
+                    for (int i = r.length - 1; i >= 0; i--)
+                        llStack[sp++] = r[i];
+                } else {
+                    action(s - LL1Table.ACTION_BASE);
+                }
+            } catch (Panic p) {
+                if (gTop == 0)
+                    throw p;                                // fora de stmt/decl: run() encerra
+                sp = recover(p);
+            }
+        }
     }
 
-    private static Type arithmeticResult(Type a, Type b) {
-        if (isNumeric(a) && isNumeric(b))
-            return (a == Type.FLOAT || b == Type.FLOAT) ? Type.FLOAT : Type.INT;
+    /* "program" e "begin" ausentes: recupera como program() */
+    private void matchLL1(int tag) throws IOException {
+        try {
+            match(tag);
+        } catch (Panic e) {
+            if (tag != Tag.PROGRAM && tag != Tag.BEGIN)
+                throw e;
+            synchronizeDecl(e);
+            if (tag == Tag.BEGIN && look != null && look.tag == Tag.BEGIN)
+                move();
+        }
+    }
 
-        if ((a == Type.CHAR && b == Type.INT) || (a == Type.INT && b == Type.CHAR))
-            return Type.INT;
+    /* marca GUARD em llStack[sp] para o não-terminal a */
+    private void guard(int a, int sp) {
+        if (gTop == guardNt.length) {
+            int cap = 2 * gTop;
+            guardNt = Arrays.copyOf(guardNt, cap);
+            guardSp = Arrays.copyOf(guardSp, cap);
+            guardV = Arrays.copyOf(guardV, cap);
+            guardBlock = Arrays.copyOf(guardBlock, cap);
+            guardLast = Arrays.copyOf(guardLast, cap);
+        }
+        llStack[sp] = GUARD;
+        guardNt[gTop] = a;
+        guardSp[gTop] = sp;
+        guardV[gTop] = vTop;
+        guardBlock[gTop] = blockTop;
+        guardLast[gTop++] = blockTop > 0 ? openLast[blockTop - 1] : Ast.NONE;
+    }
 
-        throw new SemanticException(
-                "tipos incompatíveis em operação aritmética (" + a + " x " + b + ")",
-                Lexer.line);
+    /*
+     * Desfaz o stmt/decl mais interno como o catch da descida recursiva:
+     * pilhas de valores e de blocos (e o último filho do bloco) voltam à
+     * altura da marca; escopos abertos dentro dele ficam abertos, como
+     * quando o Panic atravessa block(). Devolve a nova altura de llStack.
+     */
+    private int recover(Panic p) throws IOException {
+        int g = --gTop;
+        vTop = guardV[g];
+        blockTop = guardBlock[g];
+        if (blockTop > 0)
+            openLast[blockTop - 1] = guardLast[g];
+        if (guardNt[g] == LL1Table.NT_DECL) {
+            synchronizeDecl(p);
+        } else {
+            if (p == ABORT)
+                throw p;
+            while (look != null && !LL1Table.follows(LL1Table.NT_STMT, look.tag))
+                move();
+            push(Ast.NONE, 0);                              // o stmt perdido, para o @child
+        }
+        return guardSp[g];
     }
 
-    private static boolean isComparable(Type a, Type b) {
-        /*
-         * Permite:
-         * – comparações numéricas (INT/FLOAT entre si);
-         * – INT × CHAR (coerção ASCII);
-         * – CHAR × CHAR ← acrescentado agora
-         */
-        if (a == Type.CHAR && b == Type.CHAR)
-            return true;
+    private void push(int v, long p) {
+        if (vTop == values.length) {
+            values = Arrays.copyOf(values, 2 * vTop);
+            valuePos = Arrays.copyOf(valuePos, 2 * vTop);
+        }
+        values[vTop] = v;
+        valuePos[vTop++] = p;
+    }
 
-        if ((a == Type.CHAR && b == Type.INT) || (a == Type.INT && b == Type.CHAR))
-            return true;
+    private int pop() {
+        return values[--vTop];
+    }
 
-        try { // cobre INT×INT, INT×FLOAT, FLOAT×FLOAT
-            arithmeticResult(a, b);
-            return true;
-        } catch (SemanticException e) {
-            return false;
+    private void openBlock(int block) {
+        if (blockTop == openBlocks.length) {
+            openBlocks = Arrays.copyOf(openBlocks, 2 * blockTop);
+            openLast = Arrays.copyOf(openLast, 2 * blockTop);
         }
+        openBlocks[blockTop] = block;
+        openLast[blockTop++] = Ast.NONE;
     }
 
-    private static void requireBool(Type t, String what) {
-        if (t != Type.BOOL)
-            throw new SemanticException(what + " deve ser booleana (encontrado: " + t + ")",
-                    Lexer.line);
+    private void appendToBlock(int n) {
+        openLast[blockTop - 1] = ast.append(openBlocks[blockTop - 1], openLast[blockTop - 1], n);
     }
 
-    private static void requireNumericOrChar(Type t, String what) {
-        if (!(isNumeric(t) || t == Type.CHAR))
-            throw new SemanticException(what + " deve ser numérico ou caractere (encontrado: " + t + ")",
-                    Lexer.line);
+    private void action(int act) throws IOException {
+        switch (act) {
+            case LL1Table.ACT_BLOCK:            // após "program": posição dele e o BLOCK global
+                push(0, prevPos);
+                openBlock(ast.add(Node.BLOCK, lookPos, 0, null));
+                break;
+            case LL1Table.ACT_PROGRAM: {
+                long p = valuePos[--vTop];
+                ast.setRoot(ast.add(Node.PROGRAM, p, 0, null, openBlocks[blockTop - 1], Ast.NONE));
+                break;
+            }
+            case LL1Table.ACT_TYPE:
+                push((prevTok.tag == Tag.INT ? Type.INT
+                        : prevTok.tag == Tag.FLOAT ? Type.FLOAT : Type.CHAR).ordinal(), prevPos);
+                break;
+            case LL1Table.ACT_POP:
+                vTop--;
+                break;
+            case LL1Table.ACT_DECL: {
+                Type t = TYPES[values[vTop - 1]];
+                int id = ((Ident) prevTok).id;
+                int n = ast.add(Node.DECL, prevPos, 0, null);
+                int v = ast.addVariable(id, t, n);
+                declare(id, t, v);
+                ast.setValue(n, v);
+                appendToBlock(n);
+                break;
+            }
+            case LL1Table.ACT_CHILD:
+                appendToBlock(pop());
+                break;
+            case LL1Table.ACT_LOOKUP:
+                push(lookup(((Ident) prevTok).id), prevPos);
+                break;
+            case LL1Table.ACT_ASSIGN: {
+                int e = pop();
+                long p = valuePos[vTop - 1];
+                int b = pop();
+                Type idType = TYPES[bType[b]], exprType = ast.type(e);
+                if (idType != exprType && idType != Type.ERROR && exprType != Type.ERROR)
+                    errorSemantic(SemanticException.Reason.ASSIGN, name(bSym[b]), idType, exprType);
+                push(ast.add(Node.ASSIGN, p, bVar[b], null, e, Ast.NONE), p);
+                break;
+            }
+            case LL1Table.ACT_POS:
+                push(0, prevPos);
+                break;
+            case LL1Table.ACT_IF_COND:
+                requireBool(ast.type(values[vTop - 1]), "condição do 'if'");
+                break;
+            case LL1Table.ACT_WHILE_COND:
+                requireBool(ast.type(values[vTop - 1]), "condição do 'while'");
+                break;
+            case LL1Table.ACT_SCOPE:
+                openBlock(ast.add(Node.BLOCK, lookPos, 0, null));
+                enterScope();
+                break;
+            case LL1Table.ACT_LEAVE:
+                leaveScope();
+                push(openBlocks[--blockTop], 0);
+                break;
+            case LL1Table.ACT_NONE:
+                push(Ast.NONE, 0);
+                break;
+            case LL1Table.ACT_IF: {
+                int otherwise = pop(), then = pop(), cond = pop();
+                int n = ast.add(Node.IF, valuePos[--vTop], 0, null, cond, then);
+                ast.append(n, then, otherwise);
+                push(n, 0);
+                break;
+            }
+            case LL1Table.ACT_WHILE: {
+                int body = pop(), cond = pop();
+                push(ast.add(Node.WHILE, valuePos[--vTop], 0, null, cond, body), 0);
+                break;
+            }
+            case LL1Table.ACT_REPEAT: {
+                int cond = pop(), body = pop();
+                requireBool(ast.type(cond), "condição do 'until'");
+                push(ast.add(Node.REPEAT, valuePos[--vTop], 0, null, body, cond), 0);
+                break;
+            }
+            case LL1Table.ACT_READ: {
+                int b = pop();
+                push(ast.add(Node.READ, valuePos[--vTop], bVar[b], null), 0);
+                break;
+            }
+            case LL1Table.ACT_WRITE: {
+                int arg = pop();
+                push(ast.add(Node.WRITE, valuePos[--vTop], 0, null, arg, Ast.NONE), 0);
+                break;
+            }
+            case LL1Table.ACT_LITERAL:
+                push(ast.add(Node.LITERAL, prevPos, ast.addLiteral(((Literal) prevTok).valor), null), 0);
+                break;
+            case LL1Table.ACT_OP:
+                push(prevTok.tag, prevPos);
+                break;
+            case LL1Table.ACT_BINARY: {
+                int right = pop();
+                long p = valuePos[vTop - 1];
+                int op = pop(), left = pop();
+                push(binary(op, p, left, right), 0);
+                break;
+            }
+            case LL1Table.ACT_UNARY: {
+                int e = pop();
+                long p = valuePos[vTop - 1];
+                push(unary(pop(), p, e), 0);
+                break;
+            }
+            case LL1Table.ACT_VAR: {
+                int b = lookup(((Ident) prevTok).id);
+                push(ast.add(Node.VAR, prevPos, bVar[b], TYPES[bType[b]]), 0);
+                break;
+            }
+            case LL1Table.ACT_CONST:
+                push(constNode(prevTok, prevPos), 0);
+                break;
+            default:
+                throw new IllegalStateException("ação desconhecida: " + act);
+        }
+    }
+
+
+    /*
+     * ============================================================
+     * Regras de tipo / promoção e utilidades semânticas
+     * ============================================================
+     */
+    /*
+     * Type.ERROR (só aparece no modo com Diagnostics) é aceito em qualquer
+     * posição, para que um erro já relatado não gere outros em cascata.
+     */
+    private Type arithmeticResult(Type a, Type b) {
+        if (a == Type.ERROR || b == Type.ERROR)
+            return Type.ERROR;
+        Type r = TypeRules.arithmetic(a, b);
+        if (r == null) {
+            errorSemantic(SemanticException.Reason.ARITHMETIC, null, a, b);
+            return Type.ERROR;
+        }
+        return r;
+    }
+
+    private static boolean isComparable(Type a, Type b) {
+        return a == Type.ERROR || b == Type.ERROR || TypeRules.isComparable(a, b);
+    }
+
+    private static boolean isBoolOrError(Type t) {
+        return t == Type.BOOL || t == Type.ERROR;
+    }
+
+    private void requireBool(Type t, String what) {
+        if (!isBoolOrError(t))
+            errorSemantic(SemanticException.Reason.REQUIRE_BOOL, what, t, null);
+    }
+
+    private void requireNumericOrChar(Type t, String what) {
+        if (t != Type.ERROR && !TypeRules.isNumericOrChar(t))
+            errorSemantic(SemanticException.Reason.REQUIRE_NUMERIC, what, t, null);
     }
 
     /*
@@ -472,30 +1104,24 @@ public class Parser {
      * ============================================================
      */
     private static boolean isRelop(Token t) {
-        if (t == null)
-            return false;
-        int tg = t.tag;
-        return tg == Tag.EQ || tg == Tag.GT || tg == Tag.GE ||
-                tg == Tag.LT || tg == Tag.LE || tg == Tag.NE;
+        return t != null && isRelop(t.tag);
+    }
+
+    /* os predicados consultam FIRST, gerado de grammar.txt */
+    private static boolean isRelop(int tg) {
+        return LL1Table.starts(LL1Table.NT_RELOP, tg);
     }
 
     private static boolean isAddop(Token t) {
-        if (t == null)
-            return false;
-        int tg = t.tag;
-        return tg == Tag.PLUS || tg == Tag.MINUS || tg == Tag.OR;
+        return t != null && LL1Table.starts(LL1Table.NT_ADDOP, t.tag);
     }
 
     private static boolean isMulop(Token t) {
-        if (t == null)
-            return false;
-        int tg = t.tag;
-        return tg == Tag.TIMES || tg == Tag.DIV || tg == Tag.AND;
+        return t != null && LL1Table.starts(LL1Table.NT_MULOP, t.tag);
     }
 
     private boolean isTypeStarter() {
-        return look != null &&
-                (look.tag == Tag.INT || look.tag == Tag.FLOAT || look.tag == Tag.CHAR);
+        return look != null && LL1Table.starts(LL1Table.NT_TYPE, look.tag);
     }
 
     private void relop() throws IOException {
@@ -515,7 +1141,7 @@ public class Parser {
      * Nome amigável para TAGs (mensagens de erro)
      * ------------------------------------------------------------
      */
-    private static String tagToString(int tag) {
+    static String tagToString(int tag) {
         switch (tag) {
             case Tag.PROGRAM:
                 return "program";
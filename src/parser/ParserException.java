@@ -1,6 +1,57 @@
 package parser;
 
-/** Exceção lançada quando ocorre erro sintático. */
+import lexer.Position;
+import lexer.Token;
+
+/**
+ * Exceção lançada quando ocorre erro sintático.
+ *
+ * A forma estruturada guarda só a posição, o que se esperava e o token
+ * encontrado; a mensagem é montada na primeira chamada a getMessage() e,
+ * sem pilha, a exceção custa pouco mais que uma alocação.
+ */
 public class ParserException extends RuntimeException {
-    public ParserException(String msg) { super(msg); }
+    /** Valor de getExpected() quando o erro não é "esperado X". */
+    public static final int NO_TAG = Integer.MIN_VALUE;
+
+    private final long pos;
+    private final String detail;   // null = "esperado '<expected>'"
+    private final int expected;
+    private final Token found;     // null = EOF
+    private String message;        // montada sob demanda
+
+    public ParserException(String msg, long pos) {
+        super(msg);
+        this.pos = pos;
+        this.detail = msg;
+        this.expected = NO_TAG;
+        this.found = null;
+        this.message = msg;
+    }
+
+    /** Erro estruturado; stackTrace = false dispensa fillInStackTrace. */
+    public ParserException(long pos, String detail, int expected, Token found, boolean stackTrace) {
+        super(null, null, false, stackTrace);
+        this.pos = pos;
+        this.detail = detail;
+        this.expected = expected;
+        this.found = found;
+    }
+
+    @Override
+    public String getMessage() {
+        if (message == null)
+            message = "Erro sintático na linha " + Position.line(pos) + ": " +
+                    (detail != null ? detail : "esperado '" + Parser.tagToString(expected) + "'") +
+                    " (encontrado: " + (found == null ? "EOF" : found) + ")";
+        return message;
+    }
+
+    public long getPosition() { return pos; }
+
+    public int getLine() { return Position.line(pos); }
+
+    public int getExpected() { return expected; }
+
+    public Token getFound() { return found; }
 }
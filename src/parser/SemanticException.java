@@ -1,12 +1,97 @@
 package parser;
 
+import lexer.Position;
+
+/**
+ * Exceção lançada quando ocorre erro semântico.
+ *
+ * Como ParserException, a forma estruturada guarda o motivo, o
+ * identificador ou operador envolvido e o par de tipos, e só monta a
+ * mensagem quando ela é pedida.
+ */
 public class SemanticException extends RuntimeException {
-    private final int line;
 
-    public SemanticException(String msg, int line) {
-        super("Erro semântico na linha " + line + ": " + msg);
-        this.line = line;
+    public enum Reason {
+        UNDECLARED,         // name
+        REDECLARED,         // name
+        ASSIGN,             // name, left = tipo da variável, right = tipo da expressão
+        RELATIONAL,         // left x right
+        ARITHMETIC,         // left x right
+        BOOL_OPERANDS,      // name = operador
+        REQUIRE_BOOL,       // name = o que foi checado, left = tipo encontrado
+        REQUIRE_NUMERIC,    // idem
+        UNINITIALIZED,      // name (lida antes de ser atribuída em algum caminho)
+        OTHER               // mensagem pronta
+    }
+
+    private final long pos;
+    private final Reason reason;
+    private final String name;
+    private final Type left, right;
+    private String message;         // montada sob demanda
+
+    public SemanticException(String msg, long pos) {
+        super("Erro semântico na linha " + Position.line(pos) + ": " + msg);
+        this.pos = pos;
+        this.reason = Reason.OTHER;
+        this.name = msg;
+        this.left = this.right = null;
+        this.message = super.getMessage();
+    }
+
+    /** Erro estruturado; stackTrace = false dispensa fillInStackTrace. */
+    public SemanticException(Reason reason, long pos, String name, Type left, Type right,
+            boolean stackTrace) {
+        super(null, null, false, stackTrace);
+        this.pos = pos;
+        this.reason = reason;
+        this.name = name;
+        this.left = left;
+        this.right = right;
+    }
+
+    @Override
+    public String getMessage() {
+        if (message == null)
+            message = "Erro semântico na linha " + Position.line(pos) + ": " + detail();
+        return message;
     }
 
-    public int getLine() { return line; }
+    /** Mensagem sem o prefixo de linha. */
+    public String detail() {
+        switch (reason) {
+            case UNDECLARED:
+                return "identificador '" + name + "' não declarado";
+            case REDECLARED:
+                return "identificador '" + name + "' já declarado neste bloco";
+            case ASSIGN:
+                return "tipo da expressão (" + right + ") incompatível com '" + name + "' (" + left + ")";
+            case RELATIONAL:
+                return "tipos incompatíveis em operador relacional (" + left + " x " + right + ")";
+            case ARITHMETIC:
+                return "tipos incompatíveis em operação aritmética (" + left + " x " + right + ")";
+            case BOOL_OPERANDS:
+                return "'" + name + "' requer operandos booleanos";
+            case REQUIRE_BOOL:
+                return name + " deve ser booleana (encontrado: " + left + ")";
+            case REQUIRE_NUMERIC:
+                return name + " deve ser numérico ou caractere (encontrado: " + left + ")";
+            case UNINITIALIZED:
+                return "variável '" + name + "' pode ser usada antes de ser atribuída";
+            default:
+                return name;
+        }
+    }
+
+    public long getPosition() { return pos; }
+
+    public int getLine() { return Position.line(pos); }
+
+    public Reason getReason() { return reason; }
+
+    public String getName() { return name; }
+
+    public Type getLeft() { return left; }
+
+    public Type getRight() { return right; }
 }
@@ -0,0 +1,55 @@
+package parser;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  TypeRules  –  regras de tipo pré-calculadas em tabelas indexadas
+ *                por Type.ordinal(); NONE marca "sem resultado".
+ *  ---------------------------------------------------------------- */
+public final class TypeRules {
+
+    public static final byte NONE = -1;
+
+    private static final Type[] TYPES = Type.values();
+    private static final int N = TYPES.length;
+
+    private static final byte[][] ARITHMETIC = new byte[N][N];
+    private static final boolean[][] COMPARABLE = new boolean[N][N];
+    private static final boolean[] NUMERIC_OR_CHAR = new boolean[N];
+
+    static {
+        for (Type a : TYPES) {
+            NUMERIC_OR_CHAR[a.ordinal()] = isNumeric(a) || a == Type.CHAR;
+            for (Type b : TYPES) {
+                /* aritmética: INT/FLOAT entre si (promove a FLOAT) e CHAR x INT (coerção ASCII) */
+                Type r = null;
+                if (isNumeric(a) && isNumeric(b))
+                    r = (a == Type.FLOAT || b == Type.FLOAT) ? Type.FLOAT : Type.INT;
+                else if ((a == Type.CHAR && b == Type.INT) || (a == Type.INT && b == Type.CHAR))
+                    r = Type.INT;
+                ARITHMETIC[a.ordinal()][b.ordinal()] = r == null ? NONE : (byte) r.ordinal();
+
+                /* relacionais: tudo que admite aritmética, mais CHAR x CHAR */
+                COMPARABLE[a.ordinal()][b.ordinal()] = r != null || (a == Type.CHAR && b == Type.CHAR);
+            }
+        }
+    }
+
+    private TypeRules() { }
+
+    private static boolean isNumeric(Type t) {
+        return t == Type.INT || t == Type.FLOAT;
+    }
+
+    /** Tipo de a op b para + - * /, ou null se a operação não for permitida. */
+    public static Type arithmetic(Type a, Type b) {
+        int r = ARITHMETIC[a.ordinal()][b.ordinal()];
+        return r == NONE ? null : TYPES[r];
+    }
+
+    public static boolean isComparable(Type a, Type b) {
+        return COMPARABLE[a.ordinal()][b.ordinal()];
+    }
+
+    public static boolean isNumericOrChar(Type t) {
+        return NUMERIC_OR_CHAR[t.ordinal()];
+    }
+}
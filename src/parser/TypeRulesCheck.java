@@ -0,0 +1,123 @@
+package parser;
+
+import java.util.Random;
+
+/*  ────────────────────────────────────────────────────────────────
+ *  TypeRulesCheck  –  confere as tabelas de TypeRules com as regras
+ *  escritas em condicionais (como o Parser fazia) e mede as duas
+ *
+ *  Para cada par de tipos exige o mesmo resultado de arithmetic(),
+ *  isComparable() e isNumericOrChar(). A medição percorre uma sequência
+ *  aleatória de pares (todos os 25 aparecem, sem padrão para o preditor
+ *  de desvios) com as tabelas e com as condicionais; isComparable antigo
+ *  chamava arithmeticResult e pegava a SemanticException nos pares
+ *  inválidos, e é medido assim.
+ *
+ *  Uso: java parser.TypeRulesCheck [pares]
+ *  Padrão: 1000000 pares. Sai com status 1 se houver diferença.
+ *  ---------------------------------------------------------------- */
+public final class TypeRulesCheck {
+
+    private static final Type[] TYPES = Type.values();
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        int differences = 0;
+        for (Type a : TYPES) {
+            if (TypeRules.isNumericOrChar(a) != (isNumeric(a) || a == Type.CHAR)) {
+                System.err.println("isNumericOrChar(" + a + ")");
+                differences++;
+            }
+            for (Type b : TYPES) {
+                if (TypeRules.arithmetic(a, b) != arithmetic(a, b)) {
+                    System.err.println("arithmetic(" + a + ", " + b + "): " + TypeRules.arithmetic(a, b)
+                            + ", esperado " + arithmetic(a, b));
+                    differences++;
+                }
+                if (TypeRules.isComparable(a, b) != isComparable(a, b)) {
+                    System.err.println("isComparable(" + a + ", " + b + ")");
+                    differences++;
+                }
+            }
+        }
+        System.out.println(TYPES.length * TYPES.length + " pares conferidos, " + differences + " diferenças");
+
+        Random random = new Random(1);
+        Type[] left = new Type[n], right = new Type[n];
+        for (int i = 0; i < n; i++) {
+            left[i] = TYPES[random.nextInt(TYPES.length)];
+            right[i] = TYPES[random.nextInt(TYPES.length)];
+        }
+        long[] best = new long[6];
+        java.util.Arrays.fill(best, Long.MAX_VALUE);
+        int sink = 0;
+        for (int round = 0; round < 9; round++) {
+            long t = System.nanoTime();
+            for (int i = 0; i < n; i++) if (TypeRules.arithmetic(left[i], right[i]) != null) sink++;
+            best[0] = Math.min(best[0], System.nanoTime() - t);
+
+            t = System.nanoTime();
+            for (int i = 0; i < n; i++) if (arithmetic(left[i], right[i]) != null) sink++;
+            best[1] = Math.min(best[1], System.nanoTime() - t);
+
+            t = System.nanoTime();
+            for (int i = 0; i < n; i++) if (TypeRules.isComparable(left[i], right[i])) sink++;
+            best[2] = Math.min(best[2], System.nanoTime() - t);
+
+            t = System.nanoTime();
+            for (int i = 0; i < n; i++) if (isComparable(left[i], right[i])) sink++;
+            best[3] = Math.min(best[3], System.nanoTime() - t);
+
+            t = System.nanoTime();
+            for (int i = 0; i < n; i++) if (TypeRules.isNumericOrChar(left[i])) sink++;
+            best[4] = Math.min(best[4], System.nanoTime() - t);
+
+            t = System.nanoTime();
+            for (int i = 0; i < n; i++) if (isNumeric(left[i]) || left[i] == Type.CHAR) sink++;
+            best[5] = Math.min(best[5], System.nanoTime() - t);
+        }
+        System.out.printf("medição (%d pares aleatórios, melhor de 9, ns/par; %d):%n", n, sink);
+        System.out.printf("  arithmetic       tabela %6.2f   condicionais %6.2f%n", (double) best[0] / n, (double) best[1] / n);
+        System.out.printf("  isComparable     tabela %6.2f   condicionais %6.2f%n", (double) best[2] / n, (double) best[3] / n);
+        System.out.printf("  isNumericOrChar  tabela %6.2f   condicionais %6.2f%n", (double) best[4] / n, (double) best[5] / n);
+
+        if (differences > 0)
+            System.exit(1);
+    }
+
+    /* ----------------------------------------------------------
+     *  As regras como o Parser as escrevia antes das tabelas
+     * ---------------------------------------------------------- */
+    private static boolean isNumeric(Type t) {
+        return t == Type.INT || t == Type.FLOAT;
+    }
+
+    private static Type arithmetic(Type a, Type b) {
+        if (isNumeric(a) && isNumeric(b))
+            return (a == Type.FLOAT || b == Type.FLOAT) ? Type.FLOAT : Type.INT;
+        if ((a == Type.CHAR && b == Type.INT) || (a == Type.INT && b == Type.CHAR))
+            return Type.INT;
+        return null;
+    }
+
+    private static Type arithmeticResult(Type a, Type b) {
+        Type r = arithmetic(a, b);
+        if (r == null)
+            throw new SemanticException("tipos incompatíveis em operação aritmética (" + a + " x " + b + ")", 0);
+        return r;
+    }
+
+    private static boolean isComparable(Type a, Type b) {
+        if (a == Type.CHAR && b == Type.CHAR)
+            return true;
+        if ((a == Type.CHAR && b == Type.INT) || (a == Type.INT && b == Type.CHAR))
+            return true;
+        try {
+            arithmeticResult(a, b);
+            return true;
+        } catch (SemanticException e) {
+            return false;
+        }
+    }
+}